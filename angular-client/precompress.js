@@ -0,0 +1,37 @@
+// Precompress the production build, see "npm run build"
+// Each compressible file in dist gets a maximally compressed .gz sibling, which the Spring Boot application serves to clients that accept gzip,
+// so assets are compressed once here rather than on every request. A .gz file is only kept when it is smaller than the original.
+
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const DIST_DIRECTORY = path.join(__dirname, 'dist');
+const COMPRESSIBLE_EXTENSIONS = ['.css', '.html', '.js', '.json', '.map', '.svg', '.txt', '.ico'];
+const MINIMUM_SIZE = 1024;
+
+function precompress(directory) {
+  for (const name of fs.readdirSync(directory)) {
+    const file = path.join(directory, name);
+    const stats = fs.statSync(file);
+
+    if (stats.isDirectory()) {
+      precompress(file);
+      continue;
+    }
+
+    if (stats.size < MINIMUM_SIZE || COMPRESSIBLE_EXTENSIONS.indexOf(path.extname(name)) < 0) {
+      continue;
+    }
+
+    const compressed = zlib.gzipSync(fs.readFileSync(file), { level: zlib.constants.Z_BEST_COMPRESSION });
+    if (compressed.length < stats.size) {
+      fs.writeFileSync(file + '.gz', compressed);
+      // Keep the modification times equal, so Last-Modified is the same for both representations
+      fs.utimesSync(file + '.gz', stats.atime, stats.mtime);
+      console.log(path.relative(DIST_DIRECTORY, file) + ': ' + stats.size + ' -> ' + compressed.length + ' bytes');
+    }
+  }
+}
+
+precompress(DIST_DIRECTORY);
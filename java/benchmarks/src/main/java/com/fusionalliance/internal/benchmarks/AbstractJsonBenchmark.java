@@ -0,0 +1,102 @@
+package com.fusionalliance.internal.benchmarks;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
+import com.fusionalliance.internal.springboottemplate.api.user.UserListOutboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserOutboundDto;
+import com.google.common.io.ByteStreams;
+
+/**
+ * This abstract class contains the JSON benchmarks for {@link GsonHelper} and DTO serialization. Concrete subclasses choose the number of threads.
+ * <p>
+ * The size parameter is the number of map entries for the {@link GsonHelper} benchmarks and the number of users for the DTO benchmark. Size 5
+ * corresponds to a JWT payload; 250 to a large user list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractJsonBenchmark {
+	@Param({ "5", "25", "250" })
+	private int size;
+
+	private Map<String, Object> map;
+	private String mapJson;
+	private UserListOutboundDto userListOutboundDto;
+
+	@Setup
+	public void setUp() {
+		map = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			switch (i % 3) {
+			case 0:
+				map.put("name" + i, "Joe Bloggs " + i);
+				break;
+
+			case 1:
+				map.put("expires" + i, System.currentTimeMillis() / 1000 + i);
+				break;
+
+			default:
+				map.put("admin" + i, i % 2 == 0);
+			}
+		}
+		mapJson = GsonHelper.mapToJson(map);
+
+		userListOutboundDto = new UserListOutboundDto();
+		for (int i = 1; i <= size; i++) {
+			userListOutboundDto.addUser(new UserOutboundDto() //
+					.userKey(i) //
+					.login("jbloggs" + i) //
+					.fullName("Joe Bloggs " + i) //
+					.description("Benchmark user number " + i + ", created to give the list a realistic description length") //
+					.admin(i % 10 == 0) //
+					.build());
+		}
+		userListOutboundDto.build();
+	}
+
+	@Benchmark
+	public Map<String, Object> jsonToMap() {
+		return GsonHelper.jsonToMap(mapJson);
+	}
+
+	@Benchmark
+	public String mapToJson() {
+		return GsonHelper.mapToJson(map);
+	}
+
+	@Benchmark
+	public String userListToJson() {
+		return userListOutboundDto.toJson();
+	}
+
+	@Benchmark
+	public void userListWriteJson() throws IOException {
+		userListOutboundDto.write(ByteStreams.nullOutputStream(), WireFormat.JSON);
+	}
+
+	@Benchmark
+	public void userListWriteCbor() throws IOException {
+		userListOutboundDto.write(ByteStreams.nullOutputStream(), WireFormat.CBOR);
+	}
+}
@@ -0,0 +1,109 @@
+package com.fusionalliance.internal.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fusionalliance.internal.jwt.business.JwtImpl;
+import com.fusionalliance.internal.sharedutility.jwt.HmacSha256EnginePool;
+import com.fusionalliance.internal.sharedutility.jwt.JwtClaims;
+import com.fusionalliance.internal.sharedutility.jwt.JwtException;
+import com.fusionalliance.internal.sharedutility.jwt.JwtTokenParser;
+import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * This abstract class contains the JWT benchmarks. Concrete subclasses choose the number of threads.
+ * <p>
+ * The token carries the claims issued by the provider. Where an engine pool variant exists, the secret variant is benchmarked as well, so the
+ * results show the cost of obtaining and initializing a hash engine per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractJwtBenchmark {
+	private static final String SECRET_ID = "sec0";
+
+	private String secret;
+	private HmacSha256EnginePool enginePool;
+	private Map<String, Object> payloadMap;
+	private String token;
+	private String header;
+	private String payload;
+	private String signature;
+	private JwtClaims claims;
+
+	@Setup
+	public void setUp() throws JwtException {
+		secret = JwtUtility.generateSecret();
+		enginePool = new HmacSha256EnginePool(secret);
+
+		// Expiration far enough out to outlast the run
+		payloadMap = ImmutableMap.<String, Object>builder() //
+				.put("exp", System.currentTimeMillis() / 1000 + TimeUnit.DAYS.toSeconds(1)) //
+				.put("lid", "jbloggs") //
+				.put("name", "Joe Bloggs") //
+				.put("admin", false) //
+				.put("sid", SECRET_ID) //
+				.build();
+		token = JwtUtility.buildToken(payloadMap, enginePool);
+
+		claims = JwtTokenParser.parse(token);
+		header = claims.getHeaderEncoded();
+		payload = claims.getPayloadEncoded();
+		signature = claims.getSignatureEncoded();
+	}
+
+	@Benchmark
+	public String buildTokenSecret() {
+		return JwtUtility.buildToken(payloadMap, secret);
+	}
+
+	@Benchmark
+	public String buildTokenEnginePool() {
+		return JwtUtility.buildToken(payloadMap, enginePool);
+	}
+
+	@Benchmark
+	public Map<String, Object> retrieveTokenPayload() throws JwtException {
+		return JwtUtility.retrieveTokenPayload(token);
+	}
+
+	@Benchmark
+	public JwtClaims parseToken() throws JwtException {
+		return JwtTokenParser.parse(token);
+	}
+
+	@Benchmark
+	public boolean verifySignatureSecret() {
+		return JwtUtility.verifySignature(header, payload, signature, secret);
+	}
+
+	@Benchmark
+	public boolean verifySignatureEnginePool() {
+		return JwtUtility.verifySignature(header, payload, signature, enginePool);
+	}
+
+	@Benchmark
+	public boolean verifySignatureClaims() {
+		return JwtUtility.verifySignature(claims, enginePool);
+	}
+
+	@Benchmark
+	public JwtImpl constructJwtImpl() throws JwtException {
+		return new JwtImpl(token);
+	}
+}
@@ -0,0 +1,57 @@
+package com.fusionalliance.internal.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class is the entry point of benchmarks.jar. It accepts the standard JMH command line options, but defaults the result format to JSON and the
+ * result file to {@link #DEFAULT_RESULT_FILE}, so that every run produces a machine-readable record that can be compared across releases.
+ * <p>
+ * For example, to run only the JWT benchmarks:
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar Jwt
+ * </pre>
+ */
+public final class BenchmarkRunner {
+	public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+	public static void main(final String[] args) throws CommandLineOptionException, IOException, RunnerException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		if (commandLineOptions.shouldHelp()) {
+			commandLineOptions.showHelp();
+
+			return;
+		}
+
+		final Options options = new OptionsBuilder() //
+				.parent(commandLineOptions) //
+				.resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON)) //
+				.result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE)) //
+				.build();
+		final Runner runner = new Runner(options);
+
+		if (commandLineOptions.shouldList()) {
+			runner.list();
+
+			return;
+		}
+
+		runner.run();
+	}
+
+	/**
+	 * Hidden constructor
+	 */
+	private BenchmarkRunner() {
+		// Do nothing
+	}
+}
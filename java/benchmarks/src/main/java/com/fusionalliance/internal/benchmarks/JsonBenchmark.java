@@ -0,0 +1,11 @@
+package com.fusionalliance.internal.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * This class runs the JSON benchmarks on a single thread.
+ */
+@Threads(1)
+public class JsonBenchmark extends AbstractJsonBenchmark {
+	// Benchmarks are inherited
+}
@@ -0,0 +1,12 @@
+package com.fusionalliance.internal.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * This class runs the JSON benchmarks on several threads sharing the {@link com.fusionalliance.internal.sharedutility.core.GsonHelper#GSON}
+ * instance, as request threads do.
+ */
+@Threads(4)
+public class JsonConcurrentBenchmark extends AbstractJsonBenchmark {
+	// Benchmarks are inherited
+}
@@ -0,0 +1,11 @@
+package com.fusionalliance.internal.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * This class runs the JWT benchmarks on a single thread.
+ */
+@Threads(1)
+public class JwtBenchmark extends AbstractJwtBenchmark {
+	// Benchmarks are inherited
+}
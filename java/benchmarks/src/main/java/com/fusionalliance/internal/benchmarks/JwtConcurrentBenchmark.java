@@ -0,0 +1,11 @@
+package com.fusionalliance.internal.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * This class runs the JWT benchmarks on several threads sharing the same secret, engine pool and token, as request threads do.
+ */
+@Threads(4)
+public class JwtConcurrentBenchmark extends AbstractJwtBenchmark {
+	// Benchmarks are inherited
+}
@@ -0,0 +1,669 @@
+package com.fusionalliance.internal.gsonadapter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * This class generates the source of the GsonFields class and, for concrete classes, the TypeAdapter class for a class annotated with
+ * GenerateTypeAdapter. See {@link TypeAdapterProcessor}.
+ */
+final class AdapterSourceWriter {
+	static final String FIELDS_SUFFIX = "GsonFields";
+	static final String ADAPTER_SUFFIX = "TypeAdapter";
+
+	private static final String SERIALIZED_NAME_ANNOTATION = "com.google.gson.annotations.SerializedName";
+	private static final String GENERATED_NOTE = "Generated by " + TypeAdapterProcessor.class.getSimpleName() + "; do not edit.";
+
+	private final ProcessingEnvironment processingEnvironment;
+	private final Elements elements;
+	private final Types types;
+	private final Messager messager;
+	private final TypeMirror stringType;
+	private final TypeMirror collectionType;
+
+	AdapterSourceWriter(final ProcessingEnvironment processingEnvironmentParm) {
+		processingEnvironment = processingEnvironmentParm;
+		elements = processingEnvironmentParm.getElementUtils();
+		types = processingEnvironmentParm.getTypeUtils();
+		messager = processingEnvironmentParm.getMessager();
+		stringType = elements.getTypeElement(String.class.getName()).asType();
+		collectionType = types.erasure(elements.getTypeElement("java.util.Collection").asType());
+	}
+
+	/**
+	 * Generate the sources for the class. Problems are reported as compilation errors.
+	 *
+	 * @param typeElementParm
+	 *            required
+	 * @return the binary name of the generated TypeAdapterFactory, or null if the class is abstract or cannot be handled
+	 */
+	String write(final TypeElement typeElementParm) {
+		final boolean concrete = !typeElementParm.getModifiers().contains(Modifier.ABSTRACT);
+
+		final List<SerializedField> fields = collectFields(typeElementParm);
+		if (fields == null || !checkAccessible(typeElementParm) || concrete && !checkInstantiable(typeElementParm)) {
+			return null;
+		}
+
+		final String packageName = elements.getPackageOf(typeElementParm).getQualifiedName().toString();
+		final String flatName = flattenName(typeElementParm);
+
+		final boolean written = writeSource(typeElementParm, packageName, flatName + FIELDS_SUFFIX,
+				generateFieldsSource(typeElementParm, packageName, flatName, fields));
+		if (!concrete || !written) {
+			return null;
+		}
+
+		if (!writeSource(typeElementParm, packageName, flatName + ADAPTER_SUFFIX, generateAdapterSource(typeElementParm, packageName, flatName))) {
+			return null;
+		}
+
+		return qualify(packageName, flatName + ADAPTER_SUFFIX) + "$Factory";
+	}
+
+	/**
+	 * Return the serialized fields declared by the class, in declaration order.
+	 *
+	 * @param typeElementParm
+	 * @return null if any field cannot be handled
+	 */
+	private List<SerializedField> collectFields(final TypeElement typeElementParm) {
+		final List<SerializedField> fields = new ArrayList<>();
+		final Set<String> jsonNames = new HashSet<>();
+		boolean valid = true;
+
+		for (final VariableElement fieldElement : ElementFilter.fieldsIn(typeElementParm.getEnclosedElements())) {
+			final Set<Modifier> modifiers = fieldElement.getModifiers();
+			if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+				continue;
+			}
+
+			if (modifiers.contains(Modifier.PRIVATE)) {
+				error(fieldElement, "Serialized field is private; make it package-private, or transient to exclude it from JSON.");
+				valid = false;
+
+				continue;
+			}
+
+			final TypeMirror type = fieldElement.asType();
+			if (containsTypeVariable(type)) {
+				error(fieldElement, "Serialized field type depends on a type variable, which a generated adapter cannot resolve.");
+				valid = false;
+
+				continue;
+			}
+
+			final FieldKind kind = FieldKind.of(type, types.isSameType(type, stringType));
+			final boolean finalCollection = modifiers.contains(Modifier.FINAL) && !type.getKind().isPrimitive()
+					&& types.isAssignable(types.erasure(type), collectionType);
+			if (modifiers.contains(Modifier.FINAL) && !finalCollection) {
+				error(fieldElement, "Serialized field is final and cannot be read; only final collections are refilled in place.");
+				valid = false;
+
+				continue;
+			}
+
+			final TypeMirror adapterType = kind == FieldKind.BOXED ? types.boxedClass((PrimitiveType) type).asType() : type;
+			final SerializedField field = new SerializedField(fieldElement.getSimpleName().toString(), retrieveJsonName(fieldElement),
+					finalCollection ? FieldKind.FINAL_COLLECTION : kind, adapterType.toString(), retrieveAdapterExpression(adapterType));
+			if (!jsonNames.add(field.jsonName)) {
+				error(fieldElement, "Serialized name \"" + field.jsonName + "\" is declared more than once.");
+				valid = false;
+
+				continue;
+			}
+
+			fields.add(field);
+		}
+
+		return valid ? fields : null;
+	}
+
+	private boolean checkAccessible(final TypeElement typeElementParm) {
+		for (Element element = typeElementParm; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			final TypeElement enclosingTypeElement = (TypeElement) element;
+
+			if (enclosingTypeElement.getModifiers().contains(Modifier.PRIVATE)) {
+				error(typeElementParm, "Class is not accessible from its package.");
+
+				return false;
+			}
+
+			if (enclosingTypeElement.getNestingKind() == NestingKind.MEMBER && !enclosingTypeElement.getModifiers().contains(Modifier.STATIC)) {
+				error(typeElementParm, "Inner classes are not supported; make the nested class static.");
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private boolean checkInstantiable(final TypeElement typeElementParm) {
+		if (!typeElementParm.getTypeParameters().isEmpty()) {
+			error(typeElementParm, "Concrete classes with type parameters are not supported.");
+
+			return false;
+		}
+
+		for (final ExecutableElement constructor : ElementFilter.constructorsIn(typeElementParm.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+
+		error(typeElementParm, "Concrete class has no non-private no-argument constructor.");
+
+		return false;
+	}
+
+	/**
+	 * Return the qualified name of the superclass' GsonFields class, or null if the superclass is not annotated.
+	 *
+	 * @param typeElementParm
+	 * @return
+	 */
+	private String retrieveSuperFieldsName(final TypeElement typeElementParm) {
+		final TypeMirror superclass = typeElementParm.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+
+		final TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+		for (final AnnotationMirror annotationMirror : elements.getAllAnnotationMirrors(superElement)) {
+			final TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+			if (annotationElement.getQualifiedName().contentEquals(TypeAdapterProcessor.ANNOTATION_NAME)) {
+				return qualify(elements.getPackageOf(superElement).getQualifiedName().toString(), flattenName(superElement) + FIELDS_SUFFIX);
+			}
+		}
+
+		return null;
+	}
+
+	private String retrieveJsonName(final VariableElement fieldElementParm) {
+		for (final AnnotationMirror annotationMirror : fieldElementParm.getAnnotationMirrors()) {
+			if (!((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME_ANNOTATION)) {
+				continue;
+			}
+
+			for (final Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationMirror.getElementValues().entrySet()) {
+				if (entry.getKey().getSimpleName().contentEquals("value")) {
+					return (String) entry.getValue().getValue();
+				}
+			}
+		}
+
+		return fieldElementParm.getSimpleName().toString();
+	}
+
+	private String generateFieldsSource(final TypeElement typeElementParm, final String packageNameParm, final String flatNameParm,
+			final List<SerializedField> fieldsParm) {
+		final String className = flatNameParm + FIELDS_SUFFIX;
+		final String valueType = retrieveValueType(typeElementParm);
+		final String superFieldsName = retrieveSuperFieldsName(typeElementParm);
+		final Set<FieldKind> inlineKinds = EnumSet.noneOf(FieldKind.class);
+
+		final StringBuilder source = new StringBuilder();
+		appendHeader(source, packageNameParm);
+		source.append("/**\n");
+		source.append(" * Reads and writes the serialized fields declared by {@link ").append(typeElementParm.getQualifiedName())
+				.append("}, followed by those of its superclasses.\n");
+		source.append(" * <p>\n");
+		source.append(" * ").append(GENERATED_NOTE).append("\n");
+		source.append(" */\n");
+		source.append("public final class ").append(className).append(" {\n");
+
+		if (superFieldsName != null) {
+			source.append("\tprivate final ").append(superFieldsName).append(" superFields;\n");
+		}
+		for (final SerializedField field : fieldsParm) {
+			if (field.kind.isDelegated()) {
+				source.append("\tprivate final TypeAdapter<").append(field.adapterType).append("> ").append(field.fieldName)
+						.append("Adapter;\n");
+			}
+		}
+
+		source.append("\n");
+		source.append("\tpublic ").append(className).append("(final Gson gson) {\n");
+		if (superFieldsName != null) {
+			source.append("\t\tsuperFields = new ").append(superFieldsName).append("(gson);\n");
+		}
+		for (final SerializedField field : fieldsParm) {
+			if (field.kind.isDelegated()) {
+				source.append("\t\t").append(field.fieldName).append("Adapter = ").append(field.adapterExpression).append(";\n");
+			}
+		}
+		source.append("\t}\n");
+
+		source.append("\n");
+		source.append("\t/**\n");
+		source.append("\t * Write the name and value of each serialized field.\n");
+		source.append("\t */\n");
+		source.append("\tpublic void write(final JsonWriter out, final ").append(valueType).append(" value) throws IOException {\n");
+		for (final SerializedField field : fieldsParm) {
+			source.append("\t\tout.name(").append(quote(field.jsonName)).append(")");
+			if (field.kind.isDelegated()) {
+				source.append(";\n");
+				source.append("\t\t").append(field.fieldName).append("Adapter.write(out, value.").append(field.fieldName).append(");\n");
+			}
+			else {
+				source.append(".value(value.").append(field.fieldName).append(");\n");
+			}
+		}
+		if (superFieldsName != null) {
+			source.append("\t\tsuperFields.write(out, value);\n");
+		}
+		source.append("\t}\n");
+
+		source.append("\n");
+		source.append("\t/**\n");
+		source.append("\t * Read the value of the named field.\n");
+		source.append("\t * \n");
+		source.append("\t * @return false if no serialized field has the name\n");
+		source.append("\t */\n");
+		source.append("\tpublic boolean read(final String name, final JsonReader in, final ").append(valueType)
+				.append(" value) throws IOException {\n");
+		final String fallback = superFieldsName == null ? "false" : "superFields.read(name, in, value)";
+		if (fieldsParm.isEmpty()) {
+			source.append("\t\treturn ").append(fallback).append(";\n");
+		}
+		else {
+			source.append("\t\tswitch (name) {\n");
+			for (final SerializedField field : fieldsParm) {
+				source.append("\t\tcase ").append(quote(field.jsonName)).append(": {\n");
+				appendReadField(source, field);
+				source.append("\t\t\treturn true;\n");
+				source.append("\t\t}\n");
+
+				if (!field.kind.isDelegated()) {
+					inlineKinds.add(field.kind);
+				}
+			}
+			source.append("\t\tdefault:\n");
+			source.append("\t\t\treturn ").append(fallback).append(";\n");
+			source.append("\t\t}\n");
+		}
+		source.append("\t}\n");
+
+		appendInlineReaders(source, inlineKinds);
+
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	private static void appendReadField(final StringBuilder sourceParm, final SerializedField fieldParm) {
+		final String target = "value." + fieldParm.fieldName;
+
+		switch (fieldParm.kind) {
+		case BOOLEAN:
+		case INT:
+		case LONG:
+			sourceParm.append("\t\t\t").append(target).append(" = ").append(fieldParm.kind.readerName).append("(in, ").append(target).append(");\n");
+			break;
+		case STRING:
+			sourceParm.append("\t\t\t").append(target).append(" = readString(in);\n");
+			break;
+		case BOXED:
+			// As with Gson's reflective adapter, null leaves a primitive at its current value
+			sourceParm.append("\t\t\tfinal ").append(fieldParm.adapterType).append(" read = ").append(fieldParm.fieldName)
+					.append("Adapter.read(in);\n");
+			sourceParm.append("\t\t\tif (read != null) {\n");
+			sourceParm.append("\t\t\t\t").append(target).append(" = read;\n");
+			sourceParm.append("\t\t\t}\n");
+			break;
+		case FINAL_COLLECTION:
+			sourceParm.append("\t\t\tfinal ").append(fieldParm.adapterType).append(" read = ").append(fieldParm.fieldName)
+					.append("Adapter.read(in);\n");
+			sourceParm.append("\t\t\t").append(target).append(".clear();\n");
+			sourceParm.append("\t\t\tif (read != null) {\n");
+			sourceParm.append("\t\t\t\t").append(target).append(".addAll(read);\n");
+			sourceParm.append("\t\t\t}\n");
+			break;
+		default:
+			sourceParm.append("\t\t\t").append(target).append(" = ").append(fieldParm.fieldName).append("Adapter.read(in);\n");
+			break;
+		}
+	}
+
+	/**
+	 * Append the readers used for inline fields. They accept the same input as Gson's built-in adapters for these types.
+	 *
+	 * @param sourceParm
+	 * @param inlineKindsParm
+	 */
+	private static void appendInlineReaders(final StringBuilder sourceParm, final Set<FieldKind> inlineKindsParm) {
+		if (inlineKindsParm.contains(FieldKind.BOOLEAN)) {
+			sourceParm.append("\n");
+			sourceParm.append("\tprivate static boolean readBoolean(final JsonReader in, final boolean current) throws IOException {\n");
+			sourceParm.append("\t\tfinal JsonToken token = in.peek();\n");
+			sourceParm.append("\t\tif (token == JsonToken.NULL) {\n");
+			sourceParm.append("\t\t\tin.nextNull();\n");
+			sourceParm.append("\t\t\treturn current;\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\tif (token == JsonToken.STRING) {\n");
+			sourceParm.append("\t\t\treturn Boolean.parseBoolean(in.nextString());\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\treturn in.nextBoolean();\n");
+			sourceParm.append("\t}\n");
+		}
+
+		for (final FieldKind kind : new FieldKind[] { FieldKind.INT, FieldKind.LONG }) {
+			if (!inlineKindsParm.contains(kind)) {
+				continue;
+			}
+
+			final String typeName = kind.name().toLowerCase();
+			sourceParm.append("\n");
+			sourceParm.append("\tprivate static ").append(typeName).append(" ").append(kind.readerName).append("(final JsonReader in, final ")
+					.append(typeName).append(" current) throws IOException {\n");
+			sourceParm.append("\t\tif (in.peek() == JsonToken.NULL) {\n");
+			sourceParm.append("\t\t\tin.nextNull();\n");
+			sourceParm.append("\t\t\treturn current;\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\ttry {\n");
+			sourceParm.append("\t\t\treturn in.next").append(kind == FieldKind.INT ? "Int" : "Long").append("();\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\tcatch (final NumberFormatException e) {\n");
+			sourceParm.append("\t\t\tthrow new JsonSyntaxException(e);\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t}\n");
+		}
+
+		if (inlineKindsParm.contains(FieldKind.STRING)) {
+			sourceParm.append("\n");
+			sourceParm.append("\tprivate static String readString(final JsonReader in) throws IOException {\n");
+			sourceParm.append("\t\tfinal JsonToken token = in.peek();\n");
+			sourceParm.append("\t\tif (token == JsonToken.NULL) {\n");
+			sourceParm.append("\t\t\tin.nextNull();\n");
+			sourceParm.append("\t\t\treturn null;\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\tif (token == JsonToken.BOOLEAN) {\n");
+			sourceParm.append("\t\t\treturn Boolean.toString(in.nextBoolean());\n");
+			sourceParm.append("\t\t}\n");
+			sourceParm.append("\t\treturn in.nextString();\n");
+			sourceParm.append("\t}\n");
+		}
+	}
+
+	private static String generateAdapterSource(final TypeElement typeElementParm, final String packageNameParm, final String flatNameParm) {
+		final String className = flatNameParm + ADAPTER_SUFFIX;
+		final String fieldsClassName = flatNameParm + FIELDS_SUFFIX;
+		final String valueType = typeElementParm.getQualifiedName().toString();
+
+		final StringBuilder source = new StringBuilder();
+		appendHeader(source, packageNameParm);
+		source.append("/**\n");
+		source.append(" * Gson TypeAdapter for {@link ").append(valueType).append("}; it produces the same JSON as Gson's reflective adapter.\n");
+		source.append(" * <p>\n");
+		source.append(" * ").append(GENERATED_NOTE).append("\n");
+		source.append(" */\n");
+		source.append("public final class ").append(className).append(" extends TypeAdapter<").append(valueType).append("> {\n");
+		source.append("\tprivate final ").append(fieldsClassName).append(" fields;\n");
+		source.append("\n");
+		source.append("\tpublic ").append(className).append("(final Gson gson) {\n");
+		source.append("\t\tfields = new ").append(fieldsClassName).append("(gson);\n");
+		source.append("\t}\n");
+		source.append("\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic void write(final JsonWriter out, final ").append(valueType).append(" value) throws IOException {\n");
+		source.append("\t\tif (value == null) {\n");
+		source.append("\t\t\tout.nullValue();\n");
+		source.append("\t\t\treturn;\n");
+		source.append("\t\t}\n");
+		source.append("\n");
+		source.append("\t\tout.beginObject();\n");
+		source.append("\t\tfields.write(out, value);\n");
+		source.append("\t\tout.endObject();\n");
+		source.append("\t}\n");
+		source.append("\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic ").append(valueType).append(" read(final JsonReader in) throws IOException {\n");
+		source.append("\t\tif (in.peek() == JsonToken.NULL) {\n");
+		source.append("\t\t\tin.nextNull();\n");
+		source.append("\t\t\treturn null;\n");
+		source.append("\t\t}\n");
+		source.append("\n");
+		source.append("\t\tfinal ").append(valueType).append(" value = new ").append(valueType).append("();\n");
+		source.append("\t\tin.beginObject();\n");
+		source.append("\t\twhile (in.hasNext()) {\n");
+		source.append("\t\t\tif (!fields.read(in.nextName(), in, value)) {\n");
+		source.append("\t\t\t\tin.skipValue();\n");
+		source.append("\t\t\t}\n");
+		source.append("\t\t}\n");
+		source.append("\t\tin.endObject();\n");
+		source.append("\n");
+		source.append("\t\treturn value;\n");
+		source.append("\t}\n");
+		source.append("\n");
+		source.append("\t/**\n");
+		source.append("\t * Creates the adapter for exactly {@link ").append(valueType).append("}; listed in META-INF/services.\n");
+		source.append("\t */\n");
+		source.append("\tpublic static final class Factory implements TypeAdapterFactory {\n");
+		source.append("\t\t@Override\n");
+		source.append("\t\t@SuppressWarnings(\"unchecked\")\n");
+		source.append("\t\tpublic <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {\n");
+		source.append("\t\t\tif (type.getRawType() != ").append(valueType).append(".class) {\n");
+		source.append("\t\t\t\treturn null;\n");
+		source.append("\t\t\t}\n");
+		source.append("\n");
+		source.append("\t\t\treturn (TypeAdapter<T>) new ").append(className).append("(gson);\n");
+		source.append("\t\t}\n");
+		source.append("\t}\n");
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	private static void appendHeader(final StringBuilder sourceParm, final String packageNameParm) {
+		if (!packageNameParm.isEmpty()) {
+			sourceParm.append("package ").append(packageNameParm).append(";\n\n");
+		}
+
+		sourceParm.append("import java.io.IOException;\n");
+		sourceParm.append("\n");
+		sourceParm.append("import com.google.gson.Gson;\n");
+		sourceParm.append("import com.google.gson.JsonSyntaxException;\n");
+		sourceParm.append("import com.google.gson.TypeAdapter;\n");
+		sourceParm.append("import com.google.gson.TypeAdapterFactory;\n");
+		sourceParm.append("import com.google.gson.reflect.TypeToken;\n");
+		sourceParm.append("import com.google.gson.stream.JsonReader;\n");
+		sourceParm.append("import com.google.gson.stream.JsonToken;\n");
+		sourceParm.append("import com.google.gson.stream.JsonWriter;\n");
+		sourceParm.append("\n");
+	}
+
+	private boolean writeSource(final TypeElement originatingElementParm, final String packageNameParm, final String classNameParm,
+			final String sourceParm) {
+		try {
+			final JavaFileObject sourceFile = processingEnvironment.getFiler().createSourceFile(qualify(packageNameParm, classNameParm),
+					originatingElementParm);
+
+			try (final Writer writer = sourceFile.openWriter()) {
+				writer.write(sourceParm);
+			}
+
+			return true;
+		}
+		catch (final IOException e) {
+			error(originatingElementParm, "Unable to write " + classNameParm + ": " + e.getMessage());
+
+			return false;
+		}
+	}
+
+	/**
+	 * Return the type used for instances in the GsonFields class: the qualified class name, with wildcards for any type parameters.
+	 *
+	 * @param typeElementParm
+	 * @return
+	 */
+	private static String retrieveValueType(final TypeElement typeElementParm) {
+		final int typeParameterCount = typeElementParm.getTypeParameters().size();
+		if (typeParameterCount == 0) {
+			return typeElementParm.getQualifiedName().toString();
+		}
+
+		final StringBuilder valueType = new StringBuilder(typeElementParm.getQualifiedName()).append("<?");
+		for (int i = 1; i < typeParameterCount; i++) {
+			valueType.append(", ?");
+		}
+
+		return valueType.append(">").toString();
+	}
+
+	/**
+	 * Return the simple names of the class and its enclosing classes, joined by underscores.
+	 *
+	 * @param typeElementParm
+	 * @return
+	 */
+	private static String flattenName(final TypeElement typeElementParm) {
+		String flatName = typeElementParm.getSimpleName().toString();
+
+		for (Element element = typeElementParm.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+			flatName = element.getSimpleName() + "_" + flatName;
+		}
+
+		return flatName;
+	}
+
+	private static String qualify(final String packageNameParm, final String classNameParm) {
+		return packageNameParm.isEmpty() ? classNameParm : packageNameParm + "." + classNameParm;
+	}
+
+	/**
+	 * Return the expression that obtains the delegate TypeAdapter from Gson. A TypeToken is needed only to capture type arguments.
+	 *
+	 * @param typeParm
+	 * @return
+	 */
+	private String retrieveAdapterExpression(final TypeMirror typeParm) {
+		if (typeParm.getKind() == TypeKind.DECLARED && ((DeclaredType) typeParm).getTypeArguments().isEmpty()) {
+			return "gson.getAdapter(" + types.erasure(typeParm) + ".class)";
+		}
+
+		return "gson.getAdapter(new TypeToken<" + typeParm + ">() {})";
+	}
+
+	private static String quote(final String textParm) {
+		return "\"" + textParm.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static boolean containsTypeVariable(final TypeMirror typeParm) {
+		if (typeParm == null) {
+			return false;
+		}
+
+		switch (typeParm.getKind()) {
+		case TYPEVAR:
+			return true;
+		case ARRAY:
+			return containsTypeVariable(((ArrayType) typeParm).getComponentType());
+		case WILDCARD:
+			final WildcardType wildcardType = (WildcardType) typeParm;
+
+			return containsTypeVariable(wildcardType.getExtendsBound()) || containsTypeVariable(wildcardType.getSuperBound());
+		case DECLARED:
+			for (final TypeMirror typeArgument : ((DeclaredType) typeParm).getTypeArguments()) {
+				if (containsTypeVariable(typeArgument)) {
+					return true;
+				}
+			}
+
+			return false;
+		default:
+			return false;
+		}
+	}
+
+	private void error(final Element elementParm, final String messageParm) {
+		messager.printMessage(Kind.ERROR, messageParm, elementParm);
+	}
+
+	/**
+	 * This enum lists how a field is read and written. Inline kinds are handled with JsonReader and JsonWriter directly; the others delegate to the
+	 * TypeAdapter Gson supplies for the field type.
+	 */
+	private enum FieldKind {
+		BOOLEAN("readBoolean"), INT("readInt"), LONG("readLong"), STRING("readString"), BOXED(null), REFERENCE(null), FINAL_COLLECTION(null);
+
+		private final String readerName;
+
+		FieldKind(final String readerNameParm) {
+			readerName = readerNameParm;
+		}
+
+		boolean isDelegated() {
+			return readerName == null;
+		}
+
+		static FieldKind of(final TypeMirror typeParm, final boolean stringParm) {
+			switch (typeParm.getKind()) {
+			case BOOLEAN:
+				return BOOLEAN;
+			case INT:
+				return INT;
+			case LONG:
+				return LONG;
+			default:
+				break;
+			}
+
+			if (typeParm.getKind().isPrimitive()) {
+				return BOXED;
+			}
+
+			return stringParm ? STRING : REFERENCE;
+		}
+	}
+
+	/**
+	 * This immutable class describes one serialized field.
+	 */
+	private static final class SerializedField {
+		private final String fieldName;
+		private final String jsonName;
+		private final FieldKind kind;
+		/** Type argument of the delegate TypeAdapter; the boxed type for primitives */
+		private final String adapterType;
+		private final String adapterExpression;
+
+		SerializedField(final String fieldNameParm, final String jsonNameParm, final FieldKind kindParm, final String adapterTypeParm,
+				final String adapterExpressionParm) {
+			fieldName = fieldNameParm;
+			jsonName = jsonNameParm;
+			kind = kindParm;
+			adapterType = adapterTypeParm;
+			adapterExpression = adapterExpressionParm;
+		}
+	}
+}
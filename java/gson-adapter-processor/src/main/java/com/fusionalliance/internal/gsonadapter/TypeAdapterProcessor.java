@@ -0,0 +1,95 @@
+package com.fusionalliance.internal.gsonadapter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * This annotation processor generates reflection-free Gson TypeAdapters for classes annotated with GenerateTypeAdapter, directly or through
+ * inheritance.
+ * <p>
+ * For every such class, X, a public XGsonFields class is generated in the same package; it reads and writes the serialized fields declared by X and
+ * delegates the remaining fields to the XGsonFields class of X's superclass. For every concrete X, an XTypeAdapter is also generated, along with a
+ * nested TypeAdapterFactory that is listed in META-INF/services/com.google.gson.TypeAdapterFactory, where GsonHelper finds it.
+ * <p>
+ * The generated adapters produce the same JSON as Gson's reflective adapter: fields are written in declaration order, subclass fields before
+ * superclass fields; static and transient fields are skipped; SerializedName is honored; unknown names are skipped when reading.
+ */
+@SupportedAnnotationTypes(TypeAdapterProcessor.ANNOTATION_NAME)
+public class TypeAdapterProcessor extends AbstractProcessor {
+	static final String ANNOTATION_NAME = "com.fusionalliance.internal.sharedutility.core.GenerateTypeAdapter";
+	static final String FACTORY_SERVICE_RESOURCE = "META-INF/services/com.google.gson.TypeAdapterFactory";
+
+	/** Binary names of the factories generated during this compilation */
+	private final List<String> factoryNames = new ArrayList<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotationsParm, final RoundEnvironment roundEnvironmentParm) {
+		if (roundEnvironmentParm.processingOver()) {
+			writeFactoryServiceFile();
+
+			return false;
+		}
+
+		final AdapterSourceWriter sourceWriter = new AdapterSourceWriter(processingEnv);
+
+		for (final TypeElement annotation : annotationsParm) {
+			for (final Element element : roundEnvironmentParm.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.CLASS) {
+					processingEnv.getMessager().printMessage(Kind.ERROR, ANNOTATION_NAME + " applies to classes only.", element);
+
+					continue;
+				}
+
+				final String factoryName = sourceWriter.write((TypeElement) element);
+				if (factoryName != null) {
+					factoryNames.add(factoryName);
+				}
+			}
+		}
+
+		// Leave the annotation to other processors
+		return false;
+	}
+
+	/**
+	 * Write the service file listing the generated factories, if there are any.
+	 */
+	private void writeFactoryServiceFile() {
+		if (factoryNames.isEmpty()) {
+			return;
+		}
+
+		try {
+			final FileObject fileObject = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", FACTORY_SERVICE_RESOURCE);
+
+			try (final Writer writer = fileObject.openWriter()) {
+				for (final String factoryName : factoryNames) {
+					writer.write(factoryName);
+					writer.write('\n');
+				}
+			}
+		}
+		catch (final IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + FACTORY_SERVICE_RESOURCE + ": " + e.getMessage());
+		}
+	}
+}
@@ -10,8 +10,8 @@ import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
  */
 public class AuthorizationInboundDto extends BaseInboundDto<AuthorizationInboundDto> {
 
-	private String login;
-	private String creds;
+	String login;
+	String creds;
 
 	@Override
 	public void validate() {
@@ -7,15 +7,15 @@ import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 public class AuthorizationOutboundDto extends BaseOutboundDto<AuthorizationOutboundDto> {
 
 	/** Login identifier */
-	private String login;
+	String login;
 	/** User name */
-	private String name;
+	String name;
 	/** Is admin? Note: OK for POC, but raises security concerns */
-	private boolean admin;
+	boolean admin;
 	/** Expiration time in seconds */
-	private long exp;
+	long exp;
 	/** JWT */
-	private String jwt;
+	String jwt;
 
 	@Override
 	public void validate() {
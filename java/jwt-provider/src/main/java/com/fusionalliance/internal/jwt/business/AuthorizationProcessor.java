@@ -1,11 +1,5 @@
 package com.fusionalliance.internal.jwt.business;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.sql.DataSource;
 
 import com.fusionalliance.internal.jwt.api.AuthorizationInboundDto;
@@ -15,6 +9,8 @@ import com.fusionalliance.internal.jwt.shared.SecretContainer.SecretInfo;
 import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadDao;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadQuery;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
 import com.fusionalliance.internal.sharedutility.jwt.JwtException;
 import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
@@ -22,7 +18,15 @@ import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 
 public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInboundDto> {
 
-	private static final int EXPIRATION_SECONDS = 30 * 60;
+	/** Lifetime of issued tokens; secrets are retained at least this long after they are replaced */
+	public static final int EXPIRATION_SECONDS = 30 * 60;
+
+	private static final JdbcReadQuery<UserInfo> USER_INFO_QUERY = new JdbcReadQuery<>("" //
+			+ "select interviewer_name, admin " //
+			+ "from interview.interviewer " //
+			+ "where login = ? and creds = ? and deactivated = false", //
+			resultSet -> new UserInfo(resultSet.getString(1), resultSet.getBoolean(2)) //
+	);
 
 	public AuthorizationProcessor(final AuthorizationInboundDto inboundDtoParm) {
 		super(inboundDtoParm);
@@ -32,15 +36,15 @@ public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInbou
 	protected BaseOutboundDto<?> process() throws ApplicationException {
 		final AuthorizationInboundDto inboundDto = getInboundDto();
 
-		final Map<String, String> userInfoMap;
+		final UserInfo userInfo;
 		try {
-			userInfoMap = retrieveUserInfo(inboundDto.getLogin(), inboundDto.getCreds());
+			userInfo = retrieveUserInfo(inboundDto.getLogin(), inboundDto.getCreds());
 		}
 		catch (final Exception e) {
 			throw new ApplicationException("Unable to access database.", e);
 		}
 
-		if (userInfoMap == null) {
+		if (userInfo == null) {
 			MessageManager.addError("Unable to authenticate user login: " + inboundDto.getLogin());
 
 			throw new ApplicationException("Unable to authenticate");
@@ -52,10 +56,10 @@ public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInbou
 		final JwtImpl jwtImpl;
 		try {
 			jwtImpl = new JwtImpl() //
-					.admin(Boolean.parseBoolean(userInfoMap.get("admin"))) //
+					.admin(userInfo.admin) //
 					.expires((System.currentTimeMillis() / 1000) + EXPIRATION_SECONDS) //
 					.login(inboundDto.getLogin()) //
-					.name(userInfoMap.get("name")) //
+					.name(userInfo.name) //
 					.secretId(secretInfo.getSecretId()) //
 					.build();
 		}
@@ -63,7 +67,7 @@ public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInbou
 			throw new ApplicationException("Unexpected JWT error: " + e.getMessage());
 		}
 
-		final String jwt = JwtUtility.buildToken(jwtImpl.getPayload(), secretInfo.getSecret());
+		final String jwt = JwtUtility.buildToken(jwtImpl.getPayload(), secretInfo.getEnginePool());
 
 		final BaseOutboundDto<?> outboundDto = new AuthorizationOutboundDto() //
 				.admin(jwtImpl.isAdmin()) //
@@ -80,8 +84,6 @@ public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInbou
 
 	/**
 	 * Retrieve user info from the Interviewer table.
-	 * <p>
-	 * Results are returned in a Map with two entries, "name" and "admin". "admin" is "true" or "false".
 	 *
 	 * @param loginParm
 	 * @param credsParm
@@ -89,31 +91,22 @@ public class AuthorizationProcessor extends BusinessProcessor<AuthorizationInbou
 	 * @throws Exception
 	 *             if unable to access the user info
 	 */
-	private Map<String, String> retrieveUserInfo(final String loginParm, final String credsParm) throws Exception {
+	private UserInfo retrieveUserInfo(final String loginParm, final String credsParm) throws Exception {
 		final DataSource dataSource = SpringContextHelper.getBeanByName("postgreSqlDataSource", DataSource.class);
 
-		try (
-				final Connection connection = dataSource.getConnection();
-				final PreparedStatement statement = connection.prepareStatement("" //
-						+ "select interviewer_name, admin " //
-						+ "from interview.interviewer " //
-						+ "where login = ? and creds = ? and deactivated = false" //
-				); //
-		) {
-			statement.setString(1, loginParm);
-			statement.setString(2, credsParm);
-
-			final ResultSet resultSet = statement.executeQuery();
-
-			if (!resultSet.next()) {
-				return null;
-			}
+		return new JdbcReadDao(dataSource).retrieveFirst(USER_INFO_QUERY, loginParm, credsParm);
+	}
 
-			final Map<String, String> userInfoMap = new HashMap<>();
-			userInfoMap.put("name", resultSet.getString(1));
-			userInfoMap.put("admin", Boolean.toString(resultSet.getBoolean(2)));
+	/**
+	 * This immutable class contains the user info needed to issue a token.
+	 */
+	private static final class UserInfo {
+		final String name;
+		final boolean admin;
 
-			return userInfoMap;
+		UserInfo(final String nameParm, final boolean adminParm) {
+			name = nameParm;
+			admin = adminParm;
 		}
 	}
 }
@@ -1,16 +1,16 @@
 package com.fusionalliance.internal.jwt.business;
 
-import java.util.Map;
-
 import org.apache.commons.lang3.StringUtils;
 
 import com.fusionalliance.internal.jwt.filter.JwtAuthenticationFilter;
-import com.fusionalliance.internal.sharedutility.core.GenericCastUtility;
+import com.fusionalliance.internal.sharedutility.core.GenerateTypeAdapter;
 import com.fusionalliance.internal.sharedutility.core.GsonHelper;
 import com.fusionalliance.internal.sharedutility.core.ValidationException;
 import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.jwt.JwtClaims;
 import com.fusionalliance.internal.sharedutility.jwt.JwtException;
-import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
+import com.fusionalliance.internal.sharedutility.jwt.JwtTokenParser;
+import com.google.gson.annotations.SerializedName;
 
 /**
  * This class implements an immutable JSON Web Token (JWT) with a payload that conforms to the expectations of the provider and known consumers (see
@@ -19,17 +19,24 @@ import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
  * <p>
  * Instances are immutable. If a getter or {@link #retrieveJwtPayload()} are called before {@link #build()} or a fluent setter is called after
  * {@link #build()}, then a {@link ValidationException} is thrown.
+ * <p>
+ * The serialized names of the properties are the JWT claim names expected by {@link JwtTokenParser}. They are serialized by a generated TypeAdapter
+ * (see {@link GenerateTypeAdapter}), which is why they are package-private.
  */
+@GenerateTypeAdapter
 public class JwtImpl {
-	private String name;
-	private long expires;
-	private String login;
-	private boolean admin;
-	private String secretId;
-
-	private transient String header;
+	String name;
+	@SerializedName("exp")
+	long expires;
+	@SerializedName("lid")
+	String login;
+	boolean admin;
+	@SerializedName("sid")
+	String secretId;
+
+	/** Set when constructed from a JWT; the raw token segments are derived from it on demand */
+	private transient JwtClaims claims;
 	private transient String payload;
-	private transient String signature;
 
 	private transient boolean built;
 
@@ -45,25 +52,17 @@ public class JwtImpl {
 	 * <i>is not</i> checked, as that requires access to the secret used to create it, which in turn requires the secret ID.
 	 */
 	public JwtImpl(final String jwtParm) throws JwtException {
-		final Map<String, Object> payloadMap;
-		payloadMap = JwtUtility.retrieveTokenPayload(jwtParm);
-
-		header = GenericCastUtility.cast(payloadMap.get(JwtUtility.TOKEN_HEADER));
-		payload = GenericCastUtility.cast(payloadMap.get(JwtUtility.TOKEN_PAYLOAD));
-		signature = GenericCastUtility.cast(payloadMap.get(JwtUtility.TOKEN_SIGNATURE));
+		claims = JwtTokenParser.parse(jwtParm);
 
-		final Number expiresAsNumber = GenericCastUtility.castOrNull(payloadMap.get("exp"));
-		if (expiresAsNumber == null) {
+		if (!claims.isExpiresPresent()) {
 			throw new JwtException("JWT expiration missing or invalid.");
 		}
 
-		expires = expiresAsNumber.longValue();
-
-		login = GenericCastUtility.castOrNull(payloadMap.get("lid"));
-		name = GenericCastUtility.castOrNull(payloadMap.get("name"));
-		admin = Boolean.TRUE.equals(GenericCastUtility.castOrNull(payloadMap.get("admin")));
-
-		secretId = GenericCastUtility.castOrNull(payloadMap.get("sid"));
+		expires = claims.getExpires();
+		login = claims.getLogin();
+		name = claims.getName();
+		admin = claims.isAdmin();
+		secretId = claims.getSecretId();
 
 		built = true;
 
@@ -108,13 +107,13 @@ public class JwtImpl {
 	public String getHeader() {
 		throwIfNotBuilt();
 
-		return header;
+		return claims == null ? null : claims.getHeaderEncoded();
 	}
 
 	/**
 	 * Return the payload.
 	 * <p>
-	 * If the instance was constructed by passing a JWT, this is the payload JSON as passed. Otherwise, it is the payload constructed from the
+	 * If the instance was constructed by passing a JWT, this is the encoded payload as passed. Otherwise, it is the payload JSON constructed from the
 	 * instance properties.
 	 * 
 	 * @return
@@ -122,7 +121,7 @@ public class JwtImpl {
 	public String getPayload() {
 		throwIfNotBuilt();
 
-		return payload;
+		return claims == null ? payload : claims.getPayloadEncoded();
 	}
 
 	/**
@@ -133,7 +132,18 @@ public class JwtImpl {
 	public String getSignature() {
 		throwIfNotBuilt();
 
-		return signature;
+		return claims == null ? null : claims.getSignatureEncoded();
+	}
+
+	/**
+	 * Return the claims if the instance was constructed by passing a JWT, or null.
+	 * 
+	 * @return
+	 */
+	public JwtClaims getClaims() {
+		throwIfNotBuilt();
+
+		return claims;
 	}
 
 	public JwtImpl name(final String nameParm) {
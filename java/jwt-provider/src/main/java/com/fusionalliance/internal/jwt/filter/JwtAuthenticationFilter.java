@@ -19,12 +19,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.fusionalliance.internal.jwt.business.JwtImpl;
 import com.fusionalliance.internal.jwt.shared.SecretContainer;
 import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedutility.jwt.HmacSha256EnginePool;
 import com.fusionalliance.internal.sharedutility.jwt.JwtException;
 import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
 
 /**
  * This class implements a security filter for all RESTful calls using JWT. If a valid token is found, then <code>login</code> and <code>admin</code>
  * attributes are added to the request. Otherwise, a 403 Forbidden response is sent, along a with a brief message describing the reason.
+ * <p>
+ * Verified tokens are retained in a {@link VerifiedTokenCache}, so repeated requests with the same token skip parsing and signature verification.
  */
 @WebFilter(urlPatterns = { "/rs/*" })
 public class JwtAuthenticationFilter implements Filter {
@@ -32,10 +35,12 @@ public class JwtAuthenticationFilter implements Filter {
 
 	private final Pattern AUTHORIZATION_PATTERN = Pattern.compile("Bearer ([a-zA-Z0-9_\\-]+\\.[a-zA-Z0-9_\\-]+\\.[a-zA-Z0-9_\\-]+)");
 	private final SecretContainer secretContainer;
+	private final VerifiedTokenCache verifiedTokenCache;
 
 	@Autowired
 	public JwtAuthenticationFilter(final SecretContainer secretContainerParm) {
 		secretContainer = secretContainerParm;
+		verifiedTokenCache = new VerifiedTokenCache(secretContainerParm, VerifiedTokenCache.DEFAULT_MAXIMUM_ENTRIES);
 	}
 
 	@Override
@@ -67,10 +72,22 @@ public class JwtAuthenticationFilter implements Filter {
 
 		final Matcher authorizationMatcher = AUTHORIZATION_PATTERN.matcher(authorization);
 		if (!authorizationMatcher.matches()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN, "The authorization is not a bearer JWT.");
+
+			return;
 		}
 
 		final String jwt = authorizationMatcher.group(1);
 
+		final LoginInfo cachedLoginInfo = verifiedTokenCache.retrieve(jwt);
+		if (cachedLoginInfo != null) {
+			request.setAttribute("loginInfo", cachedLoginInfo);
+
+			filterChainParm.doFilter(request, response);
+
+			return;
+		}
+
 		final JwtImpl jwtImpl;
 		try {
 			jwtImpl = new JwtImpl(jwt);
@@ -81,25 +98,35 @@ public class JwtAuthenticationFilter implements Filter {
 			return;
 		}
 
-		final String secret = secretContainer.retrieveSecretById(jwtImpl.getSecretId());
-		if (secret == null) {
+		final HmacSha256EnginePool enginePool = secretContainer.retrieveEnginePoolById(jwtImpl.getSecretId());
+		if (enginePool == null) {
 			response.sendError(HttpServletResponse.SC_FORBIDDEN, "The JWT sid (secret ID) is not known.");
 
 			return;
 		}
 
-		if (!JwtUtility.verifySignature(jwtImpl.getHeader(), jwtImpl.getPayload(), jwtImpl.getSignature(), secret)) {
+		if (!JwtUtility.verifySignature(jwtImpl.getClaims(), enginePool)) {
 			response.sendError(HttpServletResponse.SC_FORBIDDEN, "The JWT signature is invalid.");
 
 			return;
 		}
 
 		final LoginInfo loginInfo = new LoginInfo(jwtImpl.getLogin(), jwtImpl.getName(), jwtImpl.isAdmin());
+		verifiedTokenCache.add(jwt, loginInfo, jwtImpl.getExpires(), jwtImpl.getSecretId());
 		request.setAttribute("loginInfo", loginInfo);
 
 		filterChainParm.doFilter(request, response);
 	}
 
+	/**
+	 * Return the verified token cache, e.g., to report its hit, miss, and eviction counts.
+	 * 
+	 * @return
+	 */
+	public VerifiedTokenCache getVerifiedTokenCache() {
+		return verifiedTokenCache;
+	}
+
 	@Override
 	public void destroy() {
 		// Do nothing
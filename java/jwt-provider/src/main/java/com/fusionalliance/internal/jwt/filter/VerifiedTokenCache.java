@@ -0,0 +1,150 @@
+package com.fusionalliance.internal.jwt.filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fusionalliance.internal.jwt.shared.SecretContainer;
+import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+
+/**
+ * This class implements a bounded, concurrent cache of JWTs whose signatures have been verified, mapped to the {@link LoginInfo} built from them. A
+ * browser session sends the same token with every request; a cache hit skips parsing and signature verification entirely.
+ * <p>
+ * An entry is never returned after its token's "exp" claim has passed or after its secret has been retired from the {@link SecretContainer}. Such
+ * entries are removed when found, and entries for a retired secret are also removed when the retirement is announced.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class VerifiedTokenCache {
+	public static final int DEFAULT_MAXIMUM_ENTRIES = 10_000;
+
+	private final SecretContainer secretContainer;
+	private final Cache<String, VerifiedToken> verifiedTokensByJwt;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param secretContainerParm
+	 *            required
+	 * @param maximumEntriesParm
+	 *            maximum number of tokens retained; least recently used tokens are evicted first
+	 */
+	public VerifiedTokenCache(final SecretContainer secretContainerParm, final int maximumEntriesParm) {
+		ValidationUtility.checkObjectNotNull("The secret container is null.", secretContainerParm);
+		ValidationUtility.checkGoodConditionMet("The maximum entries is not positive.", maximumEntriesParm > 0);
+
+		secretContainer = secretContainerParm;
+		verifiedTokensByJwt = CacheBuilder.newBuilder() //
+				.maximumSize(maximumEntriesParm) //
+				.removalListener(notification -> {
+					if (notification.getCause() != RemovalCause.REPLACED) {
+						evictionCount.increment();
+					}
+				}) //
+				.build();
+
+		secretContainer.addRetirementListener(this::evictSecretId);
+	}
+
+	/**
+	 * Return the LoginInfo for a previously verified JWT, or null if the JWT must be verified.
+	 * 
+	 * @param jwtParm
+	 *            required
+	 * @return
+	 */
+	public LoginInfo retrieve(final String jwtParm) {
+		final VerifiedToken verifiedToken = verifiedTokensByJwt.getIfPresent(jwtParm);
+
+		if (verifiedToken == null) {
+			missCount.increment();
+
+			return null;
+		}
+
+		// Expires is in seconds, per JWT standard
+		if (verifiedToken.expires < System.currentTimeMillis() / 1000
+				|| secretContainer.retrieveEnginePoolById(verifiedToken.secretId) == null) {
+			verifiedTokensByJwt.invalidate(jwtParm);
+			missCount.increment();
+
+			return null;
+		}
+
+		hitCount.increment();
+
+		return verifiedToken.loginInfo;
+	}
+
+	/**
+	 * Add a JWT whose signature has been verified.
+	 * 
+	 * @param jwtParm
+	 *            required
+	 * @param loginInfoParm
+	 *            required
+	 * @param expiresParm
+	 *            the "exp" claim, in seconds
+	 * @param secretIdParm
+	 *            the "sid" claim, required
+	 */
+	public void add(final String jwtParm, final LoginInfo loginInfoParm, final long expiresParm, final String secretIdParm) {
+		ValidationUtility.checkStringNotBlank("The JWT is blank.", jwtParm);
+		ValidationUtility.checkObjectNotNull("The login info is null.", loginInfoParm);
+		ValidationUtility.checkStringNotBlank("The secret ID is blank.", secretIdParm);
+
+		verifiedTokensByJwt.put(jwtParm, new VerifiedToken(loginInfoParm, expiresParm, secretIdParm));
+	}
+
+	/**
+	 * Remove all tokens signed with the secret ID.
+	 * 
+	 * @param secretIdParm
+	 */
+	public void evictSecretId(final String secretIdParm) {
+		verifiedTokensByJwt.asMap().values().removeIf(verifiedToken -> verifiedToken.secretId.equals(secretIdParm));
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries removed for any reason: size, expiration, or secret retirement.
+	 * 
+	 * @return
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	public long getSize() {
+		return verifiedTokensByJwt.size();
+	}
+
+	/**
+	 * This immutable class holds the information retained for a verified token.
+	 */
+	private static final class VerifiedToken {
+		private final LoginInfo loginInfo;
+		private final long expires;
+		private final String secretId;
+
+		VerifiedToken(final LoginInfo loginInfoParm, final long expiresParm, final String secretIdParm) {
+			loginInfo = loginInfoParm;
+			expires = expiresParm;
+			secretId = secretIdParm;
+		}
+	}
+}
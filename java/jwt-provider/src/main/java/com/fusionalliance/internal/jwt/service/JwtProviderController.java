@@ -1,5 +1,10 @@
 package com.fusionalliance.internal.jwt.service;
 
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,7 +13,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.fusionalliance.internal.jwt.api.AuthorizationInboundDto;
 import com.fusionalliance.internal.jwt.business.AuthorizationProcessor;
-import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
 import com.fusionalliance.internal.sharedspringboot.service.BaseController;
@@ -27,8 +31,9 @@ public class JwtProviderController extends BaseController {
 	@RequestMapping( //
 			method = RequestMethod.GET, //
 			path = { "/login/{login}/creds/{creds}" }, // 
-			produces = "application/json")
-	String handleInterviewerListRequest(@PathVariable("login") final String loginParm, @PathVariable("creds") final String credsParm) {
+			produces = { "application/json", "application/cbor" })
+	void handleInterviewerListRequest(@PathVariable("login") final String loginParm, @PathVariable("creds") final String credsParm,
+			final HttpServletRequest servletRequestParm, final HttpServletResponse servletResponseParm) throws IOException {
 
 		// Perform request initialization
 		MessageManager.initialize();
@@ -43,15 +48,12 @@ public class JwtProviderController extends BaseController {
 		if (inboundDto.isValidationErrors()) {
 			addDtoValidationErrorsToMessageManager(inboundDto);
 			final MessagesOnlyOutboundDto errorsOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = errorsOutboundDto.toJson();
+			writeResponse(errorsOutboundDto, servletRequestParm, servletResponseParm);
 
-			return json;
+			return;
 		}
 
 		final AuthorizationProcessor processor = new AuthorizationProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, false);
-		final String json = outboundDto.toJson();
-
-		return json;
+		writeResponse(transactionLayerFacade.process(processor, false), servletRequestParm, servletResponseParm);
 	}
 }
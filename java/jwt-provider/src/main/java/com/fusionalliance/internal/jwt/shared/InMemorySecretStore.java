@@ -0,0 +1,48 @@
+package com.fusionalliance.internal.jwt.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This class implements a {@link SecretStore} that holds secrets in memory. Only this node knows the secrets, so tokens can be verified only by the
+ * node that issued them. The first secret has sequence 0, i.e., {@link SecretContainer#BASE_SECRET_ID}.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.secret.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySecretStore implements SecretStore {
+	private final AtomicLong lastSequence = new AtomicLong(-1);
+	private final ConcurrentNavigableMap<Long, StoredSecret> secretsBySequence = new ConcurrentSkipListMap<>();
+
+	@Override
+	public boolean isShared() {
+		return false;
+	}
+
+	@Override
+	public long addSecret(final String secretParm, final long createdMillisParm) {
+		ValidationUtility.checkStringNotBlank("The secret is null or blank.", secretParm);
+
+		final long sequence = lastSequence.incrementAndGet();
+		secretsBySequence.put(sequence, new StoredSecret(sequence, secretParm, createdMillisParm));
+
+		return sequence;
+	}
+
+	@Override
+	public List<StoredSecret> retrieveSecretsAfter(final long sequenceParm) {
+		return new ArrayList<>(secretsBySequence.tailMap(sequenceParm, false).values());
+	}
+
+	@Override
+	public void removeSecretsBefore(final long sequenceParm) {
+		secretsBySequence.headMap(sequenceParm, false).clear();
+	}
+}
@@ -0,0 +1,145 @@
+package com.fusionalliance.internal.jwt.shared;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This class implements a {@link SecretStore} backed by the sb_template.jwt_secret table in the default DataSource. Every node using the same
+ * database sees the same secrets, so any node can verify a token issued by any other node.
+ * <p>
+ * The schema and table are created if they do not exist. The sequence is a PostgreSQL bigserial, so concurrent nodes never assign the same secret
+ * ID. Sequences are assigned when secrets are inserted, not when they commit, so a secret can become visible after one with a higher sequence; the
+ * secrets created within {@link #LOOKBACK_MILLIS} are therefore retrieved again on every synchronization.
+ * <p>
+ * <b>Note:</b> The secrets are stored as plain text; access to the table must be restricted accordingly.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.secret.store", havingValue = "jdbc")
+public class JdbcSecretStore implements SecretStore {
+	/** How long a secret is retrieved again regardless of its sequence; far longer than an insert can take to commit, and shorter than retention */
+	public static final long LOOKBACK_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final DataSource dataSource;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dataSourceParm
+	 *            required
+	 */
+	@Autowired
+	public JdbcSecretStore(@Qualifier("defaultDataSource") final DataSource dataSourceParm) {
+		ValidationUtility.checkObjectNotNull("The DataSource is null.", dataSourceParm);
+
+		dataSource = dataSourceParm;
+
+		createTable();
+	}
+
+	@Override
+	public boolean isShared() {
+		return true;
+	}
+
+	@Override
+	public long addSecret(final String secretParm, final long createdMillisParm) {
+		ValidationUtility.checkStringNotBlank("The secret is null or blank.", secretParm);
+
+		try (
+				final Connection connection = dataSource.getConnection();
+				final PreparedStatement statement = connection.prepareStatement("" //
+						+ "insert into sb_template.jwt_secret (secret, created_millis) " //
+						+ "values (?, ?) " //
+						+ "returning secret_seq" //
+				); //
+		) {
+			statement.setString(1, secretParm);
+			statement.setLong(2, createdMillisParm);
+
+			try (final ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+
+				return resultSet.getLong(1);
+			}
+		}
+		catch (final SQLException e) {
+			throw new IllegalStateException("Unable to add JWT secret.", e);
+		}
+	}
+
+	@Override
+	public List<StoredSecret> retrieveSecretsAfter(final long sequenceParm) {
+		try (
+				final Connection connection = dataSource.getConnection();
+				final PreparedStatement statement = connection.prepareStatement("" //
+						+ "select secret_seq, secret, created_millis " //
+						+ "from sb_template.jwt_secret " //
+						+ "where secret_seq > ? or created_millis >= ? " //
+						+ "order by secret_seq" //
+				); //
+		) {
+			statement.setLong(1, sequenceParm);
+			statement.setLong(2, System.currentTimeMillis() - LOOKBACK_MILLIS);
+
+			final List<StoredSecret> storedSecrets = new ArrayList<>();
+			try (final ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					storedSecrets.add(new StoredSecret(resultSet.getLong(1), resultSet.getString(2), resultSet.getLong(3)));
+				}
+			}
+
+			return storedSecrets;
+		}
+		catch (final SQLException e) {
+			throw new IllegalStateException("Unable to retrieve JWT secrets.", e);
+		}
+	}
+
+	@Override
+	public void removeSecretsBefore(final long sequenceParm) {
+		try (
+				final Connection connection = dataSource.getConnection();
+				final PreparedStatement statement = connection.prepareStatement("delete from sb_template.jwt_secret where secret_seq < ?"); //
+		) {
+			statement.setLong(1, sequenceParm);
+
+			statement.executeUpdate();
+		}
+		catch (final SQLException e) {
+			throw new IllegalStateException("Unable to remove JWT secrets.", e);
+		}
+	}
+
+	private void createTable() {
+		try (
+				final Connection connection = dataSource.getConnection();
+				final Statement statement = connection.createStatement(); //
+		) {
+			statement.execute("create schema if not exists sb_template");
+			statement.execute("" //
+					+ "create table if not exists sb_template.jwt_secret ( " //
+					+ "secret_seq bigserial primary key, " //
+					+ "secret varchar(128) not null, " //
+					+ "created_millis bigint not null)" //
+			);
+		}
+		catch (final SQLException e) {
+			throw new IllegalStateException("Unable to create the sb_template.jwt_secret table.", e);
+		}
+	}
+}
@@ -1,57 +1,359 @@
 package com.fusionalliance.internal.jwt.shared;
 
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.fusionalliance.internal.jwt.business.AuthorizationProcessor;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.jwt.HmacSha256EnginePool;
 import com.fusionalliance.internal.sharedutility.jwt.JwtUtility;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * This class holds JWT secret information and is intended to avoid the need to share a common secret between a JWT provider and the application that
- * authenticates the JWT. Of course, this only works when the provider and the authenticator are running in the same Spring context.
+ * authenticates the JWT. Secrets are persisted in a {@link SecretStore}; when the store is shared (see {@link JdbcSecretStore}), every node in the
+ * cluster knows every secret, so any node can verify a token issued by any other node.
+ * <p>
+ * The secret is rotated every <code>jwt.secret.rotationIntervalSeconds</code> (default one hour; 0 disables rotation). The cluster shares a single
+ * current secret: the node that rotates adds the new secret to the store, and the other nodes adopt it when they next synchronize, every
+ * <code>jwt.secret.pollIntervalSeconds</code> (default 15). With a shared store, a new secret is used for signing only after one poll interval, by
+ * which time every node can verify it.
+ * <p>
+ * A replaced secret is retired, but it is retained for verification until {@link #RETENTION_MILLIS} (plus the poll interval when shared) has
+ * passed, i.e., until every token signed with it has expired. It is then purged.
  * <p>
- * This POC sets the secret when the context loads this class and associates it with {@link #BASE_SECRET_ID}. In the future, this class could update
- * the secret periodically, retaining deprecated secrets until any tokens created with them expire.
+ * All secret information is held in an immutable snapshot published through a single atomic reference. Readers never lock, never access the store,
+ * and always see a consistent current secret and set of valid secrets. Writers (synchronization, rotation, purging, retirement) build a new
+ * snapshot and swap it in.
+ * <p>
+ * Each secret has a {@link HmacSha256EnginePool} that is created with the secret, before it is published, and removed with it. Signing and
+ * verification should use the pool rather than the raw secret, avoiding hash engine setup on every token.
  */
 @Component
 public class SecretContainer {
 	public static final String BASE_SECRET_ID = "sec0";
+	public static final String SECRET_ID_PREFIX = "sec";
+	/** How long a retired secret remains valid for verification; the lifetime of the longest-lived token */
+	public static final long RETENTION_MILLIS = TimeUnit.SECONDS.toMillis(AuthorizationProcessor.EXPIRATION_SECONDS);
+
+	private static final Logger LOG = LoggerFactory.getLogger(SecretContainer.class);
 
-	private final ConcurrentMap<String, String> secretsById = new ConcurrentSkipListMap<>();
-	private String currentSecretId = BASE_SECRET_ID;
+	private final SecretStore secretStore;
+	private final AtomicReference<SecretSnapshot> snapshot;
+	private final List<Consumer<String>> retirementListeners = new CopyOnWriteArrayList<>();
+	/** Secrets retired with {@link #retireSecret(String)}, which are not adopted again when the store returns them */
+	private final Set<String> explicitlyRetiredSecretIds = ConcurrentHashMap.newKeySet();
+	private final long rotationIntervalMillis;
+	private final long pollIntervalSeconds;
+	/** How long a new secret waits before it is used for signing; 0 unless the store is shared */
+	private final long activationDelayMillis;
+	private ScheduledExecutorService scheduler;
 
 	/**
 	 * Constructor
+	 * <p>
+	 * The secrets already in the store are adopted, the latest becoming current. If the store is empty, a secret is created.
+	 * 
+	 * @param secretStoreParm
+	 *            required
+	 * @param rotationIntervalSecondsParm
+	 *            0 disables rotation, else positive
+	 * @param pollIntervalSecondsParm
+	 *            positive; how often the store is synchronized and secrets are rotated and purged as needed
+	 */
+	@Autowired
+	public SecretContainer(final SecretStore secretStoreParm,
+			@Value("${jwt.secret.rotationIntervalSeconds:3600}") final long rotationIntervalSecondsParm,
+			@Value("${jwt.secret.pollIntervalSeconds:15}") final long pollIntervalSecondsParm) {
+		ValidationUtility.checkObjectNotNull("The secret store is null.", secretStoreParm);
+		ValidationUtility.checkBadConditionNotMet("The rotation interval is negative.", rotationIntervalSecondsParm < 0);
+		ValidationUtility.checkGoodConditionMet("The poll interval is not positive.", pollIntervalSecondsParm > 0);
+
+		secretStore = secretStoreParm;
+		rotationIntervalMillis = TimeUnit.SECONDS.toMillis(rotationIntervalSecondsParm);
+		pollIntervalSeconds = pollIntervalSecondsParm;
+		activationDelayMillis = secretStore.isShared() ? TimeUnit.SECONDS.toMillis(pollIntervalSecondsParm) : 0;
+
+		snapshot = new AtomicReference<>(SecretSnapshot.EMPTY);
+
+		final long nowMillis = System.currentTimeMillis();
+		List<StoredSecret> storedSecrets = secretStore.retrieveSecretsAfter(-1);
+		if (storedSecrets.isEmpty()) {
+			final String secret = JwtUtility.generateSecret();
+			storedSecrets = secretStore.retrieveSecretsAfter(secretStore.addSecret(secret, nowMillis) - 1);
+		}
+
+		// Existing secrets are adopted immediately; other nodes already know them
+		snapshot.set(SecretSnapshot.EMPTY.add(createEntries(storedSecrets), nowMillis, 0).activate(nowMillis));
+	}
+
+	/**
+	 * Start the maintenance schedule.
 	 */
-	public SecretContainer() {
-		secretsById.put(currentSecretId, JwtUtility.generateSecret());
+	@PostConstruct
+	public void startScheduler() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder() //
+				.setNameFormat("jwt-secret-maintenance-%d") //
+				.setDaemon(true) //
+				.build());
+
+		scheduler.scheduleWithFixedDelay(this::maintain, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
 	}
 
 	/**
-	 * Retrieve information about the current secret.
+	 * Stop the maintenance schedule.
+	 */
+	@PreDestroy
+	public void stopScheduler() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Retrieve information about the current secret, i.e., the secret to be used for signing.
 	 * 
 	 * @return
 	 */
 	public SecretInfo getCurrentSecretInfo() {
-		final SecretInfo currentSecretInfo = new SecretInfo(currentSecretId, secretsById.get(currentSecretId));
-
-		return currentSecretInfo;
+		return snapshot.get().current.secretInfo;
 	}
 
 	/**
 	 * Retrieve the secret associated to the secret ID.
-	 * <p>
-	 * <b>Note:</b> In the future, new secrets will be generated periodically.
 	 * 
 	 * @param secretIdParm
 	 *            required
-	 * @return null if the secret ID is unknown
+	 * @return null if the secret ID is unknown or has been purged
 	 */
 	public String retrieveSecretById(final String secretIdParm) {
-		final String secret = secretsById.get(secretIdParm);
+		final SecretEntry entry = snapshot.get().retrieveEntry(secretIdParm);
+
+		return entry == null ? null : entry.secretInfo.getSecret();
+	}
+
+	/**
+	 * Retrieve the hash engine pool associated to the secret ID.
+	 * 
+	 * @param secretIdParm
+	 *            required
+	 * @return null if the secret ID is unknown or has been purged
+	 */
+	public HmacSha256EnginePool retrieveEnginePoolById(final String secretIdParm) {
+		final SecretEntry entry = snapshot.get().retrieveEntry(secretIdParm);
+
+		return entry == null ? null : entry.secretInfo.getEnginePool();
+	}
+
+	/**
+	 * Add a newly generated secret to the store and adopt it. The secret becomes current once the activation delay has passed (immediately, unless
+	 * the store is shared); the secret it replaces is retired, remaining valid for verification until it is purged.
+	 * <p>
+	 * This is called on the maintenance schedule, but it may also be called directly, e.g., if a secret is suspected to be compromised.
+	 * 
+	 * @return information about the new secret
+	 */
+	public SecretInfo rotateSecret() {
+		final String secret = JwtUtility.generateSecret();
+		final long sequence = secretStore.addSecret(secret, System.currentTimeMillis());
+
+		// Synchronize rather than adopting only the new secret, so that secrets other nodes added before it are not skipped
+		synchronizeSecrets();
+
+		final SecretEntry entry = snapshot.get().retrieveEntry(SECRET_ID_PREFIX + sequence);
+		ValidationUtility.checkObjectNotNull("The new secret was not adopted.", entry);
+
+		LOG.info("JWT secret " + entry.secretInfo.getSecretId() + " added.");
+
+		return entry.secretInfo;
+	}
+
+	/**
+	 * Adopt any secrets added to the store by other nodes since the last synchronization. A secret that becomes visible after one with a higher
+	 * sequence is retired on adoption, so it is valid for verification but never current.
+	 * <p>
+	 * Secrets already known, which a shared store returns again for a while, are skipped before their hash engine pools are created.
+	 */
+	public void synchronizeSecrets() {
+		final SecretSnapshot currentSnapshot = snapshot.get();
+		final List<StoredSecret> storedSecrets = secretStore.retrieveSecretsAfter(currentSnapshot.lastSequence);
+		storedSecrets.removeIf(storedSecret -> {
+			final String secretId = SECRET_ID_PREFIX + storedSecret.getSequence();
 
-		return secret;
+			return currentSnapshot.entriesById.containsKey(secretId) || explicitlyRetiredSecretIds.contains(secretId);
+		});
+		if (storedSecrets.isEmpty()) {
+			return;
+		}
+
+		adopt(createEntries(storedSecrets), System.currentTimeMillis());
+	}
+
+	/**
+	 * Purge secrets retired long enough ago that every token signed with them has expired. Retirement listeners are notified of each purged secret
+	 * ID, and secrets no longer needed by any node are removed from the store.
+	 */
+	public void purgeRetiredSecrets() {
+		final long cutoffMillis = System.currentTimeMillis() - RETENTION_MILLIS - activationDelayMillis;
+
+		SecretSnapshot currentSnapshot;
+		SecretSnapshot purgedSnapshot;
+		do {
+			currentSnapshot = snapshot.get();
+			purgedSnapshot = currentSnapshot.purge(cutoffMillis);
+		}
+		while (purgedSnapshot != currentSnapshot && !snapshot.compareAndSet(currentSnapshot, purgedSnapshot));
+
+		if (notifyRemoved(currentSnapshot, purgedSnapshot)) {
+			secretStore.removeSecretsBefore(purgedSnapshot.retrieveFirstSequence());
+		}
+	}
+
+	/**
+	 * Retire the secret associated to the secret ID immediately, on this node only. Tokens signed with it can no longer be verified here, and its
+	 * hash engine pool is evicted.
+	 * <p>
+	 * The current secret cannot be retired; rotate it first.
+	 * 
+	 * @param secretIdParm
+	 *            required
+	 */
+	public void retireSecret(final String secretIdParm) {
+		ValidationUtility.checkObjectNotNull("The secret ID is null.", secretIdParm);
+
+		SecretSnapshot currentSnapshot;
+		SecretSnapshot retiredSnapshot;
+		do {
+			currentSnapshot = snapshot.get();
+			ValidationUtility.checkBadConditionNotMet("The current secret cannot be retired.",
+					currentSnapshot.current.secretInfo.getSecretId().equals(secretIdParm));
+
+			retiredSnapshot = currentSnapshot.remove(secretIdParm);
+		}
+		while (retiredSnapshot != currentSnapshot && !snapshot.compareAndSet(currentSnapshot, retiredSnapshot));
+
+		explicitlyRetiredSecretIds.add(secretIdParm);
+
+		notifyRemoved(currentSnapshot, retiredSnapshot);
+	}
+
+	/**
+	 * Add a listener that is passed the secret ID whenever a secret is retired or purged. Listeners are called on the removing thread after the
+	 * secret has been removed.
+	 * 
+	 * @param retirementListenerParm
+	 *            required
+	 */
+	public void addRetirementListener(final Consumer<String> retirementListenerParm) {
+		ValidationUtility.checkObjectNotNull("The retirement listener is null.", retirementListenerParm);
+
+		retirementListeners.add(retirementListenerParm);
+	}
+
+	/**
+	 * Synchronize, activate a pending secret, rotate if due, and purge; runs on the maintenance schedule. Exceptions are logged rather than
+	 * propagated, as an exception would cancel further executions.
+	 */
+	private void maintain() {
+		try {
+			synchronizeSecrets();
+
+			activate(System.currentTimeMillis());
+
+			final SecretSnapshot currentSnapshot = snapshot.get();
+			if (rotationIntervalMillis > 0 && currentSnapshot.pending == null
+					&& System.currentTimeMillis() >= currentSnapshot.currentActivatedMillis + rotationIntervalMillis) {
+				rotateSecret();
+			}
+
+			purgeRetiredSecrets();
+		}
+		catch (final RuntimeException e) {
+			LOG.error("JWT secret maintenance failed.", e);
+		}
+	}
+
+	private void adopt(final List<SecretEntry> entriesParm, final long nowMillisParm) {
+		SecretSnapshot currentSnapshot;
+		SecretSnapshot adoptedSnapshot;
+		do {
+			currentSnapshot = snapshot.get();
+			adoptedSnapshot = currentSnapshot.add(entriesParm, nowMillisParm, activationDelayMillis).activate(nowMillisParm);
+		}
+		while (!snapshot.compareAndSet(currentSnapshot, adoptedSnapshot));
+	}
+
+	private void activate(final long nowMillisParm) {
+		SecretSnapshot currentSnapshot;
+		SecretSnapshot activatedSnapshot;
+		do {
+			currentSnapshot = snapshot.get();
+			activatedSnapshot = currentSnapshot.activate(nowMillisParm);
+		}
+		while (activatedSnapshot != currentSnapshot && !snapshot.compareAndSet(currentSnapshot, activatedSnapshot));
+
+		if (activatedSnapshot != currentSnapshot) {
+			LOG.info("JWT secret rotated to " + activatedSnapshot.current.secretInfo.getSecretId() + ".");
+		}
+	}
+
+	/**
+	 * Create the snapshot entries, including the key material, for the stored secrets. This is done before any snapshot is swapped.
+	 */
+	private static List<SecretEntry> createEntries(final List<StoredSecret> storedSecretsParm) {
+		final List<SecretEntry> entries = new ArrayList<>(storedSecretsParm.size());
+		for (StoredSecret storedSecret : storedSecretsParm) {
+			final SecretInfo secretInfo = new SecretInfo(SECRET_ID_PREFIX + storedSecret.getSequence(), storedSecret.getSecret(),
+					new HmacSha256EnginePool(storedSecret.getSecret()));
+			entries.add(new SecretEntry(secretInfo, storedSecret.getSequence(), Long.MAX_VALUE));
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Notify the retirement listeners of secrets in the previous snapshot but not in the new one. Return true if there were any.
+	 */
+	private boolean notifyRemoved(final SecretSnapshot previousSnapshotParm, final SecretSnapshot snapshotParm) {
+		if (previousSnapshotParm == snapshotParm) {
+			return false;
+		}
+
+		boolean removed = false;
+		for (String secretId : previousSnapshotParm.entriesById.keySet()) {
+			if (snapshotParm.entriesById.containsKey(secretId)) {
+				continue;
+			}
+
+			removed = true;
+			LOG.info("JWT secret " + secretId + " removed.");
+
+			for (Consumer<String> retirementListener : retirementListeners) {
+				retirementListener.accept(secretId);
+			}
+		}
+
+		return removed;
 	}
 
 	/**
@@ -60,10 +362,12 @@ public class SecretContainer {
 	public static final class SecretInfo {
 		private final String secretId;
 		private final String secret;
+		private final HmacSha256EnginePool enginePool;
 
-		public SecretInfo(String secretIdParm, String secretParm) {
+		public SecretInfo(String secretIdParm, String secretParm, HmacSha256EnginePool enginePoolParm) {
 			secretId = secretIdParm;
 			secret = secretParm;
+			enginePool = enginePoolParm;
 		}
 
 		public String getSecretId() {
@@ -73,5 +377,155 @@ public class SecretContainer {
 		public String getSecret() {
 			return secret;
 		}
+
+		public HmacSha256EnginePool getEnginePool() {
+			return enginePool;
+		}
+	}
+
+	/**
+	 * This immutable class contains a secret known to the snapshot, its store sequence, and when it was retired (Long.MAX_VALUE if not retired).
+	 */
+	private static final class SecretEntry {
+		private final SecretInfo secretInfo;
+		private final long sequence;
+		private final long retiredMillis;
+
+		SecretEntry(final SecretInfo secretInfoParm, final long sequenceParm, final long retiredMillisParm) {
+			secretInfo = secretInfoParm;
+			sequence = sequenceParm;
+			retiredMillis = retiredMillisParm;
+		}
+
+		SecretEntry retire(final long nowMillisParm) {
+			return new SecretEntry(secretInfo, sequence, nowMillisParm);
+		}
+	}
+
+	/**
+	 * This immutable class contains the current secret, a pending secret waiting for activation, and all secrets valid for verification. Modifiers
+	 * return a new instance, or this instance if nothing changed.
+	 */
+	private static final class SecretSnapshot {
+		static final SecretSnapshot EMPTY = new SecretSnapshot(ImmutableMap.of(), null, 0, null, 0, -1);
+
+		private final ImmutableMap<String, SecretEntry> entriesById;
+		/** The secret used for signing */
+		private final SecretEntry current;
+		private final long currentActivatedMillis;
+		/** The newest secret, if it is not yet current */
+		private final SecretEntry pending;
+		private final long pendingActivationMillis;
+		/** The highest sequence adopted from the store */
+		private final long lastSequence;
+
+		private SecretSnapshot(final ImmutableMap<String, SecretEntry> entriesByIdParm, final SecretEntry currentParm,
+				final long currentActivatedMillisParm, final SecretEntry pendingParm, final long pendingActivationMillisParm,
+				final long lastSequenceParm) {
+			entriesById = entriesByIdParm;
+			current = currentParm;
+			currentActivatedMillis = currentActivatedMillisParm;
+			pending = pendingParm;
+			pendingActivationMillis = pendingActivationMillisParm;
+			lastSequence = lastSequenceParm;
+		}
+
+		SecretEntry retrieveEntry(final String secretIdParm) {
+			return secretIdParm == null ? null : entriesById.get(secretIdParm);
+		}
+
+		long retrieveFirstSequence() {
+			long firstSequence = lastSequence;
+			for (SecretEntry entry : entriesById.values()) {
+				firstSequence = Math.min(firstSequence, entry.sequence);
+			}
+
+			return firstSequence;
+		}
+
+		/**
+		 * Add the entries, in sequence order. The newest entry beyond the last sequence becomes pending, activating after the delay passed; any other
+		 * new entry, including a replaced pending entry, is retired now so that tokens another node signed with it remain verifiable.
+		 */
+		SecretSnapshot add(final List<SecretEntry> entriesParm, final long nowMillisParm, final long activationDelayMillisParm) {
+			final Map<String, SecretEntry> nextEntriesById = new LinkedHashMap<>(entriesById);
+			SecretEntry nextPending = pending;
+			long nextPendingActivationMillis = pendingActivationMillis;
+			long nextLastSequence = lastSequence;
+
+			for (SecretEntry entry : entriesParm) {
+				final String secretId = entry.secretInfo.getSecretId();
+				if (nextEntriesById.containsKey(secretId)) {
+					continue;
+				}
+
+				if (entry.sequence <= nextLastSequence) {
+					nextEntriesById.put(secretId, entry.retire(nowMillisParm));
+
+					continue;
+				}
+
+				if (nextPending != null) {
+					nextEntriesById.put(nextPending.secretInfo.getSecretId(), nextPending.retire(nowMillisParm));
+				}
+
+				nextEntriesById.put(secretId, entry);
+				nextPending = entry;
+				nextPendingActivationMillis = nowMillisParm + activationDelayMillisParm;
+				nextLastSequence = entry.sequence;
+			}
+
+			if (nextLastSequence == lastSequence && nextEntriesById.size() == entriesById.size()) {
+				return this;
+			}
+
+			return new SecretSnapshot(ImmutableMap.copyOf(nextEntriesById), current, currentActivatedMillis, nextPending, nextPendingActivationMillis,
+					nextLastSequence);
+		}
+
+		/**
+		 * Make the pending secret current if its activation time has passed, retiring the current secret.
+		 */
+		SecretSnapshot activate(final long nowMillisParm) {
+			if (pending == null || nowMillisParm < pendingActivationMillis) {
+				return this;
+			}
+
+			final Map<String, SecretEntry> nextEntriesById = new LinkedHashMap<>(entriesById);
+			if (current != null) {
+				nextEntriesById.put(current.secretInfo.getSecretId(), current.retire(nowMillisParm));
+			}
+
+			return new SecretSnapshot(ImmutableMap.copyOf(nextEntriesById), pending, nowMillisParm, null, 0, lastSequence);
+		}
+
+		SecretSnapshot purge(final long cutoffMillisParm) {
+			SecretSnapshot purgedSnapshot = this;
+			for (SecretEntry entry : entriesById.values()) {
+				if (entry.retiredMillis < cutoffMillisParm) {
+					purgedSnapshot = purgedSnapshot.remove(entry.secretInfo.getSecretId());
+				}
+			}
+
+			return purgedSnapshot;
+		}
+
+		SecretSnapshot remove(final String secretIdParm) {
+			if (!entriesById.containsKey(secretIdParm)) {
+				return this;
+			}
+
+			final ImmutableMap.Builder<String, SecretEntry> entriesByIdBuilder = ImmutableMap.builder();
+			for (Map.Entry<String, SecretEntry> entry : entriesById.entrySet()) {
+				if (!entry.getKey().equals(secretIdParm)) {
+					entriesByIdBuilder.put(entry);
+				}
+			}
+
+			final boolean pendingRemoved = pending != null && pending.secretInfo.getSecretId().equals(secretIdParm);
+
+			return new SecretSnapshot(entriesByIdBuilder.build(), current, currentActivatedMillis, pendingRemoved ? null : pending,
+					pendingRemoved ? 0 : pendingActivationMillis, lastSequence);
+		}
 	}
-}
\ No newline at end of file
+}
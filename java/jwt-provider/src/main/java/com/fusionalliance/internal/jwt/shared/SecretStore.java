@@ -0,0 +1,50 @@
+package com.fusionalliance.internal.jwt.shared;
+
+import java.util.List;
+
+/**
+ * This interface defines the persistence of JWT secrets for {@link SecretContainer}. Implementations are selected with the
+ * <code>jwt.secret.store</code> property:
+ * <ul>
+ * <li>memory (default) - {@link InMemorySecretStore}, secrets are known only to this node</li>
+ * <li>jdbc - {@link JdbcSecretStore}, secrets are shared by every node using the same database</li>
+ * </ul>
+ * The store is consulted only when secrets are added or synchronized, never when a token is verified.
+ */
+public interface SecretStore {
+
+	/**
+	 * Return true if other nodes may add secrets to this store, i.e., if secrets must be synchronized and new secrets must be given time to
+	 * propagate before they are used for signing.
+	 * 
+	 * @return
+	 */
+	boolean isShared();
+
+	/**
+	 * Add a secret and return the sequence assigned to it.
+	 * 
+	 * @param secretParm
+	 *            required, not blank
+	 * @param createdMillisParm
+	 * @return
+	 */
+	long addSecret(String secretParm, long createdMillisParm);
+
+	/**
+	 * Retrieve the secrets with sequences greater than the sequence passed, in sequence order. A shared store may also return recently added secrets
+	 * with lower sequences, as a secret can become visible after one with a higher sequence; callers must skip the secrets they already know.
+	 * 
+	 * @param sequenceParm
+	 *            -1 to retrieve all secrets
+	 * @return not null
+	 */
+	List<StoredSecret> retrieveSecretsAfter(long sequenceParm);
+
+	/**
+	 * Remove the secrets with sequences less than the sequence passed. These are secrets no node will use again.
+	 * 
+	 * @param sequenceParm
+	 */
+	void removeSecretsBefore(long sequenceParm);
+}
@@ -0,0 +1,33 @@
+package com.fusionalliance.internal.jwt.shared;
+
+/**
+ * This immutable class contains a JWT secret as held by a {@link SecretStore}.
+ */
+public final class StoredSecret {
+	private final long sequence;
+	private final String secret;
+	private final long createdMillis;
+
+	public StoredSecret(final long sequenceParm, final String secretParm, final long createdMillisParm) {
+		sequence = sequenceParm;
+		secret = secretParm;
+		createdMillis = createdMillisParm;
+	}
+
+	/**
+	 * Return the sequence assigned by the store. Sequences increase with each secret added; the secret ID is derived from it.
+	 * 
+	 * @return
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public String getSecret() {
+		return secret;
+	}
+
+	public long getCreatedMillis() {
+		return createdMillis;
+	}
+}
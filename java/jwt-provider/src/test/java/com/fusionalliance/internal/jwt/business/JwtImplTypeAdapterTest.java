@@ -0,0 +1,66 @@
+package com.fusionalliance.internal.jwt.business;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * This test class contains tests for the TypeAdapter generated for {@link JwtImpl}. {@link GsonHelper#GSON} uses the generated adapter; the
+ * reflective Gson has the same settings but no factories, so it uses Gson's reflective adapter.
+ */
+public class JwtImplTypeAdapterTest {
+	private static final Gson REFLECTIVE_GSON = new GsonBuilder() //
+			.serializeNulls() //
+			.disableHtmlEscaping() //
+			.create();
+
+	@Test
+	public void adapterGeneratedTest() {
+		assertTrue("Generated adapter not used", GsonHelper.GSON.getAdapter(JwtImpl.class) instanceof JwtImplTypeAdapter);
+	}
+
+	@Test
+	public void writeTest() {
+		final JwtImpl jwtImpl = new JwtImpl() //
+				.name("John \"Johnny\" Doe <jdoe@example.com>") //
+				.expires(1524000000L) //
+				.login("jdoe") //
+				.admin(true);
+
+		assertEquals("JSON mismatch", REFLECTIVE_GSON.toJson(jwtImpl), GsonHelper.GSON.toJson(jwtImpl));
+		assertEquals("Null JSON mismatch", REFLECTIVE_GSON.toJson(new JwtImpl()), GsonHelper.GSON.toJson(new JwtImpl()));
+	}
+
+	@Test
+	public void roundTripTest() {
+		final String json = REFLECTIVE_GSON.toJson(new JwtImpl() //
+				.name("John Doe") //
+				.expires(1524000000L) //
+				.login("jdoe") //
+				.secretId("secret-7"));
+
+		final JwtImpl generatedRead = GsonHelper.GSON.fromJson(json, JwtImpl.class);
+
+		assertEquals("Generated round trip mismatch", json, GsonHelper.GSON.toJson(generatedRead));
+		assertEquals("Reflective read mismatch", json, REFLECTIVE_GSON.toJson(generatedRead));
+	}
+
+	@Test
+	public void readTest() {
+		final String json = "{\"iat\":1523990000,\"lid\":\"jdoe\",\"name\":null,\"exp\":1524000000,\"login\":[\"x\"],\"admin\":true}";
+
+		final JwtImpl generatedRead = GsonHelper.GSON.fromJson(json, JwtImpl.class);
+		final JwtImpl reflectiveRead = REFLECTIVE_GSON.fromJson(json, JwtImpl.class);
+
+		assertEquals("Readers disagree", REFLECTIVE_GSON.toJson(reflectiveRead), REFLECTIVE_GSON.toJson(generatedRead));
+		assertEquals("Login mismatch", "jdoe", generatedRead.login);
+		assertEquals("Expires mismatch", 1524000000L, generatedRead.expires);
+		assertNull("Name not null", generatedRead.name);
+	}
+}
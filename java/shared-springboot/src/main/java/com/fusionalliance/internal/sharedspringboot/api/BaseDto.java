@@ -5,30 +5,41 @@
  */
 package com.fusionalliance.internal.sharedspringboot.api;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fusionalliance.internal.sharedutility.core.GenerateTypeAdapter;
 import com.fusionalliance.internal.sharedutility.core.GenericCastUtility;
 import com.fusionalliance.internal.sharedutility.core.GsonHelper;
 import com.fusionalliance.internal.sharedutility.core.TreatAsProtected;
 import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
 
 /**
  * This abstract class defines base logic for DTO objects.
  * <p>
- * Instances can be instantiated directly, or they can be created from JSON using GSON or a similar framework using reflection. Therefore, do not
- * count on setters to filter values. Note that GSON respects the <code>transient</code> modifier; other frameworks may use another scheme.
+ * Instances can be instantiated directly, or they can be created from JSON using GSON or a similar framework that sets fields directly. Therefore,
+ * do not count on setters to filter values. Note that GSON respects the <code>transient</code> modifier; other frameworks may use another scheme.
+ * <p>
+ * {@link GenerateTypeAdapter} is inherited by all subclasses, so each has a TypeAdapter generated at compile time that GSON uses instead of
+ * reflection. The generated code lives in the subclass' package and reads and writes the fields directly, so every serialized field must be
+ * package-private or wider; a private field fails the build. Fields that must stay private are declared <code>transient</code>, which excludes them
+ * from JSON. As a consequence, other classes in a DTO's package can also reach its fields; they should use the getters and fluent setters instead.
  * <p>
  * By convention, all implementations should
  * <ul>
  * <li>be marked as final (all implementations are closed for further extension)
  * <li>use fluent setters and build()</li>
+ * <li>declare serialized fields package-private, never private</li>
  * <li>override the validate() method, calling super.validate() at the beginning of the method</li>
  * <li>use the validate method to ensure that required fields are populated, supply any default values to optional fields that were not supplied, and
  * verify that all fields contain reasonable values</li>
  * </ul>
  */
+@GenerateTypeAdapter
 public abstract class BaseDto<T extends BaseDto<?>> {
 	/** List of error messages generated during validation; no messages means validation was successful */
 	@JsonIgnore
@@ -116,9 +127,42 @@ public abstract class BaseDto<T extends BaseDto<?>> {
 		validationErrors.add(validationErrorParm);
 	}
 
+	/**
+	 * Return compact JSON, suitable for the wire.
+	 * 
+	 * @return
+	 */
 	public String toJson() {
 		final String json = GsonHelper.GSON.toJson(this);
 
 		return json;
 	}
+
+	/**
+	 * Return compact or pretty JSON.
+	 * 
+	 * @param prettyParm
+	 *            true for indented JSON; use only when a request explicitly asks for it
+	 * @return
+	 */
+	public String toJson(final boolean prettyParm) {
+		final String json = GsonHelper.retrieveGson(prettyParm).toJson(this);
+
+		return json;
+	}
+
+	/**
+	 * Write the DTO to the OutputStream in the wire format passed, incrementally, without building it as a String. JSON is written as UTF-8. The
+	 * OutputStream is flushed but not closed.
+	 * 
+	 * @param outputStreamParm
+	 *            required
+	 * @param wireFormatParm
+	 *            required
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	public void write(final OutputStream outputStreamParm, final WireFormat wireFormatParm) throws IOException {
+		GsonHelper.write(this, outputStreamParm, wireFormatParm);
+	}
 }
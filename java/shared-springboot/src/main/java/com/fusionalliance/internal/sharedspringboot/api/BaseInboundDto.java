@@ -9,6 +9,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedutility.core.EntityTagUtility;
 import com.fusionalliance.internal.sharedutility.core.GenericCastUtility;
 
 /**
@@ -20,11 +21,19 @@ public abstract class BaseInboundDto<T extends BaseInboundDto<?>> extends BaseDt
 
 	/** Must be set programmatically, used by validation */
 	@JsonIgnore
-	private RequestTypeHolder requestTypeHolder;
+	RequestTypeHolder requestTypeHolder;
 
 	/** Must be set programmatically */
 	@JsonIgnore
-	private LoginInfo loginInfo;
+	LoginInfo loginInfo;
+
+	/** If-None-Match header value, optional; set programmatically */
+	@JsonIgnore
+	private transient String ifNoneMatch;
+
+	/** If-Match header value, optional; set programmatically */
+	@JsonIgnore
+	private transient String ifMatch;
 
 	/**
 	 * Return the request type. This is a convenience getter that safely retrieves the request type from the holder.
@@ -51,6 +60,36 @@ public abstract class BaseInboundDto<T extends BaseInboundDto<?>> extends BaseDt
 		return loginInfo;
 	}
 
+	public final String getIfNoneMatch() {
+		return ifNoneMatch;
+	}
+
+	public final String getIfMatch() {
+		return ifMatch;
+	}
+
+	/**
+	 * Return true if the request's If-None-Match matches the entity tag of the current state, i.e., the client already has it.
+	 * 
+	 * @param entityTagParm
+	 *            required
+	 * @return false if If-None-Match was not supplied
+	 */
+	public final boolean isNotModified(final String entityTagParm) {
+		return EntityTagUtility.matches(ifNoneMatch, entityTagParm);
+	}
+
+	/**
+	 * Return true if the request supplied If-Match and it does not match the entity tag of the current state, i.e., the client's copy is stale.
+	 * 
+	 * @param entityTagParm
+	 *            required
+	 * @return false if If-Match was not supplied
+	 */
+	public final boolean isPreconditionFailed(final String entityTagParm) {
+		return ifMatch != null && !EntityTagUtility.matches(ifMatch, entityTagParm);
+	}
+
 	public final T requestTypeHolder(final RequestTypeHolder requestTypeHolderParm) {
 		checkNotBuilt();
 
@@ -72,6 +111,36 @@ public abstract class BaseInboundDto<T extends BaseInboundDto<?>> extends BaseDt
 		return GenericCastUtility.cast(this);
 	}
 
+	/**
+	 * Set the If-None-Match header value.
+	 * 
+	 * @param ifNoneMatchParm
+	 *            optional
+	 * @return
+	 */
+	public final T ifNoneMatch(final String ifNoneMatchParm) {
+		checkNotBuilt();
+
+		ifNoneMatch = ifNoneMatchParm;
+
+		return GenericCastUtility.cast(this);
+	}
+
+	/**
+	 * Set the If-Match header value.
+	 * 
+	 * @param ifMatchParm
+	 *            optional
+	 * @return
+	 */
+	public final T ifMatch(final String ifMatchParm) {
+		checkNotBuilt();
+
+		ifMatch = ifMatchParm;
+
+		return GenericCastUtility.cast(this);
+	}
+
 	@Override
 	public void validate() {
 		super.validate();
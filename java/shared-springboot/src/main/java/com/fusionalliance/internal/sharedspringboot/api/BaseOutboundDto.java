@@ -5,6 +5,8 @@
  */
 package com.fusionalliance.internal.sharedspringboot.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fusionalliance.internal.sharedutility.core.GenericCastUtility;
 import com.fusionalliance.internal.sharedutility.core.TreatAsRestricted;
 import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
 import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
@@ -15,13 +17,37 @@ import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
  * BaseOutboundDto has a {@link Messages} field that is inherited by all subclasses. Typically, the service layer will supply it to the DTO after the
  * DTO has been built. Therefore, the putMessages(Messages) method is supplied to handle this special requirement. Messages are typically used only
  * for outgoing DTO; for incoming DTO, the messages field will typically be null.
+ * <p>
+ * An outbound DTO may carry the entity tag of the state it represents, which the service layer returns in the ETag header.
  * 
  * @see BaseDto
  */
 public abstract class BaseOutboundDto<T extends BaseOutboundDto<?>> extends BaseDto<T> {
 	/** Messages that will be added to outgoing JSON */
-	@SuppressWarnings("unused")
-	private Messages messages;
+	Messages messages;
+
+	/** Entity tag of the state represented, optional; not part of the JSON */
+	@JsonIgnore
+	private transient String entityTag;
+
+	public final String getEntityTag() {
+		return entityTag;
+	}
+
+	/**
+	 * Set the entity tag of the state represented; see {@link com.fusionalliance.internal.sharedutility.core.EntityTagUtility}.
+	 * 
+	 * @param entityTagParm
+	 *            optional
+	 * @return
+	 */
+	public final T entityTag(final String entityTagParm) {
+		checkNotBuilt();
+
+		entityTag = entityTagParm;
+
+		return GenericCastUtility.cast(this);
+	}
 
 	/**
 	 * Put a Messages instance into the DTO. This method should only be used by framework classes.
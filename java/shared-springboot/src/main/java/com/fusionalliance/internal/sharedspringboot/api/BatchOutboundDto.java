@@ -0,0 +1,35 @@
+package com.fusionalliance.internal.sharedspringboot.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
+
+/**
+ * This class implements an outbound DTO for a batch of BusinessProcessors run in one transaction. It carries a {@link Messages} instance per item,
+ * in the order of the items, in addition to the Messages inherited from BaseOutboundDto, which summarize the batch.
+ */
+public final class BatchOutboundDto extends BaseOutboundDto<BatchOutboundDto> {
+	final List<Messages> itemMessagesList = new ArrayList<>();
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		// No further validations
+	}
+
+	public List<Messages> getItemMessagesList() {
+		return new ArrayList<>(itemMessagesList);
+	}
+
+	public BatchOutboundDto addItemMessages(final Messages itemMessagesParm) {
+		checkNotBuilt();
+
+		if (itemMessagesParm != null) {
+			itemMessagesList.add(itemMessagesParm);
+		}
+
+		return this;
+	}
+}
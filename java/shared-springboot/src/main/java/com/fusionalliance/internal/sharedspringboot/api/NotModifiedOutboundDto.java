@@ -0,0 +1,19 @@
+package com.fusionalliance.internal.sharedspringboot.api;
+
+/**
+ * This class implements an outbound DTO indicating that the client's copy, identified by If-None-Match, is current. The service layer responds 304
+ * Not Modified, with the entity tag but without a body.
+ * <p>
+ * Returning it lets a processor skip building and serializing the full response.
+ */
+public final class NotModifiedOutboundDto extends BaseOutboundDto<NotModifiedOutboundDto> {
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		if (getEntityTag() == null) {
+			addValidationError("The entity tag is missing.");
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.fusionalliance.internal.sharedspringboot.api;
+
+import com.fusionalliance.internal.sharedspringboot.business.PreconditionFailedException;
+
+/**
+ * This class implements an outbound DTO that contains only a Messages instance, for a request rejected by a {@link PreconditionFailedException}. The
+ * service layer responds 412 Precondition Failed.
+ */
+public final class PreconditionFailedOutboundDto extends BaseOutboundDto<PreconditionFailedOutboundDto> {
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		// No further validations
+	}
+}
@@ -5,8 +5,12 @@
  */
 package com.fusionalliance.internal.sharedspringboot.business;
 
+import java.io.Serializable;
+import java.util.Collection;
+
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,8 @@ import org.springframework.stereotype.Service;
  * </ul>
  */
 public abstract class BaseHibernateDao {
+	/** Entities written between flushes by the bulk methods when JDBC batching is off */
+	static final int DEFAULT_CHUNK_SIZE = 50;
 
 	/**
 	 * Add the entity to the persistence session.
@@ -38,6 +44,91 @@ public abstract class BaseHibernateDao {
 		retrieveCurrentSession().persist(persistenceEntityParm);
 	}
 
+	/**
+	 * Add the entities to the persistence session, flushing and clearing the session after each chunk of the JDBC batch size. The inserts of a chunk
+	 * are sent in a few batches, and the session does not grow with the number of entities.
+	 * <p>
+	 * <b>Warning:</b> Clearing the session detaches every entity in it, including those loaded before this call; do not modify them afterwards
+	 * without merging them.
+	 * 
+	 * @param persistenceEntitiesParm
+	 *            if null, does nothing; null elements are skipped
+	 */
+	public void persistAll(final Collection<? extends PersistenceEntity> persistenceEntitiesParm) {
+		if (persistenceEntitiesParm == null) {
+			return;
+		}
+
+		final Session session = retrieveCurrentSession();
+		final int chunkSize = retrieveChunkSize(session);
+
+		int chunkCount = 0;
+		for (final PersistenceEntity persistenceEntity : persistenceEntitiesParm) {
+			if (persistenceEntity == null) {
+				continue;
+			}
+
+			session.persist(persistenceEntity);
+
+			if (++chunkCount == chunkSize) {
+				session.flush();
+				session.clear();
+				chunkCount = 0;
+			}
+		}
+	}
+
+	/**
+	 * Copy the state of the detached entities onto persistent instances, as {@link Session#merge(Object)} does, flushing and clearing the session
+	 * after each chunk of the JDBC batch size. The updates of a chunk are sent in a few batches; entities in the second-level cache are merged
+	 * without a select.
+	 * <p>
+	 * <b>Warning:</b> As with {@link #persistAll(Collection)}, every entity in the session is detached afterwards. An optimistic lock failure is
+	 * thrown by the flush of its chunk.
+	 * 
+	 * @param persistenceEntitiesParm
+	 *            if null, does nothing; null elements are skipped
+	 */
+	public void mergeAll(final Collection<? extends PersistenceEntity> persistenceEntitiesParm) {
+		if (persistenceEntitiesParm == null) {
+			return;
+		}
+
+		final Session session = retrieveCurrentSession();
+		final int chunkSize = retrieveChunkSize(session);
+
+		int chunkCount = 0;
+		for (final PersistenceEntity persistenceEntity : persistenceEntitiesParm) {
+			if (persistenceEntity == null) {
+				continue;
+			}
+
+			session.merge(persistenceEntity);
+
+			if (++chunkCount == chunkSize) {
+				session.flush();
+				session.clear();
+				chunkCount = 0;
+			}
+		}
+	}
+
+	/**
+	 * Return a new key for the entity from its identifier generator, as persisting it would assign, so that it can be inserted over JDBC with a key
+	 * consistent with those Hibernate assigns. The key is not set in the entity.
+	 * 
+	 * @param persistenceEntityParm
+	 *            required
+	 * @return
+	 */
+	public Serializable generateKey(final PersistenceEntity persistenceEntityParm) {
+		final SessionImplementor session = (SessionImplementor) retrieveCurrentSession();
+
+		return session.getFactory() //
+				.getIdentifierGenerator(session.getEntityPersister(null, persistenceEntityParm).getRootEntityName()) //
+				.generate(session, persistenceEntityParm);
+	}
+
 	/**
 	 * Get an entity by key.
 	 * <p>
@@ -53,6 +144,25 @@ public abstract class BaseHibernateDao {
 		return entity;
 	}
 
+	/**
+	 * Get an entity by its simple natural ID. If the entity and its natural ID are cached, no database access is needed.
+	 * <p>
+	 * This method delegates to {@link Session#bySimpleNaturalId(Class)}.
+	 * 
+	 * @param <T>
+	 *            the entity type
+	 * @param entityClassParm
+	 *            required, must have a single @{@link org.hibernate.annotations.NaturalId} attribute
+	 * @param naturalIdParm
+	 *            required
+	 * @return null if not found
+	 */
+	public <T extends PersistenceEntity> T getByNaturalId(final Class<T> entityClassParm, final Object naturalIdParm) {
+		final T entity = retrieveCurrentSession().bySimpleNaturalId(entityClassParm).load(naturalIdParm);
+
+		return entity;
+	}
+
 	/**
 	 * Get a lazy proxy to an entity by key. This approach can save a database access if the non-key fields of the proxy are not used.
 	 * <p>
@@ -85,6 +195,28 @@ public abstract class BaseHibernateDao {
 		retrieveCurrentSession().delete(entityParm);
 	}
 
+	/**
+	 * Write the pending changes of the persistence session to the database, so that constraint violations surface now rather than at commit.
+	 * <p>
+	 * This method delegates to {@link Session#flush()}.
+	 */
+	public void flush() {
+		retrieveCurrentSession().flush();
+	}
+
+	/**
+	 * Return the number of entities written between flushes by the bulk methods: the JDBC batch size of the session factory, or
+	 * {@value #DEFAULT_CHUNK_SIZE} if batching is off.
+	 * 
+	 * @param sessionParm
+	 * @return
+	 */
+	private static int retrieveChunkSize(final Session sessionParm) {
+		final int jdbcBatchSize = ((SessionImplementor) sessionParm).getFactory().getSessionFactoryOptions().getJdbcBatchSize();
+
+		return jdbcBatchSize > 0 ? jdbcBatchSize : DEFAULT_CHUNK_SIZE;
+	}
+
 	/**
 	 * Retrieve the current Session.
 	 * <p>
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import com.fusionalliance.internal.sharedspringboot.api.BaseInboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
 import com.fusionalliance.internal.sharedutility.core.LoggerUtility;
 import com.fusionalliance.internal.sharedutility.core.TreatAsRestricted;
@@ -122,4 +123,13 @@ public abstract class BusinessProcessor<T extends BaseInboundDto<?>> {
 	protected T getInboundDto() {
 		return inboundDto;
 	}
+
+	/**
+	 * Return the login of the request, so the transaction layer can route it; see {@link BaseInboundDto#getLoginInfo()}.
+	 * 
+	 * @return null only if the inbound DTO was not built
+	 */
+	public final LoginInfo getLoginInfo() {
+		return inboundDto.getLoginInfo();
+	}
 }
@@ -0,0 +1,85 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This class runs a write statement directly over JDBC for many parameter rows, sending the rows to the database in batches rather than one round
+ * trip each. It suits bulk inserts, where loading each row as an entity would only fill the persistence context.
+ * <p>
+ * As with {@link JdbcReadDao}, the transaction's connection is used, so the rows are committed or rolled back with the transaction. The writes bypass
+ * Hibernate: the second-level cache and any application caches of the tables written must be maintained by the caller.
+ * <p>
+ * Sub-classes should typically do the following.
+ * <ul>
+ * <li>Specify @{@link org.springframework.stereotype.Service} on the class</li>
+ * <li>Inject the DataSource of the session factory by @{@link org.springframework.beans.factory.annotation.Qualifier}</li>
+ * </ul>
+ */
+public class JdbcBatchDao {
+	/** Rows sent per batch; the PostgreSQL driver rewrites each batch of inserts into a few multi-row inserts if reWriteBatchedInserts is set */
+	static final int BATCH_SIZE = 500;
+
+	private final DataSource dataSource;
+
+	/**
+	 * Constructor
+	 *
+	 * @param dataSourceParm
+	 *            required, the DataSource of the transaction manager
+	 */
+	public JdbcBatchDao(final DataSource dataSourceParm) {
+		ValidationUtility.checkObjectNotNull("The DataSource is null.", dataSourceParm);
+
+		dataSource = dataSourceParm;
+	}
+
+	/**
+	 * Execute the statement once for each parameter row.
+	 *
+	 * @param sqlParm
+	 *            required
+	 * @param parameterRowsParm
+	 *            required, the values of the ? placeholders of each execution, in order
+	 * @throws SQLException
+	 */
+	public void executeBatch(final String sqlParm, final List<Object[]> parameterRowsParm) throws SQLException {
+		ValidationUtility.checkStringNotBlank("The SQL is blank.", sqlParm);
+		ValidationUtility.checkObjectNotNull("The parameter rows are null.", parameterRowsParm);
+
+		if (parameterRowsParm.isEmpty()) {
+			return;
+		}
+
+		final Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (final PreparedStatement statement = connection.prepareStatement(sqlParm)) {
+			int batchedRows = 0;
+			for (final Object[] parameters : parameterRowsParm) {
+				for (int i = 0; i < parameters.length; i++) {
+					statement.setObject(i + 1, parameters[i]);
+				}
+				statement.addBatch();
+
+				if (++batchedRows == BATCH_SIZE) {
+					statement.executeBatch();
+					batchedRows = 0;
+				}
+			}
+
+			if (batchedRows > 0) {
+				statement.executeBatch();
+			}
+		}
+		finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+}
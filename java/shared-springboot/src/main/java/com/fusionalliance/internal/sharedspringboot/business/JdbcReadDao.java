@@ -0,0 +1,169 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This class runs read-only {@link JdbcReadQuery} directly over JDBC, mapping each row straight into a DTO or projection. Unlike
+ * {@link BaseHibernateDao}, nothing is hydrated into the persistence context, so it suits hot reads that only copy columns into an outbound DTO.
+ * <p>
+ * Within a transaction, the transaction's connection is used, so the queries see the same snapshot as Hibernate; outside of one, a connection is
+ * borrowed for the query. Changes pending in the Hibernate session are not flushed, and are therefore not visible.
+ * <p>
+ * Sub-classes should typically do the following.
+ * <ul>
+ * <li>Specify @{@link org.springframework.stereotype.Service} on the class</li>
+ * <li>Inject the DataSource of the session factory by @{@link org.springframework.beans.factory.annotation.Qualifier}</li>
+ * </ul>
+ */
+public class JdbcReadDao {
+	private final DataSource dataSource;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dataSourceParm
+	 *            required, the DataSource of the transaction manager
+	 */
+	public JdbcReadDao(final DataSource dataSourceParm) {
+		ValidationUtility.checkObjectNotNull("The DataSource is null.", dataSourceParm);
+
+		dataSource = dataSourceParm;
+	}
+
+	/**
+	 * Return the objects mapped from every row of the query.
+	 * 
+	 * @param <T>
+	 *            the DTO or projection type
+	 * @param queryParm
+	 *            required
+	 * @param parametersParm
+	 *            values of the ? placeholders, in order
+	 * @return
+	 * @throws SQLException
+	 */
+	public <T> List<T> retrieveList(final JdbcReadQuery<T> queryParm, final Object... parametersParm) throws SQLException {
+		ValidationUtility.checkObjectNotNull("The query is null.", queryParm);
+
+		final Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (final PreparedStatement statement = prepareStatement(connection, queryParm, parametersParm)) {
+			final List<T> list = new ArrayList<>();
+			final JdbcRowMapper<T> rowMapper = queryParm.getRowMapper();
+			try (final ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					list.add(rowMapper.mapRow(resultSet));
+				}
+			}
+
+			return list;
+		}
+		finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	/**
+	 * Return the object mapped from the first row of the query, or null if there are no rows.
+	 * 
+	 * @param <T>
+	 *            the DTO or projection type
+	 * @param queryParm
+	 *            required
+	 * @param parametersParm
+	 *            values of the ? placeholders, in order
+	 * @return
+	 * @throws SQLException
+	 */
+	public <T> T retrieveFirst(final JdbcReadQuery<T> queryParm, final Object... parametersParm) throws SQLException {
+		ValidationUtility.checkObjectNotNull("The query is null.", queryParm);
+
+		final Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (final PreparedStatement statement = prepareStatement(connection, queryParm, parametersParm)) {
+			statement.setMaxRows(1);
+
+			try (final ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? queryParm.getRowMapper().mapRow(resultSet) : null;
+			}
+		}
+		finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	/**
+	 * Pass the object mapped from each row of the query to the handler, as the rows arrive, and return the number of rows. Memory use does not
+	 * depend on the number of rows.
+	 * <p>
+	 * This must be called within a transaction: the PostgreSQL driver then reads the rows through a server-side cursor, fetch size rows at a time.
+	 * Outside of one, it reads every row before returning the first.
+	 * 
+	 * @param <T>
+	 *            the DTO or projection type
+	 * @param queryParm
+	 *            required
+	 * @param fetchSizeParm
+	 *            rows read from the server at a time; greater than 0
+	 * @param rowHandlerParm
+	 *            required
+	 * @param parametersParm
+	 *            values of the ? placeholders, in order
+	 * @return
+	 * @throws SQLException
+	 * @throws IOException
+	 *             if the handler throws it
+	 */
+	public <T> long retrieveEach(final JdbcReadQuery<T> queryParm, final int fetchSizeParm, final JdbcRowHandler<T> rowHandlerParm,
+			final Object... parametersParm) throws SQLException, IOException {
+		ValidationUtility.checkObjectNotNull("The query is null.", queryParm);
+		ValidationUtility.checkBadConditionNotMet("The fetch size is less than 1.", fetchSizeParm < 1);
+		ValidationUtility.checkObjectNotNull("The row handler is null.", rowHandlerParm);
+
+		final Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (final PreparedStatement statement = prepareStatement(connection, queryParm, parametersParm)) {
+			statement.setFetchSize(fetchSizeParm);
+
+			long rowCount = 0;
+			final JdbcRowMapper<T> rowMapper = queryParm.getRowMapper();
+			try (final ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					rowHandlerParm.handleRow(rowMapper.mapRow(resultSet));
+					rowCount++;
+				}
+			}
+
+			return rowCount;
+		}
+		finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	private static PreparedStatement prepareStatement(final Connection connectionParm, final JdbcReadQuery<?> queryParm,
+			final Object... parametersParm) throws SQLException {
+		final PreparedStatement statement = connectionParm.prepareStatement(queryParm.getSql());
+		try {
+			for (int i = 0; i < parametersParm.length; i++) {
+				statement.setObject(i + 1, parametersParm[i]);
+			}
+		}
+		catch (final SQLException e) {
+			statement.close();
+
+			throw e;
+		}
+
+		return statement;
+	}
+}
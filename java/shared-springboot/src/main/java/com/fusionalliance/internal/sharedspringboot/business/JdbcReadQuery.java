@@ -0,0 +1,41 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This immutable class pairs the SQL of a read-only query with the {@link JdbcRowMapper} for its rows. Declare instances as static final fields, so
+ * that every query and mapper is built once when its class is initialized; run them with a {@link JdbcReadDao}.
+ * <p>
+ * The SQL uses ? placeholders; the same SQL text is prepared on every execution, so the pooled DataSource can reuse the prepared statement.
+ *
+ * @param <T>
+ *            the DTO or projection type
+ */
+public final class JdbcReadQuery<T> {
+	private final String sql;
+	private final JdbcRowMapper<T> rowMapper;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sqlParm
+	 *            required
+	 * @param rowMapperParm
+	 *            required
+	 */
+	public JdbcReadQuery(final String sqlParm, final JdbcRowMapper<T> rowMapperParm) {
+		ValidationUtility.checkStringNotBlank("The SQL is blank.", sqlParm);
+		ValidationUtility.checkObjectNotNull("The row mapper is null.", rowMapperParm);
+
+		sql = sqlParm;
+		rowMapper = rowMapperParm;
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public JdbcRowMapper<T> getRowMapper() {
+		return rowMapper;
+	}
+}
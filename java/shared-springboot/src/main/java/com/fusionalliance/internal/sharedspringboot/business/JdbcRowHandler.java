@@ -0,0 +1,23 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import java.io.IOException;
+
+/**
+ * This interface defines how {@link JdbcReadDao#retrieveEach(JdbcReadQuery, int, JdbcRowHandler, Object...)} hands over each mapped row, so that it
+ * can be written out as it arrives rather than collected into a List.
+ *
+ * @param <T>
+ *            the DTO or projection type
+ */
+@FunctionalInterface
+public interface JdbcRowHandler<T> {
+	/**
+	 * Handle one row.
+	 * 
+	 * @param rowParm
+	 *            the object mapped from the row
+	 * @throws IOException
+	 *             if the row cannot be written; the query is abandoned
+	 */
+	public void handleRow(T rowParm) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This interface defines how a {@link JdbcReadQuery} maps the current row of its ResultSet to a DTO or projection.
+ * <p>
+ * Implementations should read the columns by position, in the order of the select list, and must not advance the ResultSet.
+ *
+ * @param <T>
+ *            the DTO or projection type
+ */
+@FunctionalInterface
+public interface JdbcRowMapper<T> {
+	/**
+	 * Return the object for the current row.
+	 * 
+	 * @param resultSetParm
+	 *            positioned on the row
+	 * @return
+	 * @throws SQLException
+	 */
+	public T mapRow(ResultSet resultSetParm) throws SQLException;
+}
@@ -0,0 +1,21 @@
+package com.fusionalliance.internal.sharedspringboot.business;
+
+import com.fusionalliance.internal.sharedutility.application.ApplicationException;
+
+/**
+ * This exception indicates that a request's precondition, typically If-Match, does not hold for the current state; e.g., an update based on a stale
+ * copy. Processors throw it before modifying anything, after adding an Error message to the MessageManager. The transaction is rolled back, and the
+ * service layer responds 412 Precondition Failed.
+ */
+public class PreconditionFailedException extends ApplicationException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param messageParm
+	 */
+	public PreconditionFailedException(final String messageParm) {
+		super(messageParm);
+	}
+}
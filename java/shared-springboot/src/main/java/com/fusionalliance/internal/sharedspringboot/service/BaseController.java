@@ -5,9 +5,32 @@
  */
 package com.fusionalliance.internal.sharedspringboot.service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
 import com.fusionalliance.internal.sharedspringboot.api.BaseDto;
+import com.fusionalliance.internal.sharedspringboot.api.BaseInboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.NotModifiedOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.PreconditionFailedOutboundDto;
+import com.fusionalliance.internal.sharedutility.core.EntityTagUtility;
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.core.JsonReadLimits;
+import com.fusionalliance.internal.sharedutility.core.ValidationException;
 import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.sharedutility.messagemanager.StandardCompletionStatus;
 
@@ -15,6 +38,323 @@ import com.fusionalliance.internal.sharedutility.messagemanager.StandardCompleti
  * This abstract class is the base for all service-layer rest controllers. It provides some helper methods.
  */
 public abstract class BaseController {
+	/** Request parameter that asks for pretty, rather than compact, JSON; e.g., ?pretty=true */
+	public static final String PRETTY_PARAMETER = "pretty";
+	public static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+	/** Media type of CBOR request and response bodies; callers opt in using the Accept and Content-Type headers */
+	public static final String CBOR_CONTENT_TYPE = "application/cbor";
+
+	private static final MediaType CBOR_MEDIA_TYPE = MediaType.valueOf(CBOR_CONTENT_TYPE);
+	/** Appended to the entity tags of CBOR responses, so that a cache never answers a JSON request with a CBOR response, or the reverse */
+	private static final String CBOR_ENTITY_TAG_SUFFIX = "-cbor";
+
+	/** Limits applied to JSON request bodies; see {@link #configureJsonReadLimits(long, int, int)} */
+	private JsonReadLimits jsonReadLimits = JsonReadLimits.DEFAULT;
+
+	/**
+	 * Set the limits applied to JSON request bodies by {@link #readInboundDto(HttpServletRequest, Class)}. Spring calls this method with the
+	 * configured values or their defaults.
+	 * 
+	 * @param maxBytesParm
+	 *            json.request.maxBytes, must be positive
+	 * @param maxDepthParm
+	 *            json.request.maxDepth, must be positive
+	 * @param maxFieldsParm
+	 *            json.request.maxFields, must be positive
+	 */
+	@Autowired
+	public void configureJsonReadLimits( //
+			@Value("${json.request.maxBytes:65536}") final long maxBytesParm, //
+			@Value("${json.request.maxDepth:16}") final int maxDepthParm, //
+			@Value("${json.request.maxFields:1000}") final int maxFieldsParm //
+	) {
+		jsonReadLimits = new JsonReadLimits(maxBytesParm, maxDepthParm, maxFieldsParm);
+	}
+
+	/**
+	 * Return the limits applied to JSON request bodies, so that a sub-class reading JSON documents from a body in another way can apply them to each
+	 * document.
+	 *
+	 * @return
+	 */
+	protected JsonReadLimits getJsonReadLimits() {
+		return jsonReadLimits;
+	}
+
+	/**
+	 * Return true if the request explicitly asks for pretty JSON using {@link #PRETTY_PARAMETER}.
+	 * 
+	 * @param servletRequestParm
+	 *            required
+	 * @return
+	 */
+	protected boolean isPrettyRequested(final HttpServletRequest servletRequestParm) {
+		ValidationUtility.checkObjectNotNull("The request is null.", servletRequestParm);
+
+		return Boolean.parseBoolean(servletRequestParm.getParameter(PRETTY_PARAMETER));
+	}
+
+	/**
+	 * Select the wire format of the response from the Accept header. CBOR is selected when the caller prefers {@link #CBOR_CONTENT_TYPE} to JSON;
+	 * otherwise, including when the header is missing or unparsable, JSON is selected, pretty if {@link #isPrettyRequested(HttpServletRequest)}.
+	 * A response written in the selected format must carry Vary: Accept; see {@link #addVaryAccept(HttpServletResponse)}.
+	 * 
+	 * @param servletRequestParm
+	 *            required
+	 * @return
+	 */
+	protected WireFormat selectWireFormat(final HttpServletRequest servletRequestParm) {
+		ValidationUtility.checkObjectNotNull("The request is null.", servletRequestParm);
+
+		final String accept = servletRequestParm.getHeader("Accept");
+		if (accept != null && accept.contains(CBOR_CONTENT_TYPE)) {
+			try {
+				final List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+				MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+				for (final MediaType mediaType : mediaTypes) {
+					if (CBOR_MEDIA_TYPE.includes(mediaType)) {
+						return WireFormat.CBOR;
+					}
+					if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+						break;
+					}
+				}
+			}
+			catch (final InvalidMediaTypeException e) {
+				// Fall back to JSON
+			}
+		}
+
+		return isPrettyRequested(servletRequestParm) ? WireFormat.JSON_PRETTY : WireFormat.JSON;
+	}
+
+	/**
+	 * Read an inbound DTO from the request body, which is JSON unless the Content-Type is {@link #CBOR_CONTENT_TYPE}. The body is parsed as it is
+	 * read from the request InputStream; it is never held in memory as a whole.
+	 * <p>
+	 * If the body is empty, unparsable, or exceeds one of the limits, an error is added to the MessageManager and null is returned; the caller should
+	 * respond with {@link #generateOutboundDtoFromMessageManager(StandardCompletionStatus)}. A body whose declared Content-Length exceeds the byte
+	 * limit is rejected without being read.
+	 * 
+	 * @param servletRequestParm
+	 *            required
+	 * @param inboundDtoClassParm
+	 *            required
+	 * @return null if the body was rejected
+	 * @throws IOException
+	 *             if the request body cannot be read
+	 */
+	protected <T extends BaseInboundDto<?>> T readInboundDto(final HttpServletRequest servletRequestParm, final Class<T> inboundDtoClassParm)
+			throws IOException {
+		ValidationUtility.checkObjectNotNull("The request is null.", servletRequestParm);
+		ValidationUtility.checkObjectNotNull("The inbound DTO class is null.", inboundDtoClassParm);
+
+		if (servletRequestParm.getContentLengthLong() > jsonReadLimits.getMaxBytes()) {
+			MessageManager.addError("The request body exceeds the limit of %1$d bytes.", jsonReadLimits.getMaxBytes());
+
+			return null;
+		}
+
+		try {
+			if (isCborContentType(servletRequestParm.getContentType())) {
+				return GsonHelper.readCbor(servletRequestParm.getInputStream(), inboundDtoClassParm, jsonReadLimits);
+			}
+
+			return GsonHelper.readJson(servletRequestParm.getInputStream(), inboundDtoClassParm, jsonReadLimits);
+		}
+		catch (final ValidationException e) {
+			MessageManager.addError("The request body was rejected. %1$s", e.getMessage());
+
+			return null;
+		}
+	}
+
+	/**
+	 * Return the JSON for the DTO passed. The JSON is compact unless the request explicitly asks for pretty JSON.
+	 * 
+	 * @param dtoParm
+	 *            required
+	 * @param servletRequestParm
+	 *            required
+	 * @return
+	 */
+	protected String generateJson(final BaseDto<?> dtoParm, final HttpServletRequest servletRequestParm) {
+		ValidationUtility.checkObjectNotNull("The DTO is null.", dtoParm);
+
+		final String json = dtoParm.toJson(isPrettyRequested(servletRequestParm));
+
+		return json;
+	}
+
+	/**
+	 * Add Vary: Accept to a response whose representation was selected by the Accept header, so that caches key it by that header. This applies to
+	 * every such response, including 304 Not Modified and error responses.
+	 * 
+	 * @param servletResponseParm
+	 *            required
+	 */
+	protected void addVaryAccept(final HttpServletResponse servletResponseParm) {
+		ValidationUtility.checkObjectNotNull("The response is null.", servletResponseParm);
+
+		servletResponseParm.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+	}
+
+	/**
+	 * Return the If-None-Match header for comparison with the entity tags a processor generates. Tags are sent with a suffix for CBOR, so a CBOR
+	 * request keeps only the CBOR tags, without the suffix, and a JSON request keeps the header as is, which CBOR tags never match. A 304 Not
+	 * Modified is therefore only returned for the representation the tag was taken from.
+	 * 
+	 * @param servletRequestParm
+	 *            required
+	 * @return null if there is no header, or no tag of the selected wire format
+	 */
+	protected String readIfNoneMatch(final HttpServletRequest servletRequestParm) {
+		final String ifNoneMatch = servletRequestParm.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+		return selectWireFormat(servletRequestParm) == WireFormat.CBOR ? EntityTagUtility.selectSuffixed(ifNoneMatch, CBOR_ENTITY_TAG_SUFFIX)
+				: ifNoneMatch;
+	}
+
+	/**
+	 * Return the If-Match header for comparison with the entity tags a processor generates. If-Match compares the state, so a tag taken from a
+	 * response in any wire format matches.
+	 * 
+	 * @param servletRequestParm
+	 *            required
+	 * @return null if there is no header
+	 */
+	protected String readIfMatch(final HttpServletRequest servletRequestParm) {
+		return normalizeIfMatch(servletRequestParm.getHeader(HttpHeaders.IF_MATCH));
+	}
+
+	/**
+	 * Return an If-Match value, such as one carried in a request body, for comparison with the entity tags a processor generates; see
+	 * {@link #readIfMatch(HttpServletRequest)}.
+	 * 
+	 * @param ifMatchParm
+	 *            optional
+	 * @return
+	 */
+	protected static String normalizeIfMatch(final String ifMatchParm) {
+		return EntityTagUtility.removeSuffix(ifMatchParm, CBOR_ENTITY_TAG_SUFFIX);
+	}
+
+	/**
+	 * Set the content type of the wire format on the response and return its OutputStream, to which the DTO can be streamed.
+	 * 
+	 * @param servletResponseParm
+	 *            required
+	 * @param wireFormatParm
+	 *            required, typically from {@link #selectWireFormat(HttpServletRequest)}
+	 * @return
+	 * @throws IOException
+	 */
+	protected OutputStream openOutputStream(final HttpServletResponse servletResponseParm, final WireFormat wireFormatParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("The response is null.", servletResponseParm);
+		ValidationUtility.checkObjectNotNull("The wire format is null.", wireFormatParm);
+
+		servletResponseParm.setContentType(wireFormatParm.getContentType());
+
+		return servletResponseParm.getOutputStream();
+	}
+
+	/**
+	 * Stream the DTO passed to the response in the wire format selected by {@link #selectWireFormat(HttpServletRequest)}.
+	 * <p>
+	 * The entity tag of an outbound DTO is returned in the ETag header, with a suffix if the wire format is CBOR. A {@link NotModifiedOutboundDto} is
+	 * answered with 304 Not Modified and no body; a {@link PreconditionFailedOutboundDto} with 412 Precondition Failed. Every response carries
+	 * Vary: Accept.
+	 * 
+	 * @param dtoParm
+	 *            required
+	 * @param servletRequestParm
+	 *            required
+	 * @param servletResponseParm
+	 *            required
+	 * @throws IOException
+	 */
+	protected void writeResponse(final BaseDto<?> dtoParm, final HttpServletRequest servletRequestParm, final HttpServletResponse servletResponseParm)
+			throws IOException {
+		ValidationUtility.checkObjectNotNull("The DTO is null.", dtoParm);
+
+		final WireFormat wireFormat = selectWireFormat(servletRequestParm);
+		addVaryAccept(servletResponseParm);
+
+		if (dtoParm instanceof BaseOutboundDto) {
+			final String entityTag = ((BaseOutboundDto<?>) dtoParm).getEntityTag();
+			if (entityTag != null) {
+				servletResponseParm.setHeader(HttpHeaders.ETAG, generateEntityTag(entityTag, wireFormat));
+			}
+		}
+
+		if (dtoParm instanceof NotModifiedOutboundDto) {
+			servletResponseParm.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+			return;
+		}
+
+		if (dtoParm instanceof PreconditionFailedOutboundDto) {
+			servletResponseParm.setStatus(HttpServletResponse.SC_PRECONDITION_FAILED);
+		}
+
+		dtoParm.write(openOutputStream(servletResponseParm, wireFormat), wireFormat);
+	}
+
+	/**
+	 * Serialize the outbound DTO passed in the wire format passed, keeping its entity tag, so that the same bytes can be written to several responses
+	 * with {@link #writeResponse(SerializedResponse, HttpServletRequest, HttpServletResponse)}.
+	 * 
+	 * @param outboundDtoParm
+	 *            required
+	 * @param wireFormatParm
+	 *            required
+	 * @return
+	 * @throws IOException
+	 */
+	protected SerializedResponse serializeResponse(final BaseOutboundDto<?> outboundDtoParm, final WireFormat wireFormatParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("The DTO is null.", outboundDtoParm);
+		ValidationUtility.checkObjectNotNull("The wire format is null.", wireFormatParm);
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		outboundDtoParm.write(outputStream, wireFormatParm);
+
+		return new SerializedResponse(outputStream.toByteArray(), wireFormatParm, outboundDtoParm.getEntityTag());
+	}
+
+	/**
+	 * Write a serialized response. Its entity tag is returned in the ETag header, with a suffix if the wire format is CBOR, and a matching
+	 * If-None-Match is answered with 304 Not Modified and no body. The response carries Vary: Accept.
+	 * 
+	 * @param serializedResponseParm
+	 *            required
+	 * @param servletRequestParm
+	 *            required
+	 * @param servletResponseParm
+	 *            required
+	 * @throws IOException
+	 */
+	protected void writeResponse(final SerializedResponse serializedResponseParm, final HttpServletRequest servletRequestParm,
+			final HttpServletResponse servletResponseParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("The serialized response is null.", serializedResponseParm);
+
+		addVaryAccept(servletResponseParm);
+
+		final String entityTag = serializedResponseParm.getEntityTag() == null ? null
+				: generateEntityTag(serializedResponseParm.getEntityTag(), serializedResponseParm.getWireFormat());
+		if (entityTag != null) {
+			servletResponseParm.setHeader(HttpHeaders.ETAG, entityTag);
+
+			if (EntityTagUtility.matches(servletRequestParm.getHeader(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+				servletResponseParm.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+				return;
+			}
+		}
+
+		servletResponseParm.setContentLength(serializedResponseParm.getLength());
+		openOutputStream(servletResponseParm, serializedResponseParm.getWireFormat()).write(serializedResponseParm.getBody());
+	}
 
 	/**
 	 * Return a MessagesOnlyOutboundDto. Callers must supply at least one message or a ValidationException is thrown.
@@ -52,4 +392,24 @@ public abstract class BaseController {
 			MessageManager.addError(validationError);
 		}
 	}
+
+	/**
+	 * Return the entity tag sent for a state written in the wire format passed.
+	 */
+	private static String generateEntityTag(final String entityTagParm, final WireFormat wireFormatParm) {
+		return wireFormatParm == WireFormat.CBOR ? EntityTagUtility.appendSuffix(entityTagParm, CBOR_ENTITY_TAG_SUFFIX) : entityTagParm;
+	}
+
+	private static boolean isCborContentType(final String contentTypeParm) {
+		if (contentTypeParm == null) {
+			return false;
+		}
+
+		try {
+			return CBOR_MEDIA_TYPE.includes(MediaType.parseMediaType(contentTypeParm));
+		}
+		catch (final InvalidMediaTypeException e) {
+			return false;
+		}
+	}
 }
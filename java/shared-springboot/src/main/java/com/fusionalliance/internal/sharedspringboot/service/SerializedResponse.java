@@ -0,0 +1,51 @@
+package com.fusionalliance.internal.sharedspringboot.service;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
+
+/**
+ * This immutable class contains an outbound DTO already serialized in a wire format, ready to be written to any number of responses; see
+ * {@link BaseController#serializeResponse(com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto, WireFormat)}.
+ * <p>
+ * The body array is shared, not copied; it must not be modified.
+ */
+public final class SerializedResponse {
+	private final byte[] body;
+	private final WireFormat wireFormat;
+	private final String entityTag;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bodyParm
+	 *            required
+	 * @param wireFormatParm
+	 *            required
+	 * @param entityTagParm
+	 *            optional
+	 */
+	public SerializedResponse(final byte[] bodyParm, final WireFormat wireFormatParm, final String entityTagParm) {
+		ValidationUtility.checkObjectNotNull("The body is null.", bodyParm);
+		ValidationUtility.checkObjectNotNull("The wire format is null.", wireFormatParm);
+
+		body = bodyParm;
+		wireFormat = wireFormatParm;
+		entityTag = entityTagParm;
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	public int getLength() {
+		return body.length;
+	}
+
+	public WireFormat getWireFormat() {
+		return wireFormat;
+	}
+
+	public String getEntityTag() {
+		return entityTag;
+	}
+}
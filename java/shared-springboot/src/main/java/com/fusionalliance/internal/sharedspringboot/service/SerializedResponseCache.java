@@ -0,0 +1,154 @@
+package com.fusionalliance.internal.sharedspringboot.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * This class caches {@link SerializedResponse} by a key describing the request, typically its parameters and the wire format. All entries are
+ * invalidated together, after a transaction that changes the underlying data commits; see {@link #invalidateAfterCommit()}.
+ * <p>
+ * A response built while an invalidation happens may reflect the old data, so each build records the generation before it reads the data, and
+ * {@link #put(Object, long, SerializedResponse, long)} discards the response if the generation has changed since.
+ * <p>
+ * There is no eviction; the key space must be small and bounded. The following metrics are registered, prefixed by the cache name:
+ * <ul>
+ * <li>.requests, a counter tagged result=hit|miss</li>
+ * <li>.hit.ratio, a gauge</li>
+ * <li>.size, a gauge</li>
+ * <li>.rebuild, a timer of building and serializing a response on a miss</li>
+ * </ul>
+ * This class is thread safe.
+ *
+ * @param <K>
+ *            the key type, which must implement equals() and hashCode()
+ */
+public class SerializedResponseCache<K> {
+	private final ConcurrentMap<K, SerializedResponse> responses = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+	private final Counter hitCounter;
+	private final Counter missCounter;
+	private final Timer rebuildTimer;
+
+	/**
+	 * Constructor
+	 *
+	 * @param nameParm
+	 *            required, the metric name prefix; e.g., user.list.response.cache
+	 * @param meterRegistryParm
+	 *            required
+	 */
+	public SerializedResponseCache(final String nameParm, final MeterRegistry meterRegistryParm) {
+		ValidationUtility.checkStringNotBlank("The name is blank.", nameParm);
+		ValidationUtility.checkObjectNotNull("The meter registry is null.", meterRegistryParm);
+
+		hitCounter = meterRegistryParm.counter(nameParm + ".requests", "result", "hit");
+		missCounter = meterRegistryParm.counter(nameParm + ".requests", "result", "miss");
+		rebuildTimer = meterRegistryParm.timer(nameParm + ".rebuild");
+		Gauge.builder(nameParm + ".hit.ratio", this, SerializedResponseCache::computeHitRatio).register(meterRegistryParm);
+		Gauge.builder(nameParm + ".size", responses, ConcurrentMap::size).register(meterRegistryParm);
+	}
+
+	/**
+	 * Return the cached response, or null on a miss.
+	 *
+	 * @param keyParm
+	 *            required
+	 * @return
+	 */
+	public SerializedResponse retrieve(final K keyParm) {
+		final SerializedResponse response = responses.get(keyParm);
+
+		if (response == null) {
+			missCounter.increment();
+		}
+		else {
+			hitCounter.increment();
+		}
+
+		return response;
+	}
+
+	/**
+	 * Return the current generation. Call this before reading the data from which a response will be built, outside of its transaction.
+	 *
+	 * @return
+	 */
+	public long retrieveGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Cache a response built on a miss, unless the cache was invalidated after the generation passed was retrieved.
+	 *
+	 * @param keyParm
+	 *            required
+	 * @param generationParm
+	 *            from {@link #retrieveGeneration()}, before the data was read
+	 * @param responseParm
+	 *            required
+	 * @param rebuildNanosParm
+	 *            time spent building and serializing the response
+	 */
+	public void put(final K keyParm, final long generationParm, final SerializedResponse responseParm, final long rebuildNanosParm) {
+		ValidationUtility.checkObjectNotNull("The key is null.", keyParm);
+		ValidationUtility.checkObjectNotNull("The response is null.", responseParm);
+
+		rebuildTimer.record(rebuildNanosParm, TimeUnit.NANOSECONDS);
+
+		if (generation.get() != generationParm) {
+			return;
+		}
+
+		responses.put(keyParm, responseParm);
+
+		// An invalidation may have cleared the cache between the check and the put
+		if (generation.get() != generationParm) {
+			responses.remove(keyParm, responseParm);
+		}
+	}
+
+	/**
+	 * Remove all responses now.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		responses.clear();
+	}
+
+	/**
+	 * Remove all responses once the current transaction commits; nothing is removed if it rolls back. If no transaction is active, remove them now.
+	 */
+	public void invalidateAfterCommit() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate();
+
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				invalidate();
+			}
+		});
+	}
+
+	private double computeHitRatio() {
+		final double hits = hitCounter.count();
+		final double requests = hits + missCounter.count();
+
+		return requests == 0 ? 0 : hits / requests;
+	}
+}
@@ -5,18 +5,39 @@
  */
 package com.fusionalliance.internal.sharedspringboot.transaction;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
 import com.fusionalliance.internal.sharedutility.core.TreatAsRestricted;
+import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
+import com.fusionalliance.internal.sharedutility.messagemanager.StandardCompletionStatus;
 
 /**
  * This class implements a service supporting transactions. Note that it uses the DefaultTransactionManager. Classes that want to use a different
  * transaction manager can override the {@link #processReadOnly(BusinessProcessor)} and {@link #processUpdateable(BusinessProcessor)} methods,
- * supplying the name of a different transaction manager in the [at}Transactional annotations.
+ * supplying the name of a different transaction manager in the [at}Transactional annotations, and likewise the batch methods and
+ * {@link #retrieveCurrentSession()}.
  * <p>
  * This class should not be called directly; use {@link TransactionLayerFacade} instead.
  */
@@ -47,6 +68,34 @@ public class TransactionLayer {
 		return process(processorParm);
 	}
 
+	/**
+	 * Execute the BusinessProcessors, in order, in one updatable transaction; see {@link #processBatch(List, boolean)}.
+	 * 
+	 * @param processorsParm
+	 *            required
+	 * @param savepointPerItemParm
+	 *            roll back only a failed item, rather than the whole batch?
+	 * @return the Messages of each item, never null
+	 */
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME)
+	public List<Messages> processBatchUpdateable(final List<? extends BusinessProcessor<?>> processorsParm, final boolean savepointPerItemParm) {
+		return processBatch(processorsParm, savepointPerItemParm);
+	}
+
+	/**
+	 * Execute the BusinessProcessors, in order, in one read-only transaction; see {@link #processBatch(List, boolean)}.
+	 * 
+	 * @param processorsParm
+	 *            required
+	 * @param savepointPerItemParm
+	 *            continue after a failed item, rather than failing the rest of the batch?
+	 * @return the Messages of each item, never null
+	 */
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME, readOnly = true)
+	public List<Messages> processBatchReadOnly(final List<? extends BusinessProcessor<?>> processorsParm, final boolean savepointPerItemParm) {
+		return processBatch(processorsParm, savepointPerItemParm);
+	}
+
 	/**
 	 * Execute the BusinessProcessor and return the outbound DTO or an ApplicationException.
 	 * <p>
@@ -60,4 +109,119 @@ public class TransactionLayer {
 
 		return outboundDto;
 	}
+
+	/**
+	 * Execute the BusinessProcessors in the current transaction, each with its own MessageManager messages, and return the Messages of each. The
+	 * Session is flushed after each item of an updatable transaction, so that a failed statement is reported against its item.
+	 * <p>
+	 * When an item fails and savepointPerItemParm is true, only the work of that item is rolled back, to a savepoint taken before it, and the batch
+	 * goes on. Otherwise, or if the savepoint cannot be created, the transaction is marked rollback-only and the remaining items are not run, each
+	 * reporting a warning instead. Savepoints require a transaction manager that allows nested transactions.
+	 * <p>
+	 * Rolling back to a savepoint leaves the Session and the second-level cache unaware of it, so the Session is cleared, and, once the batch is
+	 * done, the cached entities that were in the Session, and the natural IDs of their entity types, are evicted; other cached data is kept.
+	 * Entities loaded by an earlier item are detached by the clear. Transaction synchronizations registered by a rolled-back item still run when
+	 * the batch commits, so they must tolerate work that did not happen, as cache invalidations do.
+	 * 
+	 * @param processorsParm
+	 *            required
+	 * @param savepointPerItemParm
+	 * @return never null
+	 */
+	protected final List<Messages> processBatch(final List<? extends BusinessProcessor<?>> processorsParm, final boolean savepointPerItemParm) {
+		final TransactionStatus transactionStatus = TransactionAspectSupport.currentTransactionStatus();
+		final boolean updatable = !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		final List<Messages> itemMessagesList = new ArrayList<>(processorsParm.size());
+		final Map<String, Set<Serializable>> rolledBackIdsByEntityName = new HashMap<>();
+
+		for (final BusinessProcessor<?> processor : processorsParm) {
+			MessageManager.initialize();
+
+			if (transactionStatus.isRollbackOnly()) {
+				MessageManager.addWarn("The item was not processed, because an earlier item failed.");
+			}
+			else {
+				Object savepoint = null;
+
+				try {
+					if (savepointPerItemParm) {
+						savepoint = transactionStatus.createSavepoint();
+					}
+
+					processor.processInternal();
+
+					if (updatable) {
+						retrieveCurrentSession().flush();
+					}
+				}
+				catch (final RuntimeException e) {
+					TransactionLayerFacade.addFailureMessages(e);
+
+					if (savepoint == null) {
+						transactionStatus.setRollbackOnly();
+					}
+					else {
+						transactionStatus.rollbackToSavepoint(savepoint);
+
+						final Session session = retrieveCurrentSession();
+						if (updatable) {
+							collectCachedEntities(session, rolledBackIdsByEntityName);
+						}
+						session.clear();
+					}
+				}
+				finally {
+					if (savepoint != null) {
+						transactionStatus.releaseSavepoint(savepoint);
+					}
+				}
+			}
+
+			MessageManager.setCompletionText(StandardCompletionStatus.determineFromMessageManagerSeverity().name());
+			itemMessagesList.add(MessageManager.makeFinal());
+		}
+
+		if (!rolledBackIdsByEntityName.isEmpty()) {
+			evictCachedEntities(retrieveCurrentSession().getSessionFactory().getCache(), rolledBackIdsByEntityName);
+		}
+
+		return itemMessagesList;
+	}
+
+	/**
+	 * Add the ID of each entity in the Session whose type is in the second-level cache, by entity name. These are the cached entities a rolled-back
+	 * item may have changed.
+	 */
+	private static void collectCachedEntities(final Session sessionParm, final Map<String, Set<Serializable>> idsByEntityNameParm) {
+		for (final Map.Entry<Object, EntityEntry> entry : sessionParm.unwrap(SessionImplementor.class).getPersistenceContext()
+				.reentrantSafeEntityEntries()) {
+			final EntityEntry entityEntry = entry.getValue();
+			if (entityEntry.getPersister().hasCache() && entityEntry.getId() != null) {
+				idsByEntityNameParm.computeIfAbsent(entityEntry.getEntityName(), entityName -> new HashSet<>()).add(entityEntry.getId());
+			}
+		}
+	}
+
+	/**
+	 * Evict the entities collected by {@link #collectCachedEntities(Session, Map)}, and the natural ID region of each of their entity types, as a
+	 * natural ID cannot be evicted by entity ID.
+	 */
+	private static void evictCachedEntities(final Cache cacheParm, final Map<String, Set<Serializable>> idsByEntityNameParm) {
+		for (final Map.Entry<String, Set<Serializable>> entry : idsByEntityNameParm.entrySet()) {
+			for (final Serializable id : entry.getValue()) {
+				cacheParm.evictEntity(entry.getKey(), id);
+			}
+
+			cacheParm.evictNaturalIdRegion(entry.getKey());
+		}
+	}
+
+	/**
+	 * Return the Hibernate Session of the current transaction.
+	 * 
+	 * @return never null
+	 */
+	protected Session retrieveCurrentSession() {
+		return SpringContextHelper.getBeanByName(TRANSACTION_MANAGER_NAME, HibernateTransactionManager.class).getSessionFactory().getCurrentSession();
+	}
 }
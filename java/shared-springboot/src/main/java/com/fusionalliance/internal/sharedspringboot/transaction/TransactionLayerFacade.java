@@ -5,13 +5,18 @@
  */
 package com.fusionalliance.internal.sharedspringboot.transaction;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.BatchOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.PreconditionFailedOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedspringboot.business.PreconditionFailedException;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
 import com.fusionalliance.internal.sharedutility.core.LoggerUtility;
 import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
@@ -44,6 +49,9 @@ public class TransactionLayerFacade {
 
 	/**
 	 * Execute the BusinessProcessor in a updatable transaction.
+	 * <p>
+	 * If the processor throws an ApplicationException, a {@link MessagesOnlyOutboundDto} is returned instead, or a
+	 * {@link PreconditionFailedOutboundDto} for a {@link PreconditionFailedException}.
 	 * 
 	 * @param processorParm
 	 *            required
@@ -64,20 +72,123 @@ public class TransactionLayerFacade {
 				outboundDto = transactionLayer.processReadOnly(processorParm);
 			}
 		}
+		catch (final PreconditionFailedException pfe) {
+			outboundDto = new PreconditionFailedOutboundDto().build();
+
+			addFailureMessages(pfe);
+		}
 		catch (final ApplicationException ae) {
 			outboundDto = new MessagesOnlyOutboundDto().build();
 
-			if (!MessageManager.isError()) {
-				MessageManager.addSystem();
+			addFailureMessages(ae);
+		}
+
+		MessageManager.setCompletionText(StandardCompletionStatus.determineFromMessageManagerSeverity().name());
+		final Messages messages = MessageManager.makeFinal();
+		outboundDto.putMessages(messages);
+
+		return outboundDto;
+	}
+
+	/**
+	 * Execute the BusinessProcessors, in order, in one transaction, each with its own messages; see
+	 * {@link TransactionLayer#processBatchUpdateable(List, boolean)}. The outbound DTO carries the Messages of each item, and its own Messages
+	 * summarize the batch: an error if the transaction was rolled back, a warning if some items were rolled back to their savepoints.
+	 * 
+	 * @param processorsParm
+	 *            required, not empty
+	 * @param updatableParm
+	 *            run in updatable transaction?
+	 * @param savepointPerItemParm
+	 *            roll back only a failed item, rather than the whole batch?
+	 * @return never null
+	 */
+	public BatchOutboundDto processBatch(final List<? extends BusinessProcessor<?>> processorsParm, final boolean updatableParm,
+			final boolean savepointPerItemParm) {
+		ValidationUtility.checkObjectNotNull("The processors are null", processorsParm);
+		ValidationUtility.checkGoodConditionMet("There are no processors", !processorsParm.isEmpty());
+
+		final BatchOutboundDto outboundDto = new BatchOutboundDto();
+		List<Messages> itemMessagesList = null;
+
+		try {
+			if (updatableParm) {
+				itemMessagesList = transactionLayer.processBatchUpdateable(processorsParm, savepointPerItemParm);
+			}
+			else {
+				itemMessagesList = transactionLayer.processBatchReadOnly(processorsParm, savepointPerItemParm);
+			}
+		}
+		catch (final RuntimeException e) {
+			// Typically the commit failed
+			MessageManager.initialize();
+			MessageManager.addSystem();
+
+			LoggerUtility.logException(LOG, "Caught exception completing a batch transaction.", e);
+		}
+
+		if (itemMessagesList != null) {
+			MessageManager.initialize();
+
+			int failedCount = 0;
+			for (final Messages itemMessages : itemMessagesList) {
+				outboundDto.addItemMessages(itemMessages);
+
+				if (itemMessages.isError()) {
+					failedCount++;
+				}
+			}
 
-				LoggerUtility.logException(LOG, "Caught ApplicationException, no MessageManager error added.", ae);
+			if (failedCount == 0) {
+				MessageManager.addInfo("%1$d items succeeded.", itemMessagesList.size());
+			}
+			else if (savepointPerItemParm) {
+				MessageManager.addWarn("%1$d of %2$d items succeeded.", itemMessagesList.size() - failedCount, itemMessagesList.size());
+			}
+			else {
+				MessageManager.addError("The batch was rolled back because an item failed.");
 			}
 		}
 
+		outboundDto.build();
+
 		MessageManager.setCompletionText(StandardCompletionStatus.determineFromMessageManagerSeverity().name());
 		final Messages messages = MessageManager.makeFinal();
 		outboundDto.putMessages(messages);
 
 		return outboundDto;
 	}
+
+	/**
+	 * Add the messages describing the failure of a BusinessProcessor, unless it already added an error. A failure that is not an
+	 * ApplicationException, such as a failed flush, is always logged.
+	 * 
+	 * @param exceptionParm
+	 *            required
+	 */
+	static void addFailureMessages(final RuntimeException exceptionParm) {
+		if (exceptionParm instanceof PreconditionFailedException) {
+			if (!MessageManager.isError()) {
+				MessageManager.addError("The request was based on out-of-date information.");
+			}
+
+			return;
+		}
+
+		if (!(exceptionParm instanceof ApplicationException)) {
+			LoggerUtility.logException(LOG, "Caught exception processing a batch item.", exceptionParm);
+
+			if (!MessageManager.isError()) {
+				MessageManager.addSystem();
+			}
+
+			return;
+		}
+
+		if (!MessageManager.isError()) {
+			MessageManager.addSystem();
+
+			LoggerUtility.logException(LOG, "Caught ApplicationException, no MessageManager error added.", exceptionParm);
+		}
+	}
 }
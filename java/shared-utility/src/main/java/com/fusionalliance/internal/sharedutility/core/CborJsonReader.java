@@ -0,0 +1,303 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * This class implements a JsonReader that decodes CBOR through a Jackson CBOR parser instead of reading JSON text, so any Gson TypeAdapter can read
+ * it. Malformed CBOR is reported as a {@link MalformedJsonException}, and the {@link JsonReadLimits} depth and field limits are enforced as they are
+ * by {@link LimitedJsonReader}.
+ * <p>
+ * Maps with non-String keys cannot be read, as Gson reads their keys through JsonReader internals.
+ */
+final class CborJsonReader extends JsonReader {
+	private static final Reader UNREADABLE_READER = new Reader() {
+		@Override
+		public int read(final char[] bufferParm, final int offsetParm, final int lengthParm) {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() {
+			throw new AssertionError();
+		}
+	};
+
+	private final JsonParser parser;
+	private final JsonReadLimits limits;
+	/** Token under the parser that has not been consumed yet, or null */
+	private JsonToken peeked;
+	private int depth;
+	private int fieldCount;
+
+	CborJsonReader(final JsonParser parserParm, final JsonReadLimits limitsParm) {
+		super(UNREADABLE_READER);
+
+		parser = parserParm;
+		limits = limitsParm;
+	}
+
+	@Override
+	public JsonToken peek() throws IOException {
+		if (peeked == null) {
+			try {
+				peeked = translate(parser.nextToken());
+			}
+			catch (final JsonProcessingException e) {
+				throw new MalformedJsonException(e.getOriginalMessage());
+			}
+		}
+
+		return peeked;
+	}
+
+	@Override
+	public void beginArray() throws IOException {
+		consume(JsonToken.BEGIN_ARRAY);
+		limits.checkDepth(++depth);
+	}
+
+	@Override
+	public void endArray() throws IOException {
+		consume(JsonToken.END_ARRAY);
+		depth--;
+	}
+
+	@Override
+	public void beginObject() throws IOException {
+		consume(JsonToken.BEGIN_OBJECT);
+		limits.checkDepth(++depth);
+	}
+
+	@Override
+	public void endObject() throws IOException {
+		consume(JsonToken.END_OBJECT);
+		depth--;
+	}
+
+	@Override
+	public boolean hasNext() throws IOException {
+		final JsonToken token = peek();
+
+		return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+	}
+
+	@Override
+	public String nextName() throws IOException {
+		consume(JsonToken.NAME);
+		limits.checkFieldCount(++fieldCount);
+
+		return parser.getCurrentName();
+	}
+
+	@Override
+	public String nextString() throws IOException {
+		final JsonToken token = peek();
+		if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+			throw unexpected(JsonToken.STRING);
+		}
+
+		final String text = retrieveText();
+		peeked = null;
+
+		return text;
+	}
+
+	@Override
+	public boolean nextBoolean() throws IOException {
+		consume(JsonToken.BOOLEAN);
+
+		return parser.getCurrentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
+	}
+
+	@Override
+	public void nextNull() throws IOException {
+		consume(JsonToken.NULL);
+	}
+
+	@Override
+	public double nextDouble() throws IOException {
+		final JsonToken token = peek();
+
+		final double value;
+		if (token == JsonToken.NUMBER) {
+			value = parser.getDoubleValue();
+		}
+		else if (token == JsonToken.STRING) {
+			value = Double.parseDouble(retrieveText());
+		}
+		else {
+			throw unexpected(JsonToken.NUMBER);
+		}
+
+		if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+			throw new MalformedJsonException("JSON forbids NaN and infinities: " + value);
+		}
+
+		peeked = null;
+
+		return value;
+	}
+
+	@Override
+	public long nextLong() throws IOException {
+		final long value = peekLong();
+		peeked = null;
+
+		return value;
+	}
+
+	@Override
+	public int nextInt() throws IOException {
+		final long value = peekLong();
+		if ((int) value != value) {
+			throw new NumberFormatException("Expected an int but was " + value);
+		}
+
+		peeked = null;
+
+		return (int) value;
+	}
+
+	@Override
+	public void skipValue() throws IOException {
+		int skipDepth = 0;
+
+		do {
+			switch (peek()) {
+			case BEGIN_ARRAY:
+				beginArray();
+				skipDepth++;
+				break;
+			case BEGIN_OBJECT:
+				beginObject();
+				skipDepth++;
+				break;
+			case END_ARRAY:
+				endArray();
+				skipDepth--;
+				break;
+			case END_OBJECT:
+				endObject();
+				skipDepth--;
+				break;
+			case NAME:
+				nextName();
+				break;
+			default:
+				peeked = null;
+				break;
+			}
+		}
+		while (skipDepth > 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		peeked = JsonToken.END_DOCUMENT;
+		parser.close();
+	}
+
+	@Override
+	public String getPath() {
+		return parser.getParsingContext().pathAsPointer().toString();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " at " + getPath();
+	}
+
+	/**
+	 * Return the current number as a long, without consuming it; JsonReader accepts integral doubles and numeric strings too.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	private long peekLong() throws IOException {
+		final JsonToken token = peek();
+
+		if (token == JsonToken.NUMBER && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER
+				&& parser.getCurrentToken() == com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) {
+			return parser.getLongValue();
+		}
+
+		final String text;
+		if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+			text = retrieveText();
+		}
+		else {
+			throw unexpected(JsonToken.NUMBER);
+		}
+
+		try {
+			return Long.parseLong(text);
+		}
+		catch (final NumberFormatException e) {
+			final double value = Double.parseDouble(text);
+			final long longValue = (long) value;
+			if (longValue != value) {
+				throw new NumberFormatException("Expected a long but was " + text);
+			}
+
+			return longValue;
+		}
+	}
+
+	private String retrieveText() throws IOException {
+		try {
+			return parser.getText();
+		}
+		catch (final JsonProcessingException e) {
+			throw new MalformedJsonException(e.getOriginalMessage());
+		}
+	}
+
+	private void consume(final JsonToken expectedParm) throws IOException {
+		if (peek() != expectedParm) {
+			throw unexpected(expectedParm);
+		}
+
+		peeked = null;
+	}
+
+	private IllegalStateException unexpected(final JsonToken expectedParm) {
+		return new IllegalStateException("Expected " + expectedParm + " but was " + peeked + " at " + getPath());
+	}
+
+	private static JsonToken translate(final com.fasterxml.jackson.core.JsonToken tokenParm) {
+		if (tokenParm == null) {
+			return JsonToken.END_DOCUMENT;
+		}
+
+		switch (tokenParm) {
+		case START_OBJECT:
+			return JsonToken.BEGIN_OBJECT;
+		case END_OBJECT:
+			return JsonToken.END_OBJECT;
+		case START_ARRAY:
+			return JsonToken.BEGIN_ARRAY;
+		case END_ARRAY:
+			return JsonToken.END_ARRAY;
+		case FIELD_NAME:
+			return JsonToken.NAME;
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return JsonToken.NUMBER;
+		case VALUE_TRUE:
+		case VALUE_FALSE:
+			return JsonToken.BOOLEAN;
+		case VALUE_NULL:
+			return JsonToken.NULL;
+		default:
+			// Strings, and byte strings, which are read as text
+			return JsonToken.STRING;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * This class implements a JsonWriter that encodes to CBOR through a Jackson CBOR generator instead of writing JSON text. Any Gson TypeAdapter can
+ * write to it, so CBOR carries exactly the structure the JSON does. Objects and arrays are written with indefinite lengths, which keeps the output
+ * streaming.
+ * <p>
+ * Raw JSON values ({@link #jsonValue(String)}) are not supported. Indentation and HTML safety do not apply.
+ */
+final class CborJsonWriter extends JsonWriter {
+	private static final Writer UNWRITABLE_WRITER = new Writer() {
+		@Override
+		public void write(final char[] bufferParm, final int offsetParm, final int lengthParm) {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void flush() {
+			throw new AssertionError();
+		}
+
+		@Override
+		public void close() {
+			throw new AssertionError();
+		}
+	};
+
+	private final JsonGenerator generator;
+	/** Name waiting for its value; it is dropped with a null value when nulls are not serialized */
+	private String pendingName;
+
+	CborJsonWriter(final JsonGenerator generatorParm) {
+		super(UNWRITABLE_WRITER);
+
+		generator = generatorParm;
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		writePendingName();
+		generator.writeStartArray();
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() throws IOException {
+		generator.writeEndArray();
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		writePendingName();
+		generator.writeStartObject();
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() throws IOException {
+		generator.writeEndObject();
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter name(final String nameParm) throws IOException {
+		if (nameParm == null) {
+			throw new NullPointerException("name == null");
+		}
+
+		if (pendingName != null) {
+			throw new IllegalStateException("Name " + pendingName + " has no value.");
+		}
+
+		pendingName = nameParm;
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(final String valueParm) throws IOException {
+		if (valueParm == null) {
+			return nullValue();
+		}
+
+		writePendingName();
+		generator.writeString(valueParm);
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter jsonValue(final String valueParm) throws IOException {
+		throw new UnsupportedOperationException("Raw JSON cannot be written as CBOR.");
+	}
+
+	@Override
+	public JsonWriter nullValue() throws IOException {
+		if (pendingName != null && !getSerializeNulls()) {
+			pendingName = null;
+
+			return this;
+		}
+
+		writePendingName();
+		generator.writeNull();
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(final boolean valueParm) throws IOException {
+		writePendingName();
+		generator.writeBoolean(valueParm);
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(final Boolean valueParm) throws IOException {
+		if (valueParm == null) {
+			return nullValue();
+		}
+
+		return value(valueParm.booleanValue());
+	}
+
+	@Override
+	public JsonWriter value(final double valueParm) throws IOException {
+		if (!isLenient() && (Double.isNaN(valueParm) || Double.isInfinite(valueParm))) {
+			throw new IllegalArgumentException("Numeric values must be finite, but was " + valueParm);
+		}
+
+		writePendingName();
+		generator.writeNumber(valueParm);
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(final long valueParm) throws IOException {
+		writePendingName();
+		generator.writeNumber(valueParm);
+
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(final Number valueParm) throws IOException {
+		if (valueParm == null) {
+			return nullValue();
+		}
+
+		if (valueParm instanceof Integer || valueParm instanceof Long || valueParm instanceof Short || valueParm instanceof Byte
+				|| valueParm instanceof AtomicInteger || valueParm instanceof AtomicLong) {
+			return value(valueParm.longValue());
+		}
+
+		if (valueParm instanceof Double || valueParm instanceof Float) {
+			return value(valueParm.doubleValue());
+		}
+
+		writePendingName();
+		if (valueParm instanceof BigInteger) {
+			generator.writeNumber((BigInteger) valueParm);
+		}
+		else if (valueParm instanceof BigDecimal) {
+			generator.writeNumber((BigDecimal) valueParm);
+		}
+		else {
+			// E.g., Gson's LazilyParsedNumber; keep integers integral
+			final String text = valueParm.toString();
+			try {
+				generator.writeNumber(Long.parseLong(text));
+			}
+			catch (final NumberFormatException e) {
+				generator.writeNumber(Double.parseDouble(text));
+			}
+		}
+
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		generator.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+
+	private void writePendingName() throws IOException {
+		if (pendingName != null) {
+			generator.writeFieldName(pendingName);
+			pendingName = null;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads comma-separated values (RFC 4180) one record at a time, so input of any size can be processed in constant memory.
+ * <p>
+ * Records end with CRLF, LF, or CR. A field enclosed in double quotes may contain commas, line breaks, and doubled double quotes, which stand for one
+ * double quote. A double quote elsewhere in a field is taken literally. A blank line is returned as a record with one empty field.
+ * <p>
+ * Instances are not thread-safe. Closing an instance closes the Reader.
+ */
+public final class CsvReader implements Closeable {
+	private static final int END = -1;
+
+	private final Reader reader;
+	/** A character read ahead of the current record, or {@link #END} if none */
+	private int pendingCharacter = END;
+	private long recordCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param readerParm
+	 *            required; it is buffered by this class
+	 */
+	public CsvReader(final Reader readerParm) {
+		ValidationUtility.checkObjectNotNull("The reader is null.", readerParm);
+
+		reader = new BufferedReader(readerParm);
+	}
+
+	/**
+	 * Return the fields of the next record, or null at the end of the input.
+	 *
+	 * @return
+	 * @throws ValidationException
+	 *             if a quoted field is not terminated; the message is suitable for the client
+	 * @throws IOException
+	 *             if the Reader cannot be read
+	 */
+	public List<String> readRecord() throws IOException {
+		int character = read();
+		if (character == END) {
+			return null;
+		}
+
+		recordCount++;
+
+		final List<String> fields = new ArrayList<>();
+		final StringBuilder field = new StringBuilder();
+		boolean fieldStart = true;
+		boolean quoted = false;
+
+		while (true) {
+			if (quoted) {
+				if (character == END) {
+					throw new ValidationException("Record " + recordCount + " has a quoted field that is not terminated.");
+				}
+
+				if (character == '"') {
+					character = read();
+					if (character != '"') {
+						quoted = false;
+
+						continue;
+					}
+				}
+
+				field.append((char) character);
+				character = read();
+
+				continue;
+			}
+
+			switch (character) {
+			case '"':
+				if (fieldStart) {
+					quoted = true;
+				}
+				else {
+					field.append('"');
+				}
+				break;
+			case ',':
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStart = true;
+				character = read();
+
+				continue;
+			case '\r':
+				final int nextCharacter = read();
+				if (nextCharacter != '\n') {
+					pendingCharacter = nextCharacter;
+				}
+				// Fall through
+			case '\n':
+			case END:
+				fields.add(field.toString());
+
+				return fields;
+			default:
+				field.append((char) character);
+			}
+
+			fieldStart = false;
+			character = read();
+		}
+	}
+
+	/**
+	 * Return the number of records read so far, which is the number of the last record returned, starting with 1.
+	 *
+	 * @return
+	 */
+	public long getRecordCount() {
+		return recordCount;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private int read() throws IOException {
+		if (pendingCharacter != END) {
+			final int character = pendingCharacter;
+			pendingCharacter = END;
+
+			return character;
+		}
+
+		return reader.read();
+	}
+}
@@ -0,0 +1,104 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * This class writes comma-separated values (RFC 4180) one record at a time, in the form {@link CsvReader} reads. Each record ends with CRLF.
+ * <p>
+ * A field is enclosed in double quotes only if it contains a comma, a double quote, or a line break, or starts or ends with a space; double quotes
+ * within it are doubled. A null field is written as an empty field.
+ * <p>
+ * Instances are not thread-safe. Closing an instance closes the Writer.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+	private final Writer writer;
+
+	/**
+	 * Constructor
+	 *
+	 * @param writerParm
+	 *            required; it should be buffered
+	 */
+	public CsvWriter(final Writer writerParm) {
+		ValidationUtility.checkObjectNotNull("The writer is null.", writerParm);
+
+		writer = writerParm;
+	}
+
+	/**
+	 * Write a record.
+	 *
+	 * @param fieldsParm
+	 *            at least one field; null fields are written as empty
+	 * @throws IOException
+	 *             if the Writer cannot be written
+	 */
+	public void writeRecord(final String... fieldsParm) throws IOException {
+		ValidationUtility.checkBadConditionNotMet("The record has no fields.", fieldsParm.length == 0);
+
+		for (int i = 0; i < fieldsParm.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			if (fieldsParm[i] != null) {
+				writeField(fieldsParm[i]);
+			}
+		}
+
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void writeField(final String fieldParm) throws IOException {
+		if (!isQuoteNeeded(fieldParm)) {
+			writer.write(fieldParm);
+
+			return;
+		}
+
+		writer.write('"');
+		for (int i = 0; i < fieldParm.length(); i++) {
+			final char character = fieldParm.charAt(i);
+			if (character == '"') {
+				writer.write('"');
+			}
+			writer.write(character);
+		}
+		writer.write('"');
+	}
+
+	private static boolean isQuoteNeeded(final String fieldParm) {
+		if (fieldParm.isEmpty()) {
+			return false;
+		}
+		if (fieldParm.charAt(0) == ' ' || fieldParm.charAt(fieldParm.length() - 1) == ' ') {
+			return true;
+		}
+
+		for (int i = 0; i < fieldParm.length(); i++) {
+			switch (fieldParm.charAt(i)) {
+			case ',':
+			case '"':
+			case '\r':
+			case '\n':
+				return true;
+			default:
+				break;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,151 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+/**
+ * This utility class generates HTTP entity tags (ETags) and matches them against If-None-Match and If-Match header values (RFC 7232).
+ * <p>
+ * Matching uses the weak comparison, in which W/"1" matches "1". The tags generated here are weak, as the same state can be written in several
+ * wire formats; If-Match is compared weakly too, since these tags identify the state exactly. Representations that caches must keep apart, such as
+ * different media types, are given distinct tags with a suffix.
+ */
+public final class EntityTagUtility {
+	private static final String WEAK_PREFIX = "W/";
+
+	/**
+	 * Return a weak entity tag; e.g., W/"42".
+	 *
+	 * @param opaqueTagParm
+	 *            required, must not contain double quotes
+	 * @return
+	 */
+	public static String generateWeak(final String opaqueTagParm) {
+		ValidationUtility.checkStringNotBlank("The opaque tag is blank.", opaqueTagParm);
+		ValidationUtility.checkBadConditionNotMet("The opaque tag contains a double quote.", opaqueTagParm.indexOf('"') >= 0);
+
+		return WEAK_PREFIX + '"' + opaqueTagParm + '"';
+	}
+
+	/**
+	 * Return true if the header value is *, or lists an entity tag that matches the one passed using the weak comparison.
+	 *
+	 * @param headerValueParm
+	 *            If-None-Match or If-Match header value; null or blank never matches
+	 * @param entityTagParm
+	 *            required
+	 * @return
+	 */
+	public static boolean matches(final String headerValueParm, final String entityTagParm) {
+		ValidationUtility.checkStringNotBlank("The entity tag is blank.", entityTagParm);
+
+		if (headerValueParm == null) {
+			return false;
+		}
+
+		final String opaqueTag = stripWeakPrefix(entityTagParm.trim());
+		for (final String listedTag : headerValueParm.split(",")) {
+			final String trimmedTag = listedTag.trim();
+			if (trimmedTag.equals("*") || stripWeakPrefix(trimmedTag).equals(opaqueTag)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Return the entity tag passed with the suffix appended to its opaque tag; e.g., W/"42" and "-cbor" give W/"42-cbor". A suffix distinguishes
+	 * the tags of representations of the same state that must not be substituted for one another, such as those of different media types.
+	 *
+	 * @param entityTagParm
+	 *            required, quoted
+	 * @param suffixParm
+	 *            required, must not contain double quotes
+	 * @return
+	 */
+	public static String appendSuffix(final String entityTagParm, final String suffixParm) {
+		ValidationUtility.checkStringNotBlank("The entity tag is blank.", entityTagParm);
+		ValidationUtility.checkStringNotBlank("The suffix is blank.", suffixParm);
+		ValidationUtility.checkBadConditionNotMet("The suffix contains a double quote.", suffixParm.indexOf('"') >= 0);
+
+		final String trimmedTag = entityTagParm.trim();
+		ValidationUtility.checkGoodConditionMet("The entity tag is not quoted.", trimmedTag.endsWith("\""));
+
+		return trimmedTag.substring(0, trimmedTag.length() - 1) + suffixParm + '"';
+	}
+
+	/**
+	 * Return an If-None-Match or If-Match header value listing only the tags that have the suffix, without it, and any *; null if there are none.
+	 * Matching the result against a tag without the suffix matches only the tags {@link #appendSuffix(String, String)} gave that suffix.
+	 *
+	 * @param headerValueParm
+	 *            optional
+	 * @param suffixParm
+	 *            required
+	 * @return
+	 */
+	public static String selectSuffixed(final String headerValueParm, final String suffixParm) {
+		return rewriteSuffixed(headerValueParm, suffixParm, false);
+	}
+
+	/**
+	 * Return an If-None-Match or If-Match header value with the suffix removed from each listed tag that has it; other tags are kept. This suits
+	 * If-Match, which compares states whatever the representation the tag was taken from.
+	 *
+	 * @param headerValueParm
+	 *            optional
+	 * @param suffixParm
+	 *            required
+	 * @return null if the header value is null
+	 */
+	public static String removeSuffix(final String headerValueParm, final String suffixParm) {
+		return rewriteSuffixed(headerValueParm, suffixParm, true);
+	}
+
+	private static String rewriteSuffixed(final String headerValueParm, final String suffixParm, final boolean keepUnsuffixedParm) {
+		ValidationUtility.checkStringNotBlank("The suffix is blank.", suffixParm);
+
+		if (headerValueParm == null) {
+			return null;
+		}
+
+		final String quotedSuffix = suffixParm + '"';
+		final StringBuilder rewrittenValue = new StringBuilder();
+		for (final String listedTag : headerValueParm.split(",")) {
+			final String trimmedTag = listedTag.trim();
+
+			String rewrittenTag = null;
+			if (trimmedTag.equals("*")) {
+				rewrittenTag = trimmedTag;
+			}
+			else if (trimmedTag.endsWith(quotedSuffix)) {
+				rewrittenTag = trimmedTag.substring(0, trimmedTag.length() - quotedSuffix.length()) + '"';
+			}
+			else if (keepUnsuffixedParm && !trimmedTag.isEmpty()) {
+				rewrittenTag = trimmedTag;
+			}
+
+			if (rewrittenTag != null) {
+				if (rewrittenValue.length() > 0) {
+					rewrittenValue.append(", ");
+				}
+				rewrittenValue.append(rewrittenTag);
+			}
+		}
+
+		return rewrittenValue.length() == 0 ? null : rewrittenValue.toString();
+	}
+
+	private static String stripWeakPrefix(final String entityTagParm) {
+		if (entityTagParm.startsWith(WEAK_PREFIX)) {
+			return entityTagParm.substring(WEAK_PREFIX.length());
+		}
+
+		return entityTagParm;
+	}
+
+	/**
+	 * Hidden constructor
+	 */
+	private EntityTagUtility() {
+		// Do nothing
+	}
+}
@@ -0,0 +1,21 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation requests a generated, reflection-free Gson TypeAdapter for a class and, because it is inherited, for all of its subclasses. The
+ * adapters are generated at compile time by the gson-adapter-processor module and are registered in {@link GsonHelper} automatically.
+ * <p>
+ * Serialized fields, i.e., those that are neither static nor transient, must not be private; the generated code lives in the same package and
+ * accesses them directly. Concrete classes must have a non-private no-argument constructor.
+ */
+@Inherited
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateTypeAdapter {
+	// Marker only
+}
@@ -5,34 +5,80 @@
  */
 package com.fusionalliance.internal.sharedutility.core;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.ServiceLoader;
 
 import org.apache.commons.collections4.map.HashedMap;
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
 /**
  * This utility class provides access to a {@link Gson} instance that can be used throughout the service layer.
+ * <p>
+ * The TypeAdapterFactory implementations listed in META-INF/services/com.google.gson.TypeAdapterFactory are registered with both instances. The
+ * gson-adapter-processor module generates these for classes annotated with {@link GenerateTypeAdapter}, so those classes are serialized without
+ * reflection.
  */
 public final class GsonHelper {
 
 	/**
-	 * This instance is immutable and thread-safe.
+	 * This instance is immutable and thread-safe. It is the wire profile, used for tokens and API responses.
 	 * <ul>
 	 * <li>Serialize nulls is set to make output more explicit</li>
-	 * <li>Pretty printing is set to enhance readability for debugging</li>
+	 * <li>Output is compact, without indentation or newlines</li>
 	 * </ul>
 	 */
 	public static final Gson GSON;
+	/**
+	 * This instance is immutable and thread-safe. It is the debug profile; it is identical to {@link #GSON} except that pretty printing is set to
+	 * enhance readability. Use it only when a request explicitly asks for pretty output.
+	 */
+	public static final Gson GSON_PRETTY;
+
+	/** Neither generators nor parsers close the streams passed to them */
+	private static final CBORFactory CBOR_FACTORY = new CBORFactory();
 
 	static {
 		final GsonBuilder gsonBuilder = new GsonBuilder() //
 				.serializeNulls() //
-				.disableHtmlEscaping() //
-				.setPrettyPrinting();
+				.disableHtmlEscaping();
+		for (final TypeAdapterFactory typeAdapterFactory : ServiceLoader.load(TypeAdapterFactory.class, GsonHelper.class.getClassLoader())) {
+			gsonBuilder.registerTypeAdapterFactory(typeAdapterFactory);
+		}
 		GSON = gsonBuilder.create();
+		GSON_PRETTY = gsonBuilder.setPrettyPrinting().create();
+
+		CBOR_FACTORY.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		CBOR_FACTORY.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+	}
+
+	/**
+	 * Return the wire or debug Gson instance.
+	 * 
+	 * @param prettyParm
+	 *            true for {@link #GSON_PRETTY}, false for {@link #GSON}
+	 * @return
+	 */
+	public static Gson retrieveGson(final boolean prettyParm) {
+		return prettyParm ? GSON_PRETTY : GSON;
 	}
 
 	/**
@@ -68,7 +114,7 @@ public final class GsonHelper {
 	}
 
 	/**
-	 * Return a JSON String build from a Map<String, Object>. This is a convenience method for creating simple JSON.
+	 * Return a compact JSON String build from a Map<String, Object>. This is a convenience method for creating simple JSON.
 	 * 
 	 * @param mapParm
 	 *            required, not empty
@@ -83,6 +129,193 @@ public final class GsonHelper {
 		return json;
 	}
 
+	/**
+	 * Write the object as JSON to the OutputStream, encoded as UTF-8. The JSON is streamed through a reusable buffer rather than built as a String,
+	 * so memory use does not grow with the size of the output. The OutputStream is flushed but not closed.
+	 * 
+	 * @param objectParm
+	 *            required
+	 * @param outputStreamParm
+	 *            required
+	 * @param prettyParm
+	 *            true for {@link #GSON_PRETTY}, false for {@link #GSON}
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	public static void writeJson(final Object objectParm, final OutputStream outputStreamParm, final boolean prettyParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("Object is null", objectParm);
+
+		final Gson gson = retrieveGson(prettyParm);
+		try (final Utf8StreamWriter writer = Utf8StreamWriter.open(outputStreamParm)) {
+			final JsonWriter jsonWriter = gson.newJsonWriter(writer);
+			gson.toJson(objectParm, objectParm.getClass(), jsonWriter);
+			jsonWriter.flush();
+		}
+		catch (final JsonIOException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Write the object to the OutputStream in the wire format passed. The output is streamed; the OutputStream is flushed but not closed.
+	 * 
+	 * @param objectParm
+	 *            required
+	 * @param outputStreamParm
+	 *            required
+	 * @param wireFormatParm
+	 *            required
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	public static void write(final Object objectParm, final OutputStream outputStreamParm, final WireFormat wireFormatParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("Wire format is null", wireFormatParm);
+
+		switch (wireFormatParm) {
+		case CBOR:
+			writeCbor(objectParm, outputStreamParm);
+			break;
+		case JSON_PRETTY:
+			writeJson(objectParm, outputStreamParm, true);
+			break;
+		default:
+			writeJson(objectParm, outputStreamParm, false);
+			break;
+		}
+	}
+
+	/**
+	 * Write the object as CBOR to the OutputStream, using the same TypeAdapters as {@link #GSON}; the structure is the same as the JSON. The
+	 * OutputStream is flushed but not closed.
+	 * 
+	 * @param objectParm
+	 *            required
+	 * @param outputStreamParm
+	 *            required
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	public static void writeCbor(final Object objectParm, final OutputStream outputStreamParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("Object is null", objectParm);
+		ValidationUtility.checkObjectNotNull("OutputStream is null", outputStreamParm);
+
+		try (final JsonGenerator generator = CBOR_FACTORY.createGenerator(outputStreamParm)) {
+			final CborJsonWriter cborJsonWriter = new CborJsonWriter(generator);
+			GSON.toJson(objectParm, objectParm.getClass(), cborJsonWriter);
+			cborJsonWriter.flush();
+		}
+		catch (final JsonIOException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Read an instance of the class from UTF-8 JSON in the InputStream, incrementally, without first reading the input into a String. The input must
+	 * contain exactly one JSON value, and reading stops with a {@link ValidationException} as soon as any of the limits is exceeded. The
+	 * InputStream is not closed.
+	 * 
+	 * @param inputStreamParm
+	 *            required
+	 * @param classParm
+	 *            required
+	 * @param limitsParm
+	 *            required
+	 * @return never null
+	 * @throws ValidationException
+	 *             if the JSON is empty, unparsable, or exceeds a limit; the message is suitable for the client
+	 * @throws IOException
+	 *             if the InputStream cannot be read
+	 */
+	public static <T> T readJson(final InputStream inputStreamParm, final Class<T> classParm, final JsonReadLimits limitsParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("InputStream is null", inputStreamParm);
+		ValidationUtility.checkObjectNotNull("Class is null", classParm);
+		ValidationUtility.checkObjectNotNull("Limits are null", limitsParm);
+
+		final JsonReader jsonReader = new LimitedJsonReader(
+				new InputStreamReader(new LimitedInputStream(inputStreamParm, limitsParm.getMaxBytes()), StandardCharsets.UTF_8), limitsParm);
+
+		return readValue(jsonReader, classParm);
+	}
+
+	/**
+	 * Read an instance of the class from CBOR in the InputStream. The rules and limits of {@link #readJson(InputStream, Class, JsonReadLimits)}
+	 * apply; the limits on depth and fields count CBOR maps and arrays.
+	 * 
+	 * @param inputStreamParm
+	 *            required
+	 * @param classParm
+	 *            required
+	 * @param limitsParm
+	 *            required
+	 * @return never null
+	 * @throws ValidationException
+	 *             if the CBOR is empty, undecodable, or exceeds a limit; the message is suitable for the client
+	 * @throws IOException
+	 *             if the InputStream cannot be read
+	 */
+	public static <T> T readCbor(final InputStream inputStreamParm, final Class<T> classParm, final JsonReadLimits limitsParm) throws IOException {
+		ValidationUtility.checkObjectNotNull("InputStream is null", inputStreamParm);
+		ValidationUtility.checkObjectNotNull("Class is null", classParm);
+		ValidationUtility.checkObjectNotNull("Limits are null", limitsParm);
+
+		final JsonReader jsonReader = new CborJsonReader(CBOR_FACTORY.createParser(new LimitedInputStream(inputStreamParm, limitsParm.getMaxBytes())),
+				limitsParm);
+
+		return readValue(jsonReader, classParm);
+	}
+
+	/**
+	 * Read exactly one value from the JsonReader, translating parse failures to ValidationException.
+	 * 
+	 * @param jsonReaderParm
+	 * @param classParm
+	 * @return never null
+	 * @throws IOException
+	 *             if the underlying stream cannot be read
+	 */
+	private static <T> T readValue(final JsonReader jsonReaderParm, final Class<T> classParm) throws IOException {
+		final T value;
+		try {
+			value = GSON.fromJson(jsonReaderParm, classParm);
+
+			if (value == null) {
+				throw new ValidationException("The input is empty.");
+			}
+
+			if (jsonReaderParm.peek() != JsonToken.END_DOCUMENT) {
+				throw new ValidationException("The input has content after the end of the document.");
+			}
+		}
+		catch (final MalformedJsonException | EOFException e) {
+			throw new ValidationException("The input could not be parsed: " + e.getMessage(), e);
+		}
+		catch (final JsonSyntaxException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException && !(cause instanceof MalformedJsonException || cause instanceof EOFException)) {
+				throw (IOException) cause;
+			}
+
+			throw new ValidationException("The input could not be parsed: " + e.getMessage(), e);
+		}
+		catch (final JsonIOException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+
+			throw e;
+		}
+
+		return value;
+	}
+
 	/**
 	 * Hidden constructor
 	 */
@@ -0,0 +1,70 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+/**
+ * This immutable class contains the limits applied when JSON is read from an untrusted source; see
+ * {@link GsonHelper#readJson(java.io.InputStream, Class, JsonReadLimits)}.
+ */
+public final class JsonReadLimits {
+	/** Limits suitable for a request body containing a single inbound DTO */
+	public static final JsonReadLimits DEFAULT = new JsonReadLimits(64 * 1024, 16, 1_000);
+
+	private final long maxBytes;
+	private final int maxDepth;
+	private final int maxFields;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxBytesParm
+	 *            maximum number of bytes read, must be positive
+	 * @param maxDepthParm
+	 *            maximum nesting of objects and arrays, must be positive
+	 * @param maxFieldsParm
+	 *            maximum number of object field names in the whole document, must be positive
+	 */
+	public JsonReadLimits(final long maxBytesParm, final int maxDepthParm, final int maxFieldsParm) {
+		ValidationUtility.checkGoodConditionMet("The maximum bytes is not positive.", maxBytesParm > 0);
+		ValidationUtility.checkGoodConditionMet("The maximum depth is not positive.", maxDepthParm > 0);
+		ValidationUtility.checkGoodConditionMet("The maximum fields is not positive.", maxFieldsParm > 0);
+
+		maxBytes = maxBytesParm;
+		maxDepth = maxDepthParm;
+		maxFields = maxFieldsParm;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	public int getMaxFields() {
+		return maxFields;
+	}
+
+	/**
+	 * Throw if the nesting depth exceeds the limit.
+	 * 
+	 * @param depthParm
+	 * @throws ValidationException
+	 */
+	void checkDepth(final int depthParm) {
+		if (depthParm > maxDepth) {
+			throw new ValidationException("The input exceeds the limit of " + maxDepth + " levels of nesting.");
+		}
+	}
+
+	/**
+	 * Throw if the number of field names read exceeds the limit.
+	 * 
+	 * @param fieldCountParm
+	 * @throws ValidationException
+	 */
+	void checkFieldCount(final int fieldCountParm) {
+		if (fieldCountParm > maxFields) {
+			throw new ValidationException("The input exceeds the limit of " + maxFields + " fields.");
+		}
+	}
+}
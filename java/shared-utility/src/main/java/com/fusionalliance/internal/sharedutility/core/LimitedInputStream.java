@@ -0,0 +1,96 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class implements an InputStream that throws a {@link ValidationException} as soon as more than a maximum number of bytes has been read from
+ * the underlying stream. At most one byte beyond the maximum is read, so an oversized input is rejected without being consumed.
+ * <p>
+ * Closing this stream closes the underlying stream. Mark and reset are not supported.
+ */
+public class LimitedInputStream extends FilterInputStream {
+	private final long maxBytes;
+	private long byteCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStreamParm
+	 *            required
+	 * @param maxBytesParm
+	 *            must be positive
+	 */
+	public LimitedInputStream(final InputStream inputStreamParm, final long maxBytesParm) {
+		super(inputStreamParm);
+
+		ValidationUtility.checkObjectNotNull("The InputStream is null.", inputStreamParm);
+		ValidationUtility.checkGoodConditionMet("The maximum bytes is not positive.", maxBytesParm > 0);
+
+		maxBytes = maxBytesParm;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int value = super.read();
+
+		if (value >= 0) {
+			addBytes(1);
+		}
+
+		return value;
+	}
+
+	@Override
+	public int read(final byte[] bufferParm, final int offsetParm, final int lengthParm) throws IOException {
+		// Never ask for more than one byte past the maximum
+		final int length = (int) Math.min(lengthParm, maxBytes - byteCount + 1);
+
+		final int count = super.read(bufferParm, offsetParm, length);
+
+		if (count > 0) {
+			addBytes(count);
+		}
+
+		return count;
+	}
+
+	@Override
+	public long skip(final long countParm) throws IOException {
+		final long count = super.skip(Math.min(countParm, maxBytes - byteCount + 1));
+
+		if (count > 0) {
+			addBytes(count);
+		}
+
+		return count;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(final int readLimitParm) {
+		// Do nothing
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark and reset are not supported.");
+	}
+
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	private void addBytes(final long countParm) {
+		byteCount += countParm;
+
+		if (byteCount > maxBytes) {
+			throw new ValidationException("The input exceeds the limit of " + maxBytes + " bytes.");
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * This class implements a JsonReader that throws a {@link ValidationException} when the nesting depth or the number of field names exceeds the
+ * {@link JsonReadLimits}. Values skipped because no field matches them are counted too, since they are walked token by token rather than with
+ * {@link JsonReader#skipValue()}.
+ */
+final class LimitedJsonReader extends JsonReader {
+	private final JsonReadLimits limits;
+	private int depth;
+	private int fieldCount;
+
+	LimitedJsonReader(final Reader readerParm, final JsonReadLimits limitsParm) {
+		super(readerParm);
+
+		limits = limitsParm;
+	}
+
+	@Override
+	public void beginArray() throws IOException {
+		enter();
+		super.beginArray();
+	}
+
+	@Override
+	public void endArray() throws IOException {
+		super.endArray();
+		depth--;
+	}
+
+	@Override
+	public void beginObject() throws IOException {
+		enter();
+		super.beginObject();
+	}
+
+	@Override
+	public void endObject() throws IOException {
+		super.endObject();
+		depth--;
+	}
+
+	@Override
+	public String nextName() throws IOException {
+		limits.checkFieldCount(++fieldCount);
+
+		return super.nextName();
+	}
+
+	@Override
+	public void skipValue() throws IOException {
+		int skipDepth = 0;
+
+		do {
+			switch (peek()) {
+			case BEGIN_ARRAY:
+				beginArray();
+				skipDepth++;
+				break;
+			case BEGIN_OBJECT:
+				beginObject();
+				skipDepth++;
+				break;
+			case END_ARRAY:
+				endArray();
+				skipDepth--;
+				break;
+			case END_OBJECT:
+				endObject();
+				skipDepth--;
+				break;
+			case NAME:
+				nextName();
+				break;
+			default:
+				super.skipValue();
+				break;
+			}
+		}
+		while (skipDepth > 0);
+	}
+
+	private void enter() {
+		limits.checkDepth(++depth);
+	}
+}
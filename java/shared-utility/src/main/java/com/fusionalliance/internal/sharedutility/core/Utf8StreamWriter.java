@@ -0,0 +1,179 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * This class implements a Writer that encodes characters as UTF-8 directly into a byte buffer, writing the buffer to an OutputStream whenever it
+ * fills. Output therefore reaches the stream incrementally, and memory use is constant regardless of how much is written.
+ * <p>
+ * The buffer is reused: each thread keeps one, which an instance borrows when opened and returns when closed. Closing an instance flushes it, but
+ * does not close the OutputStream, which belongs to the caller.
+ * <p>
+ * Instances are not thread-safe; use an instance only on the thread that opened it.
+ */
+public final class Utf8StreamWriter extends Writer {
+	static final int BUFFER_SIZE = 8192;
+	/** The most bytes one character can produce: a surrogate pair, or a replaced unpaired surrogate followed by a 3 byte character */
+	private static final int MAX_BYTES_PER_CHAR = 4;
+
+	/** Null while the thread's buffer is borrowed; a nested writer on the same thread allocates its own */
+	private static final ThreadLocal<byte[]> IDLE_BUFFER = new ThreadLocal<>();
+
+	private final OutputStream outputStream;
+	private byte[] buffer;
+	private int position;
+	/** A high surrogate waiting for its low surrogate, or 0 */
+	private char pendingHighSurrogate;
+
+	/**
+	 * Open a writer on the OutputStream, borrowing this thread's buffer.
+	 * 
+	 * @param outputStreamParm
+	 *            required
+	 * @return
+	 */
+	public static Utf8StreamWriter open(final OutputStream outputStreamParm) {
+		ValidationUtility.checkObjectNotNull("The output stream is null.", outputStreamParm);
+
+		byte[] buffer = IDLE_BUFFER.get();
+		if (buffer == null) {
+			buffer = new byte[BUFFER_SIZE];
+		}
+		else {
+			IDLE_BUFFER.set(null);
+		}
+
+		return new Utf8StreamWriter(outputStreamParm, buffer);
+	}
+
+	/**
+	 * Restricted constructor
+	 */
+	private Utf8StreamWriter(final OutputStream outputStreamParm, final byte[] bufferParm) {
+		outputStream = outputStreamParm;
+		buffer = bufferParm;
+	}
+
+	@Override
+	public void write(final int characterParm) throws IOException {
+		ensureOpen();
+
+		encode((char) characterParm);
+	}
+
+	@Override
+	public void write(final char[] charactersParm, final int offsetParm, final int lengthParm) throws IOException {
+		ensureOpen();
+
+		final int end = offsetParm + lengthParm;
+		for (int i = offsetParm; i < end; i++) {
+			encode(charactersParm[i]);
+		}
+	}
+
+	@Override
+	public void write(final String stringParm, final int offsetParm, final int lengthParm) throws IOException {
+		ensureOpen();
+
+		final int end = offsetParm + lengthParm;
+		for (int i = offsetParm; i < end; i++) {
+			encode(stringParm.charAt(i));
+		}
+	}
+
+	/**
+	 * Write the buffered bytes to the OutputStream and flush it.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+
+		drain();
+		outputStream.flush();
+	}
+
+	/**
+	 * Flush, then return the buffer to this thread. An unpaired trailing high surrogate is written as '?'.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (buffer == null) {
+			return;
+		}
+
+		try {
+			if (pendingHighSurrogate != 0) {
+				pendingHighSurrogate = 0;
+				putByte('?');
+			}
+
+			flush();
+		}
+		finally {
+			IDLE_BUFFER.set(buffer);
+			buffer = null;
+		}
+	}
+
+	private void encode(final char characterParm) throws IOException {
+		if (position > buffer.length - MAX_BYTES_PER_CHAR) {
+			drain();
+		}
+
+		if (pendingHighSurrogate != 0) {
+			final char highSurrogate = pendingHighSurrogate;
+			pendingHighSurrogate = 0;
+
+			if (Character.isLowSurrogate(characterParm)) {
+				final int codePoint = Character.toCodePoint(highSurrogate, characterParm);
+				putByte(0xF0 | (codePoint >> 18));
+				putByte(0x80 | ((codePoint >> 12) & 0x3F));
+				putByte(0x80 | ((codePoint >> 6) & 0x3F));
+				putByte(0x80 | (codePoint & 0x3F));
+
+				return;
+			}
+
+			// Unpaired surrogate; replace it, as String.getBytes() does
+			putByte('?');
+		}
+
+		if (characterParm < 0x80) {
+			putByte(characterParm);
+		}
+		else if (characterParm < 0x800) {
+			putByte(0xC0 | (characterParm >> 6));
+			putByte(0x80 | (characterParm & 0x3F));
+		}
+		else if (Character.isHighSurrogate(characterParm)) {
+			pendingHighSurrogate = characterParm;
+		}
+		else if (Character.isLowSurrogate(characterParm)) {
+			putByte('?');
+		}
+		else {
+			putByte(0xE0 | (characterParm >> 12));
+			putByte(0x80 | ((characterParm >> 6) & 0x3F));
+			putByte(0x80 | (characterParm & 0x3F));
+		}
+	}
+
+	private void putByte(final int byteParm) {
+		buffer[position++] = (byte) byteParm;
+	}
+
+	private void drain() throws IOException {
+		if (position > 0) {
+			outputStream.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (buffer == null) {
+			throw new IOException("The writer is closed.");
+		}
+	}
+}
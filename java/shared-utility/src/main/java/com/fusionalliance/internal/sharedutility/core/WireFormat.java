@@ -0,0 +1,29 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+/**
+ * This enum lists the encodings in which DTOs can be written to and read from a stream; see {@link GsonHelper#write(Object, java.io.OutputStream,
+ * WireFormat)}. All of them carry the same structure, produced by the same Gson TypeAdapters.
+ */
+public enum WireFormat {
+	/** Compact JSON, the default */
+	JSON("application/json;charset=UTF-8"),
+	/** Indented JSON; use only when a request explicitly asks for it */
+	JSON_PRETTY("application/json;charset=UTF-8"),
+	/** CBOR (RFC 7049), a binary encoding for service-to-service callers */
+	CBOR("application/cbor");
+
+	private final String contentType;
+
+	WireFormat(final String contentTypeParm) {
+		contentType = contentTypeParm;
+	}
+
+	/**
+	 * Return the value for the Content-Type header.
+	 *
+	 * @return
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+}
@@ -0,0 +1,215 @@
+package com.fusionalliance.internal.sharedutility.jwt;
+
+import static com.fusionalliance.internal.sharedutility.core.ValidationUtility.checkObjectNotNull;
+import static com.fusionalliance.internal.sharedutility.core.ValidationUtility.checkStringNotBlank;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationException;
+
+/**
+ * This class implements a pool of HmacSHA256 {@link Mac} engines that are initialized with a single secret.
+ * <p>
+ * Obtaining a Mac from the JCE provider and initializing it with a key is expensive relative to hashing a short JWT message. Instances of this class
+ * perform that work once per engine and reuse the engines for subsequent hashes. The pool grows on demand to the level of concurrent use, retaining
+ * at most {@link #MAX_IDLE_ENGINES} idle engines.
+ * <p>
+ * Every JWT built by {@link JwtUtility} starts with the same signing input prefix, {@link JwtUtility#JWT_HEADER_ENCODED} followed by ".". Each
+ * instance also keeps a primed engine that has absorbed the key and that prefix; {@link #hashAfterJwtHeader(byte[], int, int)} clones it, so
+ * per-token hashing covers only the payload. If the provider's Mac cannot be cloned, the pooled engines are used instead.
+ * <p>
+ * Instances are thread-safe. Typically, one instance is held per secret ID for as long as the secret is valid; discarding the instance releases its
+ * engines.
+ */
+public final class HmacSha256EnginePool {
+	public static final String ALGORITHM = "HmacSHA256";
+	static final int MAX_IDLE_ENGINES = 64;
+	static final byte[] JWT_HEADER_PREFIX_BYTES = (JwtUtility.JWT_HEADER_ENCODED + ".").getBytes(StandardCharsets.US_ASCII);
+
+	private final SecretKeySpec secretKeySpec;
+	/** Never updated after construction, only cloned; null if cloning is not supported */
+	private final Mac primedEngine;
+	private final Queue<Mac> idleEngines = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger idleEngineCount = new AtomicInteger();
+
+	/**
+	 * Constructor
+	 * <p>
+	 * One engine is created immediately, so that an unusable secret is reported here rather than on first use.
+	 *
+	 * @param secretParm
+	 *            required, not blank, must contain at least 32 characters
+	 * @throws ValidationException
+	 *             if the secret is invalid or the hash engine cannot be created
+	 */
+	public HmacSha256EnginePool(final String secretParm) {
+		secretKeySpec = new SecretKeySpec(JwtUtility.secretToBytes(secretParm), ALGORITHM);
+
+		releaseEngine(createEngine());
+		primedEngine = createPrimedEngine();
+	}
+
+	/**
+	 * Return the HmacSHA256 hash of the message bytes.
+	 *
+	 * @param messageBytesParm
+	 *            required
+	 * @return
+	 */
+	public byte[] hash(final byte[] messageBytesParm) {
+		checkObjectNotNull("Message bytes are null", messageBytesParm);
+
+		return hash(messageBytesParm, 0, messageBytesParm.length);
+	}
+
+	/**
+	 * Return the HmacSHA256 hash of a range of the message bytes.
+	 *
+	 * @param messageBytesParm
+	 *            required
+	 * @param offsetParm
+	 *            start of the range
+	 * @param lengthParm
+	 *            length of the range
+	 * @return
+	 */
+	public byte[] hash(final byte[] messageBytesParm, final int offsetParm, final int lengthParm) {
+		final Mac engine = borrowEngine();
+
+		// If an exception occurs, the engine state is unknown, so it is not returned to the pool
+		engine.update(messageBytesParm, offsetParm, lengthParm);
+		final byte[] hash = engine.doFinal();
+
+		releaseEngine(engine);
+
+		return hash;
+	}
+
+	/**
+	 * Return the HmacSHA256 hash of the JWT header prefix followed by a range of the message bytes, i.e., the signature of a JWT whose encoded
+	 * payload is the range.
+	 *
+	 * @param messageBytesParm
+	 *            required, the encoded payload
+	 * @param offsetParm
+	 *            start of the range
+	 * @param lengthParm
+	 *            length of the range
+	 * @return
+	 */
+	public byte[] hashAfterJwtHeader(final byte[] messageBytesParm, final int offsetParm, final int lengthParm) {
+		if (primedEngine == null) {
+			final Mac engine = borrowEngine();
+
+			engine.update(JWT_HEADER_PREFIX_BYTES);
+			engine.update(messageBytesParm, offsetParm, lengthParm);
+			final byte[] hash = engine.doFinal();
+
+			releaseEngine(engine);
+
+			return hash;
+		}
+
+		final Mac engine = clonePrimedEngine();
+		engine.update(messageBytesParm, offsetParm, lengthParm);
+
+		return engine.doFinal();
+	}
+
+	/**
+	 * Return the Base64 URL encoded HmacSHA256 hash of the message. The message is transformed to bytes using UTF-8.
+	 *
+	 * @param messageParm
+	 *            required, not blank
+	 * @return
+	 */
+	public String hashEncoded(final String messageParm) {
+		checkStringNotBlank("Message is null or blank.", messageParm);
+
+		final String encodedHash = JwtUtility.base64UrlEncode(hash(messageParm.getBytes(StandardCharsets.UTF_8)));
+
+		return encodedHash;
+	}
+
+	/**
+	 * Return the number of idle engines currently retained.
+	 *
+	 * @return
+	 */
+	int getIdleEngineCount() {
+		return idleEngineCount.get();
+	}
+
+	private Mac borrowEngine() {
+		final Mac engine = idleEngines.poll();
+		if (engine == null) {
+			return createEngine();
+		}
+
+		idleEngineCount.decrementAndGet();
+
+		return engine;
+	}
+
+	private void releaseEngine(final Mac engineParm) {
+		if (idleEngineCount.incrementAndGet() > MAX_IDLE_ENGINES) {
+			// The pool is full; let the engine be GC'ed
+			idleEngineCount.decrementAndGet();
+
+			return;
+		}
+
+		idleEngines.offer(engineParm);
+	}
+
+	private Mac clonePrimedEngine() {
+		try {
+			return (Mac) primedEngine.clone();
+		}
+		catch (final CloneNotSupportedException e) {
+			// Cloning was checked when the primed engine was created
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Mac createPrimedEngine() {
+		final Mac engine = createEngine();
+		engine.update(JWT_HEADER_PREFIX_BYTES);
+
+		try {
+			engine.clone();
+		}
+		catch (final CloneNotSupportedException e) {
+			return null;
+		}
+
+		return engine;
+	}
+
+	private Mac createEngine() {
+		final Mac engine;
+		try {
+			engine = Mac.getInstance(ALGORITHM);
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new ValidationException("Unable to instantiate hash engine.", e);
+		}
+
+		try {
+			engine.init(secretKeySpec);
+		}
+		catch (final InvalidKeyException e) {
+			throw new ValidationException("Unable to initialize hash engine due to bad secret.", e);
+		}
+
+		return engine;
+	}
+}
@@ -0,0 +1,146 @@
+package com.fusionalliance.internal.sharedutility.jwt;
+
+/**
+ * This immutable class contains the claims extracted from a compact JWT by {@link JwtTokenParser}, along with the token itself.
+ * <p>
+ * Only the claims known to the provider and its consumers are retained:
+ * <ul>
+ * <li>exp - expiration, in seconds</li>
+ * <li>lid - login identifier</li>
+ * <li>name - user name</li>
+ * <li>admin - is admin?</li>
+ * <li>sid - ID of the secret used to sign the token</li>
+ * </ul>
+ * The raw token segments are not extracted during parsing; the segment getters create them on demand from the token.
+ */
+public final class JwtClaims {
+	private final String token;
+	private final int payloadStart;
+	private final int signatureStart;
+
+	private final boolean expiresPresent;
+	private final long expires;
+	private final String login;
+	private final String name;
+	private final boolean admin;
+	private final String secretId;
+
+	/**
+	 * Restricted constructor
+	 */
+	JwtClaims(final String tokenParm, final int payloadStartParm, final int signatureStartParm, final boolean expiresPresentParm,
+			final long expiresParm, final String loginParm, final String nameParm, final boolean adminParm, final String secretIdParm) {
+		token = tokenParm;
+		payloadStart = payloadStartParm;
+		signatureStart = signatureStartParm;
+		expiresPresent = expiresPresentParm;
+		expires = expiresParm;
+		login = loginParm;
+		name = nameParm;
+		admin = adminParm;
+		secretId = secretIdParm;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	/**
+	 * Return the index of the first character of the payload segment within the token.
+	 *
+	 * @return
+	 */
+	public int getPayloadStart() {
+		return payloadStart;
+	}
+
+	/**
+	 * Return the index of the first character of the signature segment within the token.
+	 *
+	 * @return
+	 */
+	public int getSignatureStart() {
+		return signatureStart;
+	}
+
+	/**
+	 * Return the Base64 URL encoded header segment.
+	 *
+	 * @return
+	 */
+	public String getHeaderEncoded() {
+		return token.substring(0, payloadStart - 1);
+	}
+
+	/**
+	 * Return the Base64 URL encoded payload segment.
+	 *
+	 * @return
+	 */
+	public String getPayloadEncoded() {
+		return token.substring(payloadStart, signatureStart - 1);
+	}
+
+	/**
+	 * Return the Base64 URL encoded signature segment.
+	 *
+	 * @return
+	 */
+	public String getSignatureEncoded() {
+		return token.substring(signatureStart);
+	}
+
+	/**
+	 * Return true if the payload contained a numeric "exp" claim.
+	 *
+	 * @return
+	 */
+	public boolean isExpiresPresent() {
+		return expiresPresent;
+	}
+
+	/**
+	 * Return the "exp" claim, or 0 if not present.
+	 *
+	 * @return
+	 */
+	public long getExpires() {
+		return expires;
+	}
+
+	/**
+	 * Return the "lid" claim, or null if not present.
+	 *
+	 * @return
+	 */
+	public String getLogin() {
+		return login;
+	}
+
+	/**
+	 * Return the "name" claim, or null if not present.
+	 *
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Return the "admin" claim, or false if not present.
+	 *
+	 * @return
+	 */
+	public boolean isAdmin() {
+		return admin;
+	}
+
+	/**
+	 * Return the "sid" claim, or null if not present.
+	 *
+	 * @return
+	 */
+	public String getSecretId() {
+		return secretId;
+	}
+}
@@ -0,0 +1,553 @@
+package com.fusionalliance.internal.sharedutility.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * This utility class parses a compact JWT into {@link JwtClaims}. It replaces the split/decode/Map approach of
+ * {@link JwtUtility#retrieveTokenPayload(String)} on the authentication path.
+ * <p>
+ * The token is scanned once. The payload is Base64 URL decoded directly into a per-thread byte buffer, and the known claims are read from the bytes
+ * without building an intermediate String or Map. Claims that are not known are skipped. Only the claim values themselves are allocated.
+ * <p>
+ * Unlike GSON, the payload scan is strict: malformed JSON is rejected. As with {@link JwtUtility#retrieveTokenPayload(String)}, the header is
+ * checked, but the signature <i>is not</i> verified.
+ */
+public final class JwtTokenParser {
+	private static final int INITIAL_BUFFER_SIZE = 512;
+	private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+	private static final int[] BASE64_URL_VALUES = new int[128];
+	static {
+		Arrays.fill(BASE64_URL_VALUES, -1);
+		final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+		for (int i = 0; i < alphabet.length(); i++) {
+			BASE64_URL_VALUES[alphabet.charAt(i)] = i;
+		}
+	}
+
+	private static final int CLAIM_UNKNOWN = -1;
+	private static final int CLAIM_EXP = 0;
+	private static final int CLAIM_LID = 1;
+	private static final int CLAIM_NAME = 2;
+	private static final int CLAIM_ADMIN = 3;
+	private static final int CLAIM_SID = 4;
+	private static final String[] CLAIM_NAMES = { "exp", "lid", "name", "admin", "sid" };
+	private static final byte[][] CLAIM_NAME_BYTES = new byte[CLAIM_NAMES.length][];
+	static {
+		for (int i = 0; i < CLAIM_NAMES.length; i++) {
+			CLAIM_NAME_BYTES[i] = CLAIM_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	/**
+	 * Parse the token. The token is checked that it is a valid format and that the header is valid. This <i>does not</i> verify the signature.
+	 *
+	 * @param tokenParm
+	 *            required, not blank
+	 * @return
+	 * @throws JwtException
+	 *             if the JWT is malformed
+	 */
+	public static JwtClaims parse(final String tokenParm) throws JwtException {
+		if (StringUtils.isBlank(tokenParm)) {
+			throw new JwtException("Token is null or blank");
+		}
+
+		final int payloadDot = tokenParm.indexOf('.');
+		final int signatureDot = payloadDot < 0 ? -1 : tokenParm.indexOf('.', payloadDot + 1);
+		if (payloadDot <= 0 || signatureDot <= payloadDot + 1 || signatureDot == tokenParm.length() - 1
+				|| tokenParm.indexOf('.', signatureDot + 1) >= 0) {
+			throw new JwtException("The token does not have three parts.");
+		}
+
+		// Only the precomputed header is supported; compare in place rather than decoding and parsing it
+		if (payloadDot != JwtUtility.JWT_HEADER_ENCODED.length() || !tokenParm.startsWith(JwtUtility.JWT_HEADER_ENCODED)) {
+			throw new JwtException("Header is not the supported HS256 JWT header.");
+		}
+
+		final byte[] buffer = retrieveDecodeBuffer(decodedLength(signatureDot - payloadDot - 1));
+		final int payloadLength = decodeBase64Url(tokenParm, payloadDot + 1, signatureDot, buffer);
+		if (payloadLength < 0) {
+			throw new JwtException("Unable to Base64 URL decode the payload.");
+		}
+
+		final JwtClaims claims = new PayloadScanner(buffer, payloadLength).scanClaims(tokenParm, payloadDot + 1, signatureDot + 1);
+
+		return claims;
+	}
+
+	/**
+	 * Return the maximum number of bytes produced by decoding the number of Base64 characters passed, without padding.
+	 *
+	 * @param encodedLengthParm
+	 * @return
+	 */
+	static int decodedLength(final int encodedLengthParm) {
+		return (encodedLengthParm * 3) / 4;
+	}
+
+	/**
+	 * Base64 URL decode a range of characters without padding into the destination passed.
+	 *
+	 * @param sourceParm
+	 *            required
+	 * @param startParm
+	 *            index of the first character to decode
+	 * @param endParm
+	 *            index after the last character to decode
+	 * @param destinationParm
+	 *            required, at least {@link #decodedLength(int)} long
+	 * @return the number of bytes decoded, or -1 if the characters are not valid, canonical, unpadded Base64 URL
+	 */
+	static int decodeBase64Url(final CharSequence sourceParm, final int startParm, final int endParm, final byte[] destinationParm) {
+		final int encodedLength = endParm - startParm;
+		if (encodedLength % 4 == 1) {
+			return -1;
+		}
+
+		int bits = 0;
+		int bitCount = 0;
+		int destinationIndex = 0;
+		for (int i = startParm; i < endParm; i++) {
+			final char character = sourceParm.charAt(i);
+			final int value = character < 128 ? BASE64_URL_VALUES[character] : -1;
+			if (value < 0) {
+				return -1;
+			}
+
+			bits = (bits << 6) | value;
+			bitCount += 6;
+			if (bitCount >= 8) {
+				bitCount -= 8;
+				destinationParm[destinationIndex++] = (byte) (bits >> bitCount);
+			}
+		}
+
+		// Unused trailing bits must be zero, so each byte sequence has exactly one encoding
+		if ((bits & ((1 << bitCount) - 1)) != 0) {
+			return -1;
+		}
+
+		return destinationIndex;
+	}
+
+	/**
+	 * Return this thread's decode buffer, enlarging it if it is smaller than the size passed.
+	 *
+	 * @param sizeParm
+	 * @return
+	 */
+	static byte[] retrieveDecodeBuffer(final int sizeParm) {
+		byte[] buffer = DECODE_BUFFER.get();
+		if (buffer.length < sizeParm) {
+			buffer = new byte[Math.max(sizeParm, buffer.length * 2)];
+			DECODE_BUFFER.set(buffer);
+		}
+
+		return buffer;
+	}
+
+	/**
+	 * This class scans the decoded payload bytes for known claims. Instances are single use.
+	 */
+	private static final class PayloadScanner {
+		private final byte[] bytes;
+		private final int end;
+		private int position;
+
+		PayloadScanner(final byte[] bytesParm, final int lengthParm) {
+			bytes = bytesParm;
+			end = lengthParm;
+		}
+
+		JwtClaims scanClaims(final String tokenParm, final int payloadStartParm, final int signatureStartParm) throws JwtException {
+			boolean expiresPresent = false;
+			long expires = 0;
+			String login = null;
+			String name = null;
+			boolean admin = false;
+			String secretId = null;
+
+			skipWhitespace();
+			expect('{');
+			skipWhitespace();
+
+			if (peek() == '}') {
+				position++;
+			}
+			else {
+				while (true) {
+					skipWhitespace();
+					final int claim = readClaimKey();
+					skipWhitespace();
+					expect(':');
+					skipWhitespace();
+
+					switch (claim) {
+					case CLAIM_EXP:
+						expiresPresent = !readNull();
+						expires = expiresPresent ? readLong(claim) : 0;
+						break;
+					case CLAIM_LID:
+						login = readStringOrNull(claim);
+						break;
+					case CLAIM_NAME:
+						name = readStringOrNull(claim);
+						break;
+					case CLAIM_ADMIN:
+						admin = readBooleanOrNull(claim);
+						break;
+					case CLAIM_SID:
+						secretId = readStringOrNull(claim);
+						break;
+					default:
+						skipValue();
+					}
+
+					skipWhitespace();
+					final byte separator = next();
+					if (separator == '}') {
+						break;
+					}
+					if (separator != ',') {
+						throw malformed();
+					}
+				}
+			}
+
+			skipWhitespace();
+			if (position != end) {
+				throw malformed();
+			}
+
+			return new JwtClaims(tokenParm, payloadStartParm, signatureStartParm, expiresPresent, expires, login, name, admin, secretId);
+		}
+
+		/**
+		 * Read a member name and return its claim constant. Names without escapes are compared as bytes.
+		 */
+		private int readClaimKey() throws JwtException {
+			final int quote = position;
+			expect('"');
+
+			final int start = position;
+			while (position < end && bytes[position] != '"') {
+				if (bytes[position] == '\\') {
+					// Rare; fall back to decoding the name
+					position = quote;
+
+					return Arrays.asList(CLAIM_NAMES).indexOf(readString());
+				}
+				position++;
+			}
+			if (position >= end) {
+				throw malformed();
+			}
+
+			final int length = position - start;
+			position++;
+
+			for (int claim = 0; claim < CLAIM_NAME_BYTES.length; claim++) {
+				final byte[] claimNameBytes = CLAIM_NAME_BYTES[claim];
+				if (claimNameBytes.length != length) {
+					continue;
+				}
+
+				int i = 0;
+				while (i < length && bytes[start + i] == claimNameBytes[i]) {
+					i++;
+				}
+				if (i == length) {
+					return claim;
+				}
+			}
+
+			return CLAIM_UNKNOWN;
+		}
+
+		private String readStringOrNull(final int claimParm) throws JwtException {
+			if (readNull()) {
+				return null;
+			}
+			if (peek() != '"') {
+				throw invalidClaim(claimParm);
+			}
+
+			return readString();
+		}
+
+		private boolean readBooleanOrNull(final int claimParm) throws JwtException {
+			if (readNull()) {
+				return false;
+			}
+			if (readLiteral("true")) {
+				return true;
+			}
+			if (readLiteral("false")) {
+				return false;
+			}
+
+			throw invalidClaim(claimParm);
+		}
+
+		/**
+		 * Read a JSON number as a long. Non-integral values are truncated, matching the former Double-based handling.
+		 */
+		private long readLong(final int claimParm) throws JwtException {
+			final int start = position;
+			boolean integral = true;
+			while (position < end) {
+				final byte b = bytes[position];
+				if (b == '.' || b == 'e' || b == 'E' || b == '+') {
+					integral = false;
+				}
+				else if (b != '-' && (b < '0' || b > '9')) {
+					break;
+				}
+				position++;
+			}
+
+			final int length = position - start;
+			if (length == 0) {
+				throw invalidClaim(claimParm);
+			}
+
+			if (integral && length < 19) {
+				final boolean negative = bytes[start] == '-';
+				long value = 0;
+				for (int i = negative ? start + 1 : start; i < position; i++) {
+					final byte b = bytes[i];
+					if (b < '0' || b > '9') {
+						throw invalidClaim(claimParm);
+					}
+					value = value * 10 + (b - '0');
+				}
+
+				return negative ? -value : value;
+			}
+
+			try {
+				return (long) Double.parseDouble(new String(bytes, start, length, StandardCharsets.US_ASCII));
+			}
+			catch (final NumberFormatException e) {
+				throw invalidClaim(claimParm);
+			}
+		}
+
+		private String readString() throws JwtException {
+			expect('"');
+
+			final int start = position;
+			while (position < end) {
+				final byte b = bytes[position];
+				if (b == '"') {
+					final String value = new String(bytes, start, position - start, StandardCharsets.UTF_8);
+					position++;
+
+					return value;
+				}
+				if (b == '\\') {
+					return readEscapedString(start);
+				}
+				if (b >= 0 && b < 0x20) {
+					throw malformed();
+				}
+				position++;
+			}
+
+			throw malformed();
+		}
+
+		private String readEscapedString(final int startParm) throws JwtException {
+			final StringBuilder valueBuilder = new StringBuilder(position - startParm + 16);
+
+			int segmentStart = startParm;
+			while (position < end) {
+				final byte b = bytes[position];
+				if (b == '"') {
+					valueBuilder.append(new String(bytes, segmentStart, position - segmentStart, StandardCharsets.UTF_8));
+					position++;
+
+					return valueBuilder.toString();
+				}
+				if (b == '\\') {
+					valueBuilder.append(new String(bytes, segmentStart, position - segmentStart, StandardCharsets.UTF_8));
+					position++;
+					valueBuilder.append(readEscape());
+					segmentStart = position;
+
+					continue;
+				}
+				position++;
+			}
+
+			throw malformed();
+		}
+
+		private char readEscape() throws JwtException {
+			final byte escaped = next();
+			switch (escaped) {
+			case '"':
+			case '\\':
+			case '/':
+				return (char) escaped;
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'u':
+				if (position + 4 > end) {
+					throw malformed();
+				}
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					final int digit = Character.digit(bytes[position++], 16);
+					if (digit < 0) {
+						throw malformed();
+					}
+					value = (value << 4) | digit;
+				}
+				return (char) value;
+			default:
+				throw malformed();
+			}
+		}
+
+		private void skipValue() throws JwtException {
+			final byte first = peek();
+			if (first == '"') {
+				skipString();
+
+				return;
+			}
+
+			if (first == '{' || first == '[') {
+				int depth = 0;
+				do {
+					final byte b = peek();
+					if (b == '"') {
+						skipString();
+
+						continue;
+					}
+					if (b == '{' || b == '[') {
+						depth++;
+					}
+					else if (b == '}' || b == ']') {
+						depth--;
+					}
+					position++;
+				}
+				while (depth > 0);
+
+				return;
+			}
+
+			// Number or literal
+			final int start = position;
+			while (position < end) {
+				final byte b = bytes[position];
+				if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+					break;
+				}
+				position++;
+			}
+			if (position == start) {
+				throw malformed();
+			}
+		}
+
+		private void skipString() throws JwtException {
+			expect('"');
+			while (position < end) {
+				final byte b = bytes[position++];
+				if (b == '"') {
+					return;
+				}
+				if (b == '\\') {
+					position++;
+				}
+			}
+
+			throw malformed();
+		}
+
+		private boolean readNull() {
+			return readLiteral("null");
+		}
+
+		/**
+		 * Consume the ASCII literal if it is next, returning true; otherwise, return false without consuming anything.
+		 */
+		private boolean readLiteral(final String literalParm) {
+			final int length = literalParm.length();
+			if (position + length > end) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (bytes[position + i] != literalParm.charAt(i)) {
+					return false;
+				}
+			}
+
+			position += length;
+
+			return true;
+		}
+
+		private void skipWhitespace() {
+			while (position < end && isWhitespace(bytes[position])) {
+				position++;
+			}
+		}
+
+		private void expect(final char expectedParm) throws JwtException {
+			if (next() != expectedParm) {
+				throw malformed();
+			}
+		}
+
+		private byte peek() throws JwtException {
+			if (position >= end) {
+				throw malformed();
+			}
+
+			return bytes[position];
+		}
+
+		private byte next() throws JwtException {
+			final byte b = peek();
+			position++;
+
+			return b;
+		}
+
+		private static boolean isWhitespace(final byte byteParm) {
+			return byteParm == ' ' || byteParm == '\t' || byteParm == '\n' || byteParm == '\r';
+		}
+
+		private static JwtException malformed() {
+			return new JwtException("The JWT payload is not valid JSON.");
+		}
+
+		private static JwtException invalidClaim(final int claimParm) {
+			return new JwtException("The JWT '" + CLAIM_NAMES[claimParm] + "' claim is invalid.");
+		}
+	}
+
+	/**
+	 * Hidden constructor
+	 */
+	private JwtTokenParser() {
+		// Do nothing
+	}
+}
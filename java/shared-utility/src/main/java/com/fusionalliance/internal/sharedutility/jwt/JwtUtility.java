@@ -7,6 +7,7 @@ import static com.fusionalliance.internal.sharedutility.core.ValidationUtility.c
 
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Map;
@@ -30,6 +31,7 @@ public final class JwtUtility {
 	public static final String JWT_HEADER_ENCODED = base64UrlEncode(JWT_HEADER);
 	private static final int PRINTABLE_CHAR_START = 33;
 	private static final int PRINTABLE_CHAR_RANGE = 94;
+	private static final ThreadLocal<byte[]> SIGNING_INPUT_BUFFER = ThreadLocal.withInitial(() -> new byte[512]);
 
 	/**
 	 * Generate a random 32 character (256 bit) secret composed of printable ASCII characters. This allows the secret to be copied as text.
@@ -58,6 +60,24 @@ public final class JwtUtility {
 		return buildToken(payloadJson, secretParm);
 	}
 
+	/**
+	 * Build a token from the payload map, signing it with the engine pool passed.
+	 * 
+	 * @param payloadParm
+	 *            required, not empty
+	 * @param enginePoolParm
+	 *            required, initialized with the signing secret
+	 * @return
+	 */
+	public static String buildToken(final Map<String, Object> payloadParm, final HmacSha256EnginePool enginePoolParm) {
+		checkObjectNotNull("Payload is null", payloadParm);
+		checkBadConditionNotMet("Payload is empty", payloadParm.isEmpty());
+
+		final String payloadJson = GsonHelper.mapToJson(payloadParm);
+
+		return buildToken(payloadJson, enginePoolParm);
+	}
+
 	public static String buildToken(String payloadJsonParm, final String secretParm) {
 		checkStringNotBlank("Payload JSON is blank", payloadJsonParm);
 		checkStringNotBlank("Secret is blank", secretParm);
@@ -70,6 +90,27 @@ public final class JwtUtility {
 		return token;
 	}
 
+	/**
+	 * Build a token from the payload JSON, signing it with the engine pool passed.
+	 * 
+	 * @param payloadJsonParm
+	 *            required, not blank
+	 * @param enginePoolParm
+	 *            required, initialized with the signing secret
+	 * @return
+	 */
+	public static String buildToken(final String payloadJsonParm, final HmacSha256EnginePool enginePoolParm) {
+		checkStringNotBlank("Payload JSON is blank", payloadJsonParm);
+		checkObjectNotNull("Engine pool is null", enginePoolParm);
+
+		final String payloadJsonEncoded = base64UrlEncode(payloadJsonParm);
+		final byte[] payloadJsonEncodedBytes = payloadJsonEncoded.getBytes(StandardCharsets.US_ASCII);
+		final String signature = base64UrlEncode(enginePoolParm.hashAfterJwtHeader(payloadJsonEncodedBytes, 0, payloadJsonEncodedBytes.length));
+		final String token = JWT_HEADER_ENCODED + "." + payloadJsonEncoded + "." + signature;
+
+		return token;
+	}
+
 	/**
 	 * Retrieve the payload from the token. The token is checked that it is a valid format and that the header is valid. This <i>does not</i> verify
 	 * the signature.
@@ -113,28 +154,18 @@ public final class JwtUtility {
 	}
 
 	/**
-	 * Verify the JWT header. This simple implementation supports only JWT using HS256.
-	 * <ul>
-	 * <li>It must contain exactly two entries</li>
-	 * <li>"alg": "HS256"</li>
-	 * <li>"typ": "JWT"</li>
-	 * </ul>
+	 * Verify the JWT header. This simple implementation supports only the header it builds, {@link #JWT_HEADER_ENCODED}, so the encoded header is
+	 * compared to it directly rather than being decoded and parsed.
 	 * 
 	 * @param headerEncodedParm
 	 *            required, not blank, must be Base64 URL encoded
 	 * @throws ValidationException
-	 *             if any condition is not met
+	 *             if the header is not valid
 	 */
-	@VisibleForTesting
 	static void verifyHeader(final String headerEncodedParm) {
 		checkStringNotBlank("The encoded header is null or blank.", headerEncodedParm);
 
-		final String headerJson = base64UrlDecode(headerEncodedParm);
-		final Map<String, Object> headerMap = GsonHelper.jsonToMap(headerJson);
-
-		checkGoodConditionMet("Header does not contain exactly two entries.", headerMap.size() == 2);
-		checkGoodConditionMet("Header 'typ' is not 'JWT'.", "JWT".equals(headerMap.get("typ")));
-		checkGoodConditionMet("Header 'alg' is not 'HS256'.", "HS256".equals(headerMap.get("alg")));
+		checkGoodConditionMet("Header is not the supported HS256 JWT header.", JWT_HEADER_ENCODED.equals(headerEncodedParm));
 	}
 
 	/**
@@ -156,14 +187,94 @@ public final class JwtUtility {
 		checkStringNotBlank("The signature is null or blank.", signatureParm);
 		checkStringNotBlank("The secret is null or blank.", secretParm);
 
-		final String generatedSignature = doHmacSha256HashEncoded(headerParm + "." + payloadParm, secretParm);
+		final byte[] signingInput = retrieveSigningInputBuffer(headerParm.length() + 1 + payloadParm.length());
+		final int signingInputLength = copySigningInput(headerParm, payloadParm, signingInput);
+		if (signingInputLength < 0) {
+			return false;
+		}
+
+		final byte[] generatedHash = doHmacSha256Hash(signingInput, signingInputLength, secretParm);
+
+		return hashMatchesSignature(generatedHash, signatureParm, 0, signatureParm.length());
+	}
+
+	/**
+	 * Return true if the JWT signature is valid, using the engine pool passed rather than a secret. This avoids the cost of obtaining and
+	 * initializing a hash engine on every call.
+	 * 
+	 * @param headerParm
+	 *            required, not blank
+	 * @param payloadParm
+	 *            required, not blank
+	 * @param signatureParm
+	 *            required, not blank
+	 * @param enginePoolParm
+	 *            required, initialized with the secret identified by the token
+	 */
+	public static boolean verifySignature(String headerParm, String payloadParm, String signatureParm, HmacSha256EnginePool enginePoolParm) {
+		checkStringNotBlank("The header is null or blank.", headerParm);
+		checkStringNotBlank("The payload is null or blank.", payloadParm);
+		checkStringNotBlank("The signature is null or blank.", signatureParm);
+		checkObjectNotNull("The engine pool is null.", enginePoolParm);
+
+		final byte[] generatedHash;
+		if (JWT_HEADER_ENCODED.equals(headerParm)) {
+			final byte[] payloadBytes = retrieveSigningInputBuffer(payloadParm.length());
+			if (copyAscii(payloadParm, 0, payloadParm.length(), payloadBytes, 0) < 0) {
+				return false;
+			}
 
-		final boolean signatureValid = signatureParm.equals(generatedSignature);
+			generatedHash = enginePoolParm.hashAfterJwtHeader(payloadBytes, 0, payloadParm.length());
+		}
+		else {
+			final byte[] signingInput = retrieveSigningInputBuffer(headerParm.length() + 1 + payloadParm.length());
+			final int signingInputLength = copySigningInput(headerParm, payloadParm, signingInput);
+			if (signingInputLength < 0) {
+				return false;
+			}
+
+			generatedHash = enginePoolParm.hash(signingInput, 0, signingInputLength);
+		}
+
+		return hashMatchesSignature(generatedHash, signatureParm, 0, signatureParm.length());
+	}
+
+	/**
+	 * Return true if the signature of the parsed JWT is valid, using the engine pool passed. The parser accepts only {@link #JWT_HEADER_ENCODED}, so
+	 * hashing starts from the pool's primed state and covers only the payload, read directly from the token. The signature is decoded in place; no
+	 * intermediate Strings are created.
+	 * 
+	 * @param claimsParm
+	 *            required, from {@link JwtTokenParser#parse(String)}
+	 * @param enginePoolParm
+	 *            required, initialized with the secret identified by the token
+	 */
+	public static boolean verifySignature(final JwtClaims claimsParm, final HmacSha256EnginePool enginePoolParm) {
+		checkObjectNotNull("The claims are null.", claimsParm);
+		checkObjectNotNull("The engine pool is null.", enginePoolParm);
+
+		final String token = claimsParm.getToken();
+		final int payloadLength = claimsParm.getSignatureStart() - 1 - claimsParm.getPayloadStart();
+
+		final byte[] payloadBytes = retrieveSigningInputBuffer(payloadLength);
+		if (copyAscii(token, claimsParm.getPayloadStart(), claimsParm.getSignatureStart() - 1, payloadBytes, 0) < 0) {
+			return false;
+		}
 
-		return signatureValid;
+		final byte[] generatedHash = enginePoolParm.hashAfterJwtHeader(payloadBytes, 0, payloadLength);
+
+		return hashMatchesSignature(generatedHash, token, claimsParm.getSignatureStart(), token.length());
 	}
 
 	public static String doHmacSha256HashEncoded(final String messageParm, final String secretParm) {
+		final byte[] messageBytes = messageParm.getBytes(StandardCharsets.UTF_8);
+
+		final String encodedHash = base64UrlEncode(doHmacSha256Hash(messageBytes, messageBytes.length, secretParm));
+
+		return encodedHash;
+	}
+
+	private static byte[] doHmacSha256Hash(final byte[] messageBytesParm, final int lengthParm, final String secretParm) {
 		final Mac hmacSha256HashEngine;
 		try {
 			hmacSha256HashEngine = Mac.getInstance("HmacSHA256");
@@ -181,9 +292,71 @@ public final class JwtUtility {
 			throw new ValidationException("Unable to initialize hash engine due to bad secret.", e);
 		}
 
-		final String encodedHash = base64UrlEncode(hmacSha256HashEngine.doFinal(messageParm.getBytes(StandardCharsets.UTF_8)));
+		hmacSha256HashEngine.update(messageBytesParm, 0, lengthParm);
 
-		return encodedHash;
+		return hmacSha256HashEngine.doFinal();
+	}
+
+	/**
+	 * Decode the signature range and compare it to the hash in constant time. A signature that is not valid Base64 URL, or that decodes to a
+	 * different length than the hash, does not match.
+	 */
+	private static boolean hashMatchesSignature(final byte[] hashParm, final CharSequence signatureSourceParm, final int startParm,
+			final int endParm) {
+		final int signatureLength = endParm - startParm;
+		if (JwtTokenParser.decodedLength(signatureLength) != hashParm.length) {
+			return false;
+		}
+
+		final byte[] signatureBytes = new byte[hashParm.length];
+		if (JwtTokenParser.decodeBase64Url(signatureSourceParm, startParm, endParm, signatureBytes) != hashParm.length) {
+			return false;
+		}
+
+		return MessageDigest.isEqual(hashParm, signatureBytes);
+	}
+
+	/**
+	 * Copy "header.payload" into the buffer as ASCII. Return the number of bytes copied, or -1 if a character is not ASCII; Base64 URL segments
+	 * never contain such characters, so the signature cannot match.
+	 */
+	private static int copySigningInput(final String headerParm, final String payloadParm, final byte[] bufferParm) {
+		final int headerLength = headerParm.length();
+		if (copyAscii(headerParm, 0, headerLength, bufferParm, 0) < 0) {
+			return -1;
+		}
+
+		bufferParm[headerLength] = '.';
+
+		if (copyAscii(payloadParm, 0, payloadParm.length(), bufferParm, headerLength + 1) < 0) {
+			return -1;
+		}
+
+		return headerLength + 1 + payloadParm.length();
+	}
+
+	private static int copyAscii(final String sourceParm, final int startParm, final int endParm, final byte[] bufferParm, final int offsetParm) {
+		int bufferIndex = offsetParm;
+		for (int sourceIndex = startParm; sourceIndex < endParm; sourceIndex++) {
+			final char sourceChar = sourceParm.charAt(sourceIndex);
+			if (sourceChar > 0x7F) {
+				return -1;
+			}
+
+			bufferParm[bufferIndex++] = (byte) sourceChar;
+		}
+
+		return bufferIndex - offsetParm;
+	}
+
+	private static byte[] retrieveSigningInputBuffer(final int sizeParm) {
+		byte[] buffer = SIGNING_INPUT_BUFFER.get();
+		if (buffer.length < sizeParm) {
+			buffer = new byte[Math.max(sizeParm, buffer.length * 2)];
+			SIGNING_INPUT_BUFFER.set(buffer);
+		}
+
+		return buffer;
 	}
 
 	/**
@@ -0,0 +1,44 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * This test class contains tests for {@link CsvReader}.
+ */
+public class CsvReaderTest {
+
+	@Test
+	public void readRecordTest() throws IOException {
+		try (final CsvReader csvReader = new CsvReader(new StringReader("login,fullName\r\njbloggs,Joe Bloggs\nasmith,\rx"))) {
+			assertEquals("Header mismatch", Arrays.asList("login", "fullName"), csvReader.readRecord());
+			assertEquals("CRLF record mismatch", Arrays.asList("jbloggs", "Joe Bloggs"), csvReader.readRecord());
+			assertEquals("Empty field mismatch", Arrays.asList("asmith", ""), csvReader.readRecord());
+			assertEquals("Last record mismatch", Arrays.asList("x"), csvReader.readRecord());
+			assertNull("Record after the end", csvReader.readRecord());
+			assertEquals("Record count mismatch", 4, csvReader.getRecordCount());
+		}
+	}
+
+	@Test
+	public void readQuotedRecordTest() throws IOException {
+		try (final CsvReader csvReader = new CsvReader(new StringReader("\"Bloggs, Joe\",\"say \"\"hi\"\"\",\"two\r\nlines\",a\"b\n\n"))) {
+			assertEquals("Quoted record mismatch", Arrays.asList("Bloggs, Joe", "say \"hi\"", "two\r\nlines", "a\"b"), csvReader.readRecord());
+			assertEquals("Blank line mismatch", Arrays.asList(""), csvReader.readRecord());
+			assertNull("Record after the end", csvReader.readRecord());
+		}
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readRecordTestUnterminatedQuote() throws IOException {
+		try (final CsvReader csvReader = new CsvReader(new StringReader("a,\"b\n"))) {
+			csvReader.readRecord();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * This test class contains tests for {@link CsvWriter}.
+ */
+public class CsvWriterTest {
+
+	@Test
+	public void writeRecordTest() throws IOException {
+		final StringWriter stringWriter = new StringWriter();
+		try (final CsvWriter csvWriter = new CsvWriter(stringWriter)) {
+			csvWriter.writeRecord("login", "fullName");
+			csvWriter.writeRecord("jbloggs", null);
+		}
+
+		assertEquals("CSV mismatch", "login,fullName\r\njbloggs,\r\n", stringWriter.toString());
+	}
+
+	@Test
+	public void writeQuotedRecordTest() throws IOException {
+		final String[] fields = { "Bloggs, Joe", "say \"hi\"", "two\r\nlines", " padded", "plain" };
+
+		final StringWriter stringWriter = new StringWriter();
+		try (final CsvWriter csvWriter = new CsvWriter(stringWriter)) {
+			csvWriter.writeRecord(fields);
+		}
+
+		assertEquals("CSV mismatch", "\"Bloggs, Joe\",\"say \"\"hi\"\"\",\"two\r\nlines\",\" padded\",plain\r\n", stringWriter.toString());
+
+		try (final CsvReader csvReader = new CsvReader(new StringReader(stringWriter.toString()))) {
+			assertEquals("Round trip mismatch", Arrays.asList(fields), csvReader.readRecord());
+		}
+	}
+}
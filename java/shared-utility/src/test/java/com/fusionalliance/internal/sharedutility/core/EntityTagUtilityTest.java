@@ -0,0 +1,61 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This test class contains tests for {@link EntityTagUtility}.
+ */
+public class EntityTagUtilityTest {
+
+	@Test
+	public void generateWeakTest() {
+		assertEquals("Tag mismatch", "W/\"42\"", EntityTagUtility.generateWeak("42"));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void generateWeakTestQuote() {
+		EntityTagUtility.generateWeak("4\"2");
+	}
+
+	@Test
+	public void matchesTest() {
+		final String entityTag = EntityTagUtility.generateWeak("42");
+
+		assertTrue("Weak tag not matched", EntityTagUtility.matches("W/\"42\"", entityTag));
+		assertTrue("Strong tag not matched", EntityTagUtility.matches("\"42\"", entityTag));
+		assertTrue("Listed tag not matched", EntityTagUtility.matches("\"41\", W/\"42\"", entityTag));
+		assertTrue("Wildcard not matched", EntityTagUtility.matches("*", entityTag));
+
+		assertFalse("Null header matched", EntityTagUtility.matches(null, entityTag));
+		assertFalse("Other tag matched", EntityTagUtility.matches("W/\"41\"", entityTag));
+		assertFalse("Unquoted tag matched", EntityTagUtility.matches("42", entityTag));
+	}
+
+	@Test
+	public void appendSuffixTest() {
+		assertEquals("Tag mismatch", "W/\"42-cbor\"", EntityTagUtility.appendSuffix(EntityTagUtility.generateWeak("42"), "-cbor"));
+	}
+
+	@Test
+	public void selectSuffixedTest() {
+		assertEquals("Suffixed tag not selected", "W/\"42\"", EntityTagUtility.selectSuffixed("W/\"41\", W/\"42-cbor\"", "-cbor"));
+		assertEquals("Wildcard not kept", "*", EntityTagUtility.selectSuffixed("*", "-cbor"));
+		assertNull("Unsuffixed tag selected", EntityTagUtility.selectSuffixed("W/\"42\"", "-cbor"));
+		assertNull("Null header not kept", EntityTagUtility.selectSuffixed(null, "-cbor"));
+
+		assertFalse("Unsuffixed tag matched",
+				EntityTagUtility.matches(EntityTagUtility.selectSuffixed("W/\"42\"", "-cbor"), EntityTagUtility.generateWeak("42")));
+		assertFalse("Suffixed tag matched without selection", EntityTagUtility.matches("W/\"42-cbor\"", EntityTagUtility.generateWeak("42")));
+	}
+
+	@Test
+	public void removeSuffixTest() {
+		assertEquals("Suffix not removed", "W/\"41\", W/\"42\"", EntityTagUtility.removeSuffix("W/\"41\", W/\"42-cbor\"", "-cbor"));
+		assertNull("Null header not kept", EntityTagUtility.removeSuffix(null, "-cbor"));
+	}
+}
@@ -1,9 +1,17 @@
 package com.fusionalliance.internal.sharedutility.core;
 
 import static org.junit.Assert.assertEquals;
-
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import com.fusionalliance.internal.sharedutility.core.GsonHelper;
@@ -50,6 +58,137 @@ public class GsonHelperTest {
 
 		final String json = GsonHelper.mapToJson(map);
 
+		assertEquals("JSON does not match", "{\"name\":\"Joe Bloggs\",\"admin\":true,\"exp\":1521750056}", json);
+	}
+
+	@Test
+	public void retrieveGsonPrettyTest() {
+		final Map<String, Object> map = ImmutableMap.<String, Object>builder() //
+				.put("name", "Joe Bloggs") //
+				.put("admin", Boolean.TRUE) //
+				.put("exp", Long.valueOf("1521750056")) //
+				.build();
+
+		final String json = GsonHelper.retrieveGson(true).toJson(map);
+
 		assertEquals("JSON does not match", "{\n" + "  \"name\": \"Joe Bloggs\",\n" + "  \"admin\": true,\n" + "  \"exp\": 1521750056\n" + "}", json);
 	}
+
+	@Test
+	public void writeJsonTest() throws IOException {
+		final Map<String, Object> map = ImmutableMap.<String, Object>builder() //
+				.put("name", "Jo\u00eb Bloggs") //
+				.put("admin", Boolean.TRUE) //
+				.build();
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		GsonHelper.writeJson(map, outputStream, false);
+
+		assertEquals("JSON does not match", GsonHelper.mapToJson(map), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void readJsonTest() throws IOException {
+		final String json = "{\"name\": \"Jo\u00eb Bloggs\", \"other\": {\"nested\": [1, {\"a\": null}]}}";
+
+		final NamedValue namedValue = GsonHelper.readJson(toInputStream(json), NamedValue.class, JsonReadLimits.DEFAULT);
+
+		assertEquals("Name did not match", "Jo\u00eb Bloggs", namedValue.name);
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readJsonTestTooManyBytes() throws IOException {
+		final String json = "{\"name\": \"" + StringUtils.repeat('x', 100) + "\"}";
+
+		GsonHelper.readJson(toInputStream(json), NamedValue.class, new JsonReadLimits(100, 16, 1_000));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readJsonTestTooDeep() throws IOException {
+		// The nesting is in a skipped value
+		final String json = "{\"name\": \"Joe\", \"other\": " + StringUtils.repeat("[", 5) + StringUtils.repeat("]", 5) + "}";
+
+		GsonHelper.readJson(toInputStream(json), NamedValue.class, new JsonReadLimits(1_000, 5, 1_000));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readJsonTestTooManyFields() throws IOException {
+		final String json = "{\"name\": \"Joe\", \"other\": {\"a\": 1, \"b\": 2, \"c\": 3}}";
+
+		GsonHelper.readJson(toInputStream(json), NamedValue.class, new JsonReadLimits(1_000, 16, 4));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readJsonTestTrailingContent() throws IOException {
+		GsonHelper.readJson(toInputStream("{\"name\": \"Joe\"} {}"), NamedValue.class, JsonReadLimits.DEFAULT);
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readJsonTestEmpty() throws IOException {
+		GsonHelper.readJson(toInputStream(" "), NamedValue.class, JsonReadLimits.DEFAULT);
+	}
+
+	@Test
+	public void cborRoundTripTest() throws IOException {
+		final NamedValue child = new NamedValue();
+		child.name = "Jo\u00eb";
+		final CborValue cborValue = new CborValue();
+		cborValue.text = "Joe Bloggs";
+		cborValue.count = 1521750056L;
+		cborValue.flag = true;
+		cborValue.ratio = 0.25;
+		cborValue.tags = Arrays.asList("a", "b");
+		cborValue.child = child;
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		GsonHelper.write(cborValue, outputStream, WireFormat.CBOR);
+
+		final CborValue readCborValue = GsonHelper.readCbor(new ByteArrayInputStream(outputStream.toByteArray()), CborValue.class,
+				JsonReadLimits.DEFAULT);
+
+		assertEquals("Round trip does not match", GsonHelper.GSON.toJson(cborValue), GsonHelper.GSON.toJson(readCborValue));
+		assertTrue("CBOR not smaller than JSON", outputStream.size() < GsonHelper.GSON.toJson(cborValue).length());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readCborTestTooDeep() throws IOException {
+		final Map<String, Object> map = ImmutableMap.<String, Object>builder() //
+				.put("name", "Joe") //
+				.put("other", Arrays.asList(Arrays.asList(Arrays.asList("x")))) //
+				.build();
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		GsonHelper.writeCbor(map, outputStream);
+
+		GsonHelper.readCbor(new ByteArrayInputStream(outputStream.toByteArray()), NamedValue.class, new JsonReadLimits(1_000, 3, 1_000));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void readCborTestMalformed() throws IOException {
+		// A map with one entry, whose name is cut short
+		GsonHelper.readCbor(new ByteArrayInputStream(new byte[] { (byte) 0xA1, 0x64, 'n', 'a' }), NamedValue.class, JsonReadLimits.DEFAULT);
+	}
+
+	private static ByteArrayInputStream toInputStream(final String jsonParm) {
+		return new ByteArrayInputStream(jsonParm.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * This class is a minimal target for {@link GsonHelper#readJson(java.io.InputStream, Class, JsonReadLimits)}.
+	 */
+	private static final class NamedValue {
+		private String name;
+	}
+
+	/**
+	 * This class covers the value types written as CBOR.
+	 */
+	private static final class CborValue {
+		private String text;
+		private long count;
+		private boolean flag;
+		private double ratio;
+		private List<String> tags;
+		private NamedValue child;
+		private String missing;
+	}
 }
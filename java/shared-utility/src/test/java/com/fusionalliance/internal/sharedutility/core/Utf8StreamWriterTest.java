@@ -0,0 +1,64 @@
+package com.fusionalliance.internal.sharedutility.core;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * This test class contains tests for {@link Utf8StreamWriter}.
+ */
+public class Utf8StreamWriterTest {
+
+	@Test
+	public void writeMatchesStringEncodingTest() throws IOException {
+		// ASCII, 2 byte, 3 byte, and surrogate pair characters, repeated to cross several buffer boundaries
+		final StringBuilder textBuilder = new StringBuilder();
+		while (textBuilder.length() < Utf8StreamWriter.BUFFER_SIZE * 3) {
+			textBuilder.append("Joe Bloggs \u00f6\u00eb \u20ac \ud83d\ude00 ");
+		}
+		final String text = textBuilder.toString();
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (final Utf8StreamWriter writer = Utf8StreamWriter.open(outputStream)) {
+			writer.write(text);
+		}
+
+		assertArrayEquals("Bytes do not match", text.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+	}
+
+	@Test
+	public void writeUnpairedSurrogatesTest() throws IOException {
+		final String text = "a\ud83db\ude00c\ud83d";
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (final Utf8StreamWriter writer = Utf8StreamWriter.open(outputStream)) {
+			for (int i = 0; i < text.length(); i++) {
+				writer.write(text.charAt(i));
+			}
+		}
+
+		assertArrayEquals("Bytes do not match", text.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+	}
+
+	@Test
+	public void nestedWritersTest() throws IOException {
+		final ByteArrayOutputStream outerOutputStream = new ByteArrayOutputStream();
+		final ByteArrayOutputStream innerOutputStream = new ByteArrayOutputStream();
+		try (final Utf8StreamWriter outerWriter = Utf8StreamWriter.open(outerOutputStream)) {
+			outerWriter.write("outer");
+
+			try (final Utf8StreamWriter innerWriter = Utf8StreamWriter.open(innerOutputStream)) {
+				innerWriter.write("inner");
+			}
+
+			outerWriter.write(" done");
+		}
+
+		assertArrayEquals("Outer bytes do not match", "outer done".getBytes(StandardCharsets.UTF_8), outerOutputStream.toByteArray());
+		assertArrayEquals("Inner bytes do not match", "inner".getBytes(StandardCharsets.UTF_8), innerOutputStream.toByteArray());
+	}
+}
@@ -0,0 +1,75 @@
+package com.fusionalliance.internal.sharedutility.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationException;
+
+/**
+ * This test class contains tests for {@link HmacSha256EnginePool}.
+ */
+public class HmacSha256EnginePoolTest {
+	private static final String SECRET = "<-8B\"rN)\"D/bh5WW;B]?2Y)ON`,`I!W7";
+
+	@Test
+	public void hashEncodedMatchesUnpooledTest() {
+		final String message = JwtUtility.JWT_HEADER_ENCODED + "." + JwtUtility.base64UrlEncode("{\"name\": \"Jane Bloggs\", \"admin\": true}");
+		final HmacSha256EnginePool enginePool = new HmacSha256EnginePool(SECRET);
+
+		// Repeat to exercise engine reuse
+		for (int i = 0; i < 3; i++) {
+			assertEquals("Hash does not match externally verified value", "A5TZvJPmLQ1gB8QFPcu9ch8soEHYAQbZ_sumVw0HlJg",
+					enginePool.hashEncoded(message));
+		}
+		assertEquals("Unexpected idle engine count", 1, enginePool.getIdleEngineCount());
+	}
+
+	@Test
+	public void hashAfterJwtHeaderMatchesFullHashTest() {
+		final byte[] payloadBytes = JwtUtility.base64UrlEncode("{\"name\": \"Jane Bloggs\", \"admin\": true}").getBytes(StandardCharsets.US_ASCII);
+		final HmacSha256EnginePool enginePool = new HmacSha256EnginePool(SECRET);
+
+		// Repeat to show that the primed state is not consumed
+		for (int i = 0; i < 3; i++) {
+			assertEquals("Hash does not match externally verified value", "A5TZvJPmLQ1gB8QFPcu9ch8soEHYAQbZ_sumVw0HlJg",
+					JwtUtility.base64UrlEncode(enginePool.hashAfterJwtHeader(payloadBytes, 0, payloadBytes.length)));
+		}
+	}
+
+	@Test(expected = ValidationException.class)
+	public void constructorShortSecretTest() {
+		new HmacSha256EnginePool("too short");
+	}
+
+	@Test
+	public void concurrentHashTest() throws Exception {
+		final HmacSha256EnginePool enginePool = new HmacSha256EnginePool(SECRET);
+		final String expected = JwtUtility.doHmacSha256HashEncoded("message", SECRET);
+		final ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+		try {
+			final List<Future<Boolean>> futures = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				futures.add(executorService.submit((Callable<Boolean>) () -> expected.equals(enginePool.hashEncoded("message"))));
+			}
+			for (Future<Boolean> future : futures) {
+				assertTrue("Concurrent hash does not match", future.get());
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+
+		assertTrue("Idle engines exceed maximum", enginePool.getIdleEngineCount() <= HmacSha256EnginePool.MAX_IDLE_ENGINES);
+	}
+}
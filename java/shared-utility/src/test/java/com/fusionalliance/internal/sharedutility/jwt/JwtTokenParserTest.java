@@ -0,0 +1,94 @@
+package com.fusionalliance.internal.sharedutility.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * This test class contains tests for {@link JwtTokenParser}.
+ */
+public class JwtTokenParserTest {
+
+	@Test
+	public void parseRoundTripTest() throws JwtException {
+		final long expires = System.currentTimeMillis() / 1000;
+		final Map<String, Object> payloadMap = ImmutableMap.<String, Object>builder() //
+				.put("name", "Joe Bloggs") //
+				.put("admin", Boolean.TRUE) //
+				.put("exp", expires) //
+				.put("lid", "jbloggs") //
+				.put("sid", "sec0") //
+				.build();
+		final String token = JwtUtility.buildToken(payloadMap, JwtUtility.generateSecret());
+
+		final JwtClaims claims = JwtTokenParser.parse(token);
+
+		assertEquals("Name does not match", "Joe Bloggs", claims.getName());
+		assertTrue("Admin does not match", claims.isAdmin());
+		assertTrue("Expires missing", claims.isExpiresPresent());
+		assertEquals("Expires does not match", expires, claims.getExpires());
+		assertEquals("Login does not match", "jbloggs", claims.getLogin());
+		assertEquals("Secret ID does not match", "sec0", claims.getSecretId());
+
+		final String[] tokenParts = token.split("\\.");
+		assertEquals("Header does not match", tokenParts[0], claims.getHeaderEncoded());
+		assertEquals("Payload does not match", tokenParts[1], claims.getPayloadEncoded());
+		assertEquals("Signature does not match", tokenParts[2], claims.getSignatureEncoded());
+	}
+
+	@Test
+	public void parseEscapesAndUnknownClaimsTest() throws JwtException {
+		final String payloadJson = "{ \"other\": {\"nested\": [1, \"}\", {\"a\": null}]}, \"name\": \"Zo\\u00eb \\\"Q\\\" Bl\u00f6ggs\","
+				+ " \"exp\": 1.52175005E9, \"n\\u0061me2\": true, \"lid\": null }";
+		final String token = JwtUtility.buildToken(payloadJson, JwtUtility.generateSecret());
+
+		final JwtClaims claims = JwtTokenParser.parse(token);
+
+		assertEquals("Name does not match", "Zo\u00eb \"Q\" Bl\u00f6ggs", claims.getName());
+		assertEquals("Expires does not match", 1521750050L, claims.getExpires());
+		assertNull("Login not null", claims.getLogin());
+		assertFalse("Admin not defaulted", claims.isAdmin());
+		assertNull("Secret ID not null", claims.getSecretId());
+	}
+
+	@Test
+	public void decodeBase64UrlTest() {
+		for (String message : new String[] { "a", "ab", "abc", "abcd", JwtUtility.generateSecret() }) {
+			final String encoded = JwtUtility.base64UrlEncode(message);
+			final byte[] buffer = new byte[JwtTokenParser.decodedLength(encoded.length())];
+
+			final int length = JwtTokenParser.decodeBase64Url(encoded, 0, encoded.length(), buffer);
+
+			assertEquals("Decoded message does not match", message, new String(buffer, 0, length));
+		}
+
+		assertEquals("Invalid character accepted", -1, JwtTokenParser.decodeBase64Url("ab+c", 0, 4, new byte[3]));
+	}
+
+	@Test(expected = JwtException.class)
+	public void parseTwoPartsTest() throws JwtException {
+		JwtTokenParser.parse(JwtUtility.JWT_HEADER_ENCODED + "." + JwtUtility.base64UrlEncode("{}"));
+	}
+
+	@Test(expected = JwtException.class)
+	public void parseBadHeaderTest() throws JwtException {
+		JwtTokenParser.parse(JwtUtility.base64UrlEncode("{\"alg\": \"none\"}") + "." + JwtUtility.base64UrlEncode("{}") + ".abc");
+	}
+
+	@Test(expected = JwtException.class)
+	public void parseMalformedPayloadTest() throws JwtException {
+		JwtTokenParser.parse(JwtUtility.buildToken("{ \"name\": \"Joe\", key = value }", JwtUtility.generateSecret()));
+	}
+
+	@Test(expected = JwtException.class)
+	public void parseInvalidClaimTypeTest() throws JwtException {
+		JwtTokenParser.parse(JwtUtility.buildToken("{ \"exp\": \"tomorrow\" }", JwtUtility.generateSecret()));
+	}
+}
@@ -1,6 +1,7 @@
 package com.fusionalliance.internal.sharedutility.jwt;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -71,6 +72,12 @@ public class JwtUtilityTest {
 		// No assertions are required
 	}
 
+	@Test(expected = ValidationException.class)
+	public void verifyHeaderTestOtherEncoding() {
+		// Equivalent JSON, but not the supported encoded header
+		JwtUtility.verifyHeader(JwtUtility.base64UrlEncode("{\"typ\": \"JWT\", \"alg\": \"HS256\"}"));
+	}
+
 	@Test
 	public void buildRetrieveTokenRoundTripTest() {
 		final String name = "Joe Bloggs";
@@ -105,4 +112,46 @@ public class JwtUtilityTest {
 		assertTrue("Signature not valid", JwtUtility.verifySignature((String) retrievedPayloadMap.get(JwtUtility.TOKEN_HEADER),
 				(String) retrievedPayloadMap.get(JwtUtility.TOKEN_PAYLOAD), (String) retrievedPayloadMap.get(JwtUtility.TOKEN_SIGNATURE), secret));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void buildTokenEnginePoolRoundTripTest() throws JwtException {
+		final Map<String, Object> payloadMap = ImmutableMap.<String, Object>builder() //
+				.put("name", "Joe Bloggs") //
+				.build();
+		final String secret = JwtUtility.generateSecret();
+		final HmacSha256EnginePool enginePool = new HmacSha256EnginePool(secret);
+
+		final String token = JwtUtility.buildToken(payloadMap, enginePool);
+		assertEquals("Pooled token does not match", JwtUtility.buildToken(payloadMap, secret), token);
+
+		final Map<String, Object> retrievedPayloadMap = JwtUtility.retrieveTokenPayload(token);
+		assertTrue("Signature not valid", JwtUtility.verifySignature((String) retrievedPayloadMap.get(JwtUtility.TOKEN_HEADER),
+				(String) retrievedPayloadMap.get(JwtUtility.TOKEN_PAYLOAD), (String) retrievedPayloadMap.get(JwtUtility.TOKEN_SIGNATURE),
+				enginePool));
+		assertFalse("Signature valid for another secret", JwtUtility.verifySignature((String) retrievedPayloadMap.get(JwtUtility.TOKEN_HEADER),
+				(String) retrievedPayloadMap.get(JwtUtility.TOKEN_PAYLOAD), (String) retrievedPayloadMap.get(JwtUtility.TOKEN_SIGNATURE),
+				new HmacSha256EnginePool(JwtUtility.generateSecret())));
+	}
+
+	@Test
+	public void verifySignatureClaimsTest() throws JwtException {
+		final Map<String, Object> payloadMap = ImmutableMap.<String, Object>builder() //
+				.put("lid", "jbloggs") //
+				.build();
+		final HmacSha256EnginePool enginePool = new HmacSha256EnginePool(JwtUtility.generateSecret());
+		final String token = JwtUtility.buildToken(payloadMap, enginePool);
+
+		assertTrue("Signature not valid", JwtUtility.verifySignature(JwtTokenParser.parse(token), enginePool));
+		assertFalse("Signature valid for another secret",
+				JwtUtility.verifySignature(JwtTokenParser.parse(token), new HmacSha256EnginePool(JwtUtility.generateSecret())));
+
+		// Set the lowest bit of the last character, which is an unused trailing bit in a 43 character signature
+		final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+		final int lastValue = alphabet.indexOf(token.charAt(token.length() - 1));
+		final String nonCanonicalToken = token.substring(0, token.length() - 1) + alphabet.charAt(lastValue | 1);
+		assertFalse("Non-canonical signature valid", JwtUtility.verifySignature(JwtTokenParser.parse(nonCanonicalToken), enginePool));
+
+		final String truncatedToken = token.substring(0, token.length() - 4);
+		assertFalse("Truncated signature valid", JwtUtility.verifySignature(JwtTokenParser.parse(truncatedToken), enginePool));
+	}
+}
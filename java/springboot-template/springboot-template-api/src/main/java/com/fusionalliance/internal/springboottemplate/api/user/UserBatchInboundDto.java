@@ -0,0 +1,73 @@
+package com.fusionalliance.internal.springboottemplate.api.user;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fusionalliance.internal.sharedspringboot.api.BaseInboundDto;
+
+/**
+ * This class implements an inbound DTO for a User batch, which runs many User requests in one transaction. Each {@link UserBatchItemInboundDto}
+ * is an ADD, UPDATE or UPDATE_CREDS request, processed in order.
+ * <p>
+ * If savepointPerItem is true, a failed item is rolled back on its own and the other items are committed; otherwise, the batch is all or nothing.
+ */
+public final class UserBatchInboundDto extends BaseInboundDto<UserBatchInboundDto> {
+	/** Most items a batch may contain */
+	public static final int MAX_ITEMS = 100;
+
+	final List<UserBatchItemInboundDto> itemList = new ArrayList<>();
+	boolean savepointPerItem;
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		final String requestType = getRequestType();
+
+		if (!requestType.isEmpty() && !requestType.equals(UserRequestTypeHolder.BATCH)) {
+			addValidationError("Unknown request type: " + requestType);
+		}
+
+		if (itemList.isEmpty()) {
+			addValidationError("The batch has no items.");
+		}
+		else if (itemList.size() > MAX_ITEMS) {
+			addValidationError(String.format("The batch has %1$d items; the limit is %2$d.", itemList.size(), MAX_ITEMS));
+		}
+
+		for (UserBatchItemInboundDto item : itemList) {
+			if (item == null) {
+				addValidationError("The batch has a null item.");
+			}
+			else {
+				validateChildDto(item);
+			}
+		}
+	}
+
+	public List<UserBatchItemInboundDto> getItemList() {
+		return new ArrayList<>(itemList);
+	}
+
+	public UserBatchInboundDto addItem(final UserBatchItemInboundDto itemParm) {
+		checkNotBuilt();
+
+		if (itemParm != null) {
+			itemList.add(itemParm);
+		}
+
+		return this;
+	}
+
+	public boolean isSavepointPerItem() {
+		return savepointPerItem;
+	}
+
+	public UserBatchInboundDto savepointPerItem(final boolean savepointPerItemParm) {
+		checkNotBuilt();
+
+		savepointPerItem = savepointPerItemParm;
+
+		return this;
+	}
+}
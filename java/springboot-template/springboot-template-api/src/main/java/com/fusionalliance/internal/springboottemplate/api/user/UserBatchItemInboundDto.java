@@ -0,0 +1,77 @@
+package com.fusionalliance.internal.springboottemplate.api.user;
+
+import java.util.Set;
+
+import com.fusionalliance.internal.sharedspringboot.api.BaseDto;
+import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * This class implements one item of a {@link UserBatchInboundDto}: a User request, its request type, and, for an update, the entity tag the update
+ * is based on, which is checked as an If-Match header would be. It is embedded in the batch, so it has no request type of its own.
+ * <p>
+ * The User is validated when its item is processed, so that its problems are reported in the messages of the item.
+ */
+public final class UserBatchItemInboundDto extends BaseDto<UserBatchItemInboundDto> {
+	/** Request types a batch item may have */
+	public static final Set<String> REQUEST_TYPES = ImmutableSet.of(RequestTypeHolder.ADD, RequestTypeHolder.UPDATE,
+			UserRequestTypeHolder.UPDATE_CREDS);
+
+	String requestType;
+	String ifMatch;
+	UserInboundDto user;
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		if (requestType == null || !REQUEST_TYPES.contains(requestType)) {
+			addValidationError("Unknown batch item request type: " + requestType);
+		}
+
+		if (user == null) {
+			addValidationError("The batch item has no user.");
+		}
+	}
+
+	public String getRequestType() {
+		return requestType;
+	}
+
+	public UserBatchItemInboundDto requestType(final String requestTypeParm) {
+		checkNotBuilt();
+
+		requestType = requestTypeParm;
+
+		return this;
+	}
+
+	public String getIfMatch() {
+		return ifMatch;
+	}
+
+	public UserBatchItemInboundDto ifMatch(final String ifMatchParm) {
+		checkNotBuilt();
+
+		ifMatch = ifMatchParm;
+
+		return this;
+	}
+
+	/**
+	 * Return the User, not built; the processor of the item builds it with the request type.
+	 *
+	 * @return
+	 */
+	public UserInboundDto getUser() {
+		return user;
+	}
+
+	public UserBatchItemInboundDto user(final UserInboundDto userParm) {
+		checkNotBuilt();
+
+		user = userParm;
+
+		return this;
+	}
+}
@@ -0,0 +1,74 @@
+package com.fusionalliance.internal.springboottemplate.api.user;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fusionalliance.internal.sharedspringboot.api.BaseInboundDto;
+
+/**
+ * This class implements an inbound DTO for a User import, which adds many Users in one request. It is built programmatically from an uploaded file,
+ * not read from JSON.
+ * <p>
+ * Each User is an ADD {@link UserInboundDto}, keyed by its row: its position in the file, starting with 1, not counting a header or blank lines. The
+ * rows are validated one by one when imported, so that each problem can be reported against its row. Rows that could not be parsed are not added,
+ * but are counted as rejected.
+ */
+public final class UserImportInboundDto extends BaseInboundDto<UserImportInboundDto> {
+	/** Rejected rows reported before an import gives up on the rest of the file */
+	public static final int MAX_REJECTED_ROWS = 100;
+
+	@JsonIgnore
+	private final transient Map<Long, UserInboundDto> userMap = new LinkedHashMap<>();
+
+	@JsonIgnore
+	private transient int rejectedRowCount;
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		final String requestType = getRequestType();
+
+		if (!requestType.isEmpty() && !requestType.equals(UserRequestTypeHolder.IMPORT)) {
+			addValidationError("Unknown request type: " + requestType);
+		}
+	}
+
+	/**
+	 * Return the Users by row, in row order.
+	 *
+	 * @return never null
+	 */
+	public Map<Long, UserInboundDto> getUserMap() {
+		return Collections.unmodifiableMap(userMap);
+	}
+
+	/**
+	 * Return the number of rows that could not be parsed.
+	 *
+	 * @return
+	 */
+	public int getRejectedRowCount() {
+		return rejectedRowCount;
+	}
+
+	public UserImportInboundDto addUser(final long rowParm, final UserInboundDto userInboundDtoParm) {
+		checkNotBuilt();
+
+		if (userInboundDtoParm != null) {
+			userMap.put(rowParm, userInboundDtoParm);
+		}
+
+		return this;
+	}
+
+	public UserImportInboundDto rejectedRowCount(final int rejectedRowCountParm) {
+		checkNotBuilt();
+
+		rejectedRowCount = rejectedRowCountParm;
+
+		return this;
+	}
+}
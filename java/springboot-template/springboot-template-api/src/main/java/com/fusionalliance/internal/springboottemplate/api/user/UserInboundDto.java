@@ -78,6 +78,33 @@ import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
  * <td>ignored</td>
  * </tr>
  * <tr>
+ * <td>after</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>optional, the nextCursor of the previous page</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * </tr>
+ * <tr>
+ * <td>limit</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>optional, 1 to MAX_LIST_LIMIT, DEFAULT_LIST_LIMIT if 0</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * </tr>
+ * <tr>
+ * <td>sortOrder</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * <td>optional, LOGIN</td>
+ * <td>ignored</td>
+ * <td>ignored</td>
+ * </tr>
+ * <tr>
  * <td>existingCreds</td>
  * <td>ignored</td>
  * <td>ignored</td>
@@ -98,20 +125,29 @@ import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
  * </table>
  */
 public final class UserInboundDto extends BaseInboundDto<UserInboundDto> {
+	/** Page size when a LIST request does not specify one */
+	public static final int DEFAULT_LIST_LIMIT = 100;
+	/** Largest page size a LIST request may specify */
+	public static final int MAX_LIST_LIMIT = 1000;
 
-	private long userKey;
+	long userKey;
 	/** Has this user been deactivated? */
-	private boolean deactivated;
+	boolean deactivated;
 	/** The unique value supplied on the login screen */
-	private String login;
+	String login;
 	/** Full fullName */
-	private String fullName;
-	private String description;
-	private boolean admin;
+	String fullName;
+	String description;
+	boolean admin;
 	/** Hashed password (current) */
-	private String existingCreds;
+	String existingCreds;
 	/** Hashed password (update to) */
-	private String updateToCreds;
+	String updateToCreds;
+	/** Cursor of the previous page, from its nextCursor */
+	String after;
+	/** Maximum number of Users in the page */
+	int limit;
+	UserListSortOrder sortOrder;
 
 	@Override
 	public void validate() {
@@ -139,6 +175,15 @@ public final class UserInboundDto extends BaseInboundDto<UserInboundDto> {
 			validateUserKey();
 			break;
 		case RequestTypeHolder.LIST:
+			if (limit == 0) {
+				limit = DEFAULT_LIST_LIMIT;
+			}
+			if (sortOrder == null) {
+				sortOrder = UserListSortOrder.LOGIN;
+			}
+
+			validateLimit();
+			validateAfter();
 			break;
 		case RequestTypeHolder.UPDATE:
 			validateUserKey();
@@ -194,6 +239,18 @@ public final class UserInboundDto extends BaseInboundDto<UserInboundDto> {
 		}
 	}
 
+	void validateLimit() {
+		if (limit < 1 || limit > MAX_LIST_LIMIT) {
+			addValidationError("Limit is not between 1 and " + MAX_LIST_LIMIT);
+		}
+	}
+
+	void validateAfter() {
+		if (after != null && sortOrder.parseCursor(after) == null) {
+			addValidationError("After is not a cursor of the " + sortOrder.getParameterValue() + " sort order");
+		}
+	}
+
 	public long getUserKey() {
 		return userKey;
 	}
@@ -226,6 +283,18 @@ public final class UserInboundDto extends BaseInboundDto<UserInboundDto> {
 		return updateToCreds;
 	}
 
+	public String getAfter() {
+		return after;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public UserListSortOrder getSortOrder() {
+		return sortOrder;
+	}
+
 	public UserInboundDto userKey(long userKeyParm) {
 		checkNotBuilt();
 
@@ -285,7 +354,31 @@ public final class UserInboundDto extends BaseInboundDto<UserInboundDto> {
 	public UserInboundDto updateToCreds(String credsParm) {
 		checkNotBuilt();
 
-		existingCreds = credsParm;
+		updateToCreds = credsParm;
+
+		return this;
+	}
+
+	public UserInboundDto after(String afterParm) {
+		checkNotBuilt();
+
+		after = afterParm;
+
+		return this;
+	}
+
+	public UserInboundDto limit(int limitParm) {
+		checkNotBuilt();
+
+		limit = limitParm;
+
+		return this;
+	}
+
+	public UserInboundDto sortOrder(UserListSortOrder sortOrderParm) {
+		checkNotBuilt();
+
+		sortOrder = sortOrderParm;
 
 		return this;
 	}
@@ -11,10 +11,14 @@ import java.util.List;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 
 /**
- * This class implements an outbound DTO that contains a list of {@link UserOutboundDto}.
+ * This class implements an outbound DTO that contains a page of {@link UserOutboundDto}.
+ * <p>
+ * When more Users follow, nextCursor is the value of the after parameter that requests the next page, in the same sort order; it is null on the last
+ * page.
  */
 public class UserListOutboundDto extends BaseOutboundDto<UserListOutboundDto> {
-	private final List<UserOutboundDto> userList = new ArrayList<>();
+	final List<UserOutboundDto> userList = new ArrayList<>();
+	String nextCursor;
 
 	@Override
 	public void validate() {
@@ -38,4 +42,16 @@ public class UserListOutboundDto extends BaseOutboundDto<UserListOutboundDto> {
 
 		return this;
 	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public UserListOutboundDto nextCursor(final String nextCursorParm) {
+		checkNotBuilt();
+
+		nextCursor = nextCursorParm;
+
+		return this;
+	}
 }
@@ -0,0 +1,124 @@
+package com.fusionalliance.internal.springboottemplate.api.user;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * This enum lists the orders in which a User list can be returned. Each is backed by an index, and ends with a unique column, so that a page can
+ * resume after the last User returned.
+ * <p>
+ * The cursor of a page carries the sort key of its last User rather than a reference to the User, so the next page starts at the right place even
+ * if that User has since been changed or removed. Cursors are opaque to clients and valid only for the order that produced them.
+ */
+public enum UserListSortOrder {
+	/** By login */
+	LOGIN("login"),
+	/** By full name, then login */
+	FULL_NAME("fullName"),
+	/** By user key, which is the order Users were added */
+	USER_KEY("userKey");
+
+	private final String parameterValue;
+
+	private UserListSortOrder(final String parameterValueParm) {
+		parameterValue = parameterValueParm;
+	}
+
+	/**
+	 * Return the value of the sort request parameter that selects this order.
+	 * 
+	 * @return
+	 */
+	public String getParameterValue() {
+		return parameterValue;
+	}
+
+	/**
+	 * Return the cursor that resumes this order after the User whose sort key is passed.
+	 * 
+	 * @param userKeyParm
+	 * @param loginParm
+	 *            required
+	 * @param fullNameParm
+	 *            required
+	 * @return
+	 */
+	public String formatCursor(final long userKeyParm, final String loginParm, final String fullNameParm) {
+		switch (this) {
+		case FULL_NAME:
+			final String cursor = loginParm.length() + ":" + loginParm + fullNameParm;
+
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+		case USER_KEY:
+			return Long.toString(userKeyParm);
+		default:
+			return loginParm;
+		}
+	}
+
+	/**
+	 * Return the sort key values a cursor of this order carries, in sort column order, or null if the cursor was not produced by this order.
+	 * 
+	 * @param cursorParm
+	 *            required
+	 * @return login for LOGIN; full name and login for FULL_NAME; user key for USER_KEY
+	 */
+	public Object[] parseCursor(final String cursorParm) {
+		switch (this) {
+		case FULL_NAME:
+			final String cursor;
+			try {
+				cursor = new String(Base64.getUrlDecoder().decode(cursorParm), StandardCharsets.UTF_8);
+			}
+			catch (final IllegalArgumentException e) {
+				return null;
+			}
+
+			final int separatorIndex = cursor.indexOf(':');
+			if (separatorIndex < 1) {
+				return null;
+			}
+
+			final int loginLength;
+			try {
+				loginLength = Integer.parseInt(cursor.substring(0, separatorIndex));
+			}
+			catch (final NumberFormatException e) {
+				return null;
+			}
+
+			final int fullNameIndex = separatorIndex + 1 + loginLength;
+			if (loginLength < 1 || fullNameIndex > cursor.length()) {
+				return null;
+			}
+
+			return new Object[] { cursor.substring(fullNameIndex), cursor.substring(separatorIndex + 1, fullNameIndex) };
+		case USER_KEY:
+			try {
+				return new Object[] { Long.parseLong(cursorParm) };
+			}
+			catch (final NumberFormatException e) {
+				return null;
+			}
+		default:
+			return new Object[] { cursorParm };
+		}
+	}
+
+	/**
+	 * Return the order selected by a sort request parameter value, or null if none matches.
+	 * 
+	 * @param parameterValueParm
+	 *            optional
+	 * @return
+	 */
+	public static UserListSortOrder fromParameterValue(final String parameterValueParm) {
+		for (final UserListSortOrder sortOrder : values()) {
+			if (sortOrder.parameterValue.equals(parameterValueParm)) {
+				return sortOrder;
+			}
+		}
+
+		return null;
+	}
+}
@@ -14,16 +14,16 @@ import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
  */
 public class UserOutboundDto extends BaseOutboundDto<UserOutboundDto> {
 
-	private long userKey;
+	long userKey;
 	/** Has this user been deactivated? */
-	private boolean deactivated;
+	boolean deactivated;
 	/** The unique value supplied on the login screen */
-	private String login;
+	String login;
 	// private String creds; intentionally omitted
 	/** Full fullName */
-	private String fullName;
-	private String description;
-	private boolean admin;
+	String fullName;
+	String description;
+	boolean admin;
 
 	@Override
 	public void validate() {
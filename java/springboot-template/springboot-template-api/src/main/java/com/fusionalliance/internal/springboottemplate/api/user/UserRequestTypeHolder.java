@@ -11,12 +11,14 @@ import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
 import com.google.common.collect.ImmutableSet;
 
 /**
- * This class extends {@link RequestTypeHolder} to provide a UPDATE_CREDS request type.
+ * This class extends {@link RequestTypeHolder} to provide UPDATE_CREDS, IMPORT and BATCH request types.
  */
 public class UserRequestTypeHolder extends RequestTypeHolder {
 	public static final String UPDATE_CREDS = "UPDATE_CREDS";
+	public static final String IMPORT = "IMPORT";
+	public static final String BATCH = "BATCH";
 
-	private static final Set<String> USER_REQUEST_TYPES = ImmutableSet.of(UPDATE_CREDS);
+	private static final Set<String> USER_REQUEST_TYPES = ImmutableSet.of(UPDATE_CREDS, IMPORT, BATCH);
 
 	/**
 	 * Constructor
@@ -0,0 +1,146 @@
+package com.fusionalliance.internal.springboottemplate.api.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.fusionalliance.internal.sharedspringboot.api.BatchOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.BatchOutboundDtoTypeAdapter;
+import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
+import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * This test class contains tests for the TypeAdapters generated for {@link UserInboundDto} and {@link BatchOutboundDto}. {@link GsonHelper#GSON}
+ * uses the generated adapters; the reflective Gson has the same settings but no factories, so it uses Gson's reflective adapter.
+ */
+public class GeneratedTypeAdapterTest {
+	private static final Gson REFLECTIVE_GSON = new GsonBuilder() //
+			.serializeNulls() //
+			.disableHtmlEscaping() //
+			.create();
+
+	@Test
+	public void adapterGeneratedTest() {
+		assertTrue("Generated adapter not used for UserInboundDto", //
+				GsonHelper.GSON.getAdapter(UserInboundDto.class) instanceof UserInboundDtoTypeAdapter);
+		assertTrue("Generated adapter not used for BatchOutboundDto", //
+				GsonHelper.GSON.getAdapter(BatchOutboundDto.class) instanceof BatchOutboundDtoTypeAdapter);
+	}
+
+	@Test
+	public void userInboundDtoWriteTest() {
+		final UserInboundDto userInboundDto = newUserInboundDto();
+
+		assertEquals("JSON mismatch", REFLECTIVE_GSON.toJson(userInboundDto), GsonHelper.GSON.toJson(userInboundDto));
+	}
+
+	@Test
+	public void userInboundDtoNullsTest() {
+		final UserInboundDto userInboundDto = new UserInboundDto();
+
+		assertEquals("JSON mismatch", REFLECTIVE_GSON.toJson(userInboundDto), GsonHelper.GSON.toJson(userInboundDto));
+	}
+
+	@Test
+	public void userInboundDtoRoundTripTest() {
+		final String json = REFLECTIVE_GSON.toJson(newUserInboundDto());
+
+		final UserInboundDto generatedRead = GsonHelper.GSON.fromJson(json, UserInboundDto.class);
+		final UserInboundDto reflectiveRead = REFLECTIVE_GSON.fromJson(json, UserInboundDto.class);
+
+		assertEquals("Generated round trip mismatch", json, GsonHelper.GSON.toJson(generatedRead));
+		assertEquals("Reflective read mismatch", json, REFLECTIVE_GSON.toJson(generatedRead));
+		assertEquals("Inherited field mismatch", RequestTypeHolder.UPDATE, generatedRead.getRequestType());
+		assertEquals("Inherited field mismatch", "jdoe", generatedRead.getLoginInfo().getLogin());
+		assertEquals("Readers disagree", REFLECTIVE_GSON.toJson(reflectiveRead), REFLECTIVE_GSON.toJson(generatedRead));
+	}
+
+	@Test
+	public void userInboundDtoReadTest() {
+		final String json = "{\"unknown\":{\"nested\":[1,2]},\"login\":\"jdoe\",\"description\":null,\"limit\":25,\"sortOrder\":\"FULL_NAME\","
+				+ "\"extra\":\"x\",\"updateToCreds\":null}";
+
+		final UserInboundDto generatedRead = GsonHelper.GSON.fromJson(json, UserInboundDto.class);
+		final UserInboundDto reflectiveRead = REFLECTIVE_GSON.fromJson(json, UserInboundDto.class);
+
+		assertEquals("Readers disagree", REFLECTIVE_GSON.toJson(reflectiveRead), REFLECTIVE_GSON.toJson(generatedRead));
+		assertEquals("Login mismatch", "jdoe", generatedRead.getLogin());
+		assertEquals("Limit mismatch", 25, generatedRead.getLimit());
+		assertEquals("Sort order mismatch", UserListSortOrder.FULL_NAME, generatedRead.getSortOrder());
+		assertNull("Description not null", generatedRead.getDescription());
+	}
+
+	@Test
+	public void batchOutboundDtoWriteTest() {
+		final BatchOutboundDto batchOutboundDto = newBatchOutboundDto();
+
+		assertEquals("JSON mismatch", REFLECTIVE_GSON.toJson(batchOutboundDto), GsonHelper.GSON.toJson(batchOutboundDto));
+	}
+
+	@Test
+	public void batchOutboundDtoNullsTest() {
+		final BatchOutboundDto batchOutboundDto = new BatchOutboundDto();
+
+		assertEquals("JSON mismatch", REFLECTIVE_GSON.toJson(batchOutboundDto), GsonHelper.GSON.toJson(batchOutboundDto));
+	}
+
+	@Test
+	public void batchOutboundDtoRoundTripTest() {
+		final String json = REFLECTIVE_GSON.toJson(newBatchOutboundDto());
+
+		final BatchOutboundDto generatedRead = GsonHelper.GSON.fromJson(json, BatchOutboundDto.class);
+		final BatchOutboundDto reflectiveRead = REFLECTIVE_GSON.fromJson(json, BatchOutboundDto.class);
+
+		assertEquals("Generated round trip mismatch", json, GsonHelper.GSON.toJson(generatedRead));
+		assertEquals("Reflective read mismatch", json, REFLECTIVE_GSON.toJson(generatedRead));
+		assertEquals("Item count mismatch", 2, generatedRead.getItemMessagesList().size());
+		assertEquals("Readers disagree", REFLECTIVE_GSON.toJson(reflectiveRead), REFLECTIVE_GSON.toJson(generatedRead));
+	}
+
+	private static UserInboundDto newUserInboundDto() {
+		return new UserInboundDto() //
+				.requestTypeHolder(new RequestTypeHolder(RequestTypeHolder.UPDATE)) //
+				.loginInfo(new LoginInfo("jdoe", "John Doe", true)) //
+				.ifMatch("W/\"42\"") //
+				.userKey(42) //
+				.login("jdoe") //
+				.fullName("John \"Johnny\" Doe <jdoe@example.com>") //
+				.admin(true) //
+				.updateToCreds("hashed") //
+				.limit(10) //
+				.sortOrder(UserListSortOrder.LOGIN);
+	}
+
+	private static BatchOutboundDto newBatchOutboundDto() {
+		final BatchOutboundDto batchOutboundDto = new BatchOutboundDto() //
+				.entityTag("W/\"42\"") //
+				.addItemMessages(newMessages(false)) //
+				.addItemMessages(newMessages(true));
+
+		batchOutboundDto.putMessages(newMessages(true));
+
+		return batchOutboundDto;
+	}
+
+	private static Messages newMessages(final boolean errorParm) {
+		MessageManager.initialize();
+		try {
+			MessageManager.addInfo("Item %1$s processed", "1");
+			if (errorParm) {
+				MessageManager.addErrorEntity("Login %1$s is taken", "User", 42, "login", "jdoe");
+			}
+			MessageManager.setCompletionText(errorParm ? "Failed" : "Done");
+
+			return MessageManager.makeFinal();
+		} finally {
+			MessageManager.destroy();
+		}
+	}
+}
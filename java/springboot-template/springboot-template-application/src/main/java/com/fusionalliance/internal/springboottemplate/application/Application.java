@@ -1,11 +1,16 @@
 package com.fusionalliance.internal.springboottemplate.application;
 
 import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.tomcat.jdbc.pool.DataSource;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
@@ -17,11 +22,17 @@ import org.springframework.boot.web.servlet.ServletComponentScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
+import com.fusionalliance.internal.springboottemplate.transaction.ReplicaRoutingDataSource;
+import com.fusionalliance.internal.springboottemplate.transaction.ReplicaRoutingTransactionLayer;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
 
 /**
  * This class is the Spring Boot entry point. It also provides access to select methods of the Spring application context.
@@ -31,6 +42,9 @@ import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
  * <p>
  * Note that the primary transaction manager name is "DefaultTransactionManager"; this name is used in the base implementation of TransactionLayer.
  * Other transaction managers can be added with their own names.
+ * <p>
+ * The default DataSource routes read-only transactions to the read replicas, if any are configured, and everything else to the primary; see
+ * {@link ReplicaRoutingDataSource} and {@link ReplicaRoutingTransactionLayer}.
  */
 @Configuration
 @EnableAutoConfiguration(exclude = { //
@@ -44,6 +58,7 @@ import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 		"com.fusionalliance.internal.sharedspringboot.transaction", //
 		"com.fusionalliance.internal.jwt" })
 @ServletComponentScan(basePackages = { "com.fusionalliance.internal.springboottemplate.service", //
+		"com.fusionalliance.internal.springboottemplate.application.web", //
 		"com.fusionalliance.internal.jwt.service", //
 		"com.fusionalliance.internal.jwt.filter" })
 @EnableTransactionManagement()
@@ -60,33 +75,104 @@ public class Application {
 	}
 
 	/**
-	 * Create a pooled DataSource for the default database, in this case, PostgreSQL.
+	 * Create a pooled DataSource for the primary of the default database, in this case, PostgreSQL.
+	 * 
+	 * @return
+	 */
+	@Bean(name = "defaultPrimaryDataSource")
+	public DataSource createDefaultPrimaryDataSource() {
+		return createPooledDataSource("jdbc:postgresql://ec2-54-83-58-222.compute-1.amazonaws.com:5432/d6iub63mmp60e3");
+	}
+
+	/**
+	 * Create a DataSource routing between the primary and the read replicas of the default database. Each replica gets its own pool, with the
+	 * settings of the primary's; without replicas, every connection comes from the primary.
+	 * 
+	 * @param primaryDataSourceParm
+	 * @param replicaUrlsParm
+	 *            persistence.replica.urls, the JDBC URLs of the replicas, comma separated; none by default
+	 * @param maxLagMillisParm
+	 *            persistence.replica.maxLagMillis, the most a replica may lag and still be used
+	 * @param lagCheckIntervalMillisParm
+	 *            persistence.replica.lagCheckIntervalMillis, how often the lag of each replica is checked
+	 * @return
+	 */
+	@Bean(name = "defaultRoutingDataSource")
+	public ReplicaRoutingDataSource createDefaultRoutingDataSource(@Qualifier("defaultPrimaryDataSource") final DataSource primaryDataSourceParm,
+			@Value("${persistence.replica.urls:}") final String[] replicaUrlsParm, //
+			@Value("${persistence.replica.maxLagMillis:1000}") final long maxLagMillisParm, //
+			@Value("${persistence.replica.lagCheckIntervalMillis:1000}") final long lagCheckIntervalMillisParm //
+	) {
+		final List<javax.sql.DataSource> replicaDataSources = new ArrayList<>();
+		for (final String replicaUrl : replicaUrlsParm) {
+			if (!replicaUrl.trim().isEmpty()) {
+				replicaDataSources.add(createPooledDataSource(replicaUrl.trim()));
+			}
+		}
+
+		return new ReplicaRoutingDataSource(primaryDataSourceParm, replicaDataSources, maxLagMillisParm, lagCheckIntervalMillisParm);
+	}
+
+	/**
+	 * Create the default DataSource, used by Hibernate and JDBC alike. Each connection is obtained at its first statement, once the transaction is
+	 * known to be read-only or not, so that it can be routed.
+	 * <p>
+	 * The connection defaults are those of the PostgreSQL driver; declaring them keeps the proxy from connecting at startup to detect them.
+	 * 
+	 * @param routingDataSourceParm
+	 * @return
+	 */
+	@Bean(name = "defaultDataSource")
+	public LazyConnectionDataSourceProxy createDefaultDataSource(
+			@Qualifier("defaultRoutingDataSource") final ReplicaRoutingDataSource routingDataSourceParm) {
+		final LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		dataSource.setTargetDataSource(routingDataSourceParm);
+		dataSource.afterPropertiesSet();
+
+		return dataSource;
+	}
+
+	/**
+	 * Create a pooled DataSource for a PostgreSQL server of the default database.
 	 * <p>
 	 * Use the Tomcat pooled DataSource. Spring Boot 2 prefers HikariDataSource, but this appears to be a new implementation, and, as of April 2018,
 	 * the documentation seems sparse.
 	 * 
+	 * @param urlParm
+	 *            required
 	 * @return
 	 */
-	@Bean(name = "defaultDataSource")
-	public DataSource createDefaultDataSource() {
+	private static DataSource createPooledDataSource(final String urlParm) {
 		final DataSource dataSource = new DataSource();
 		dataSource.setDriverClassName("org.postgresql.Driver");
-		dataSource.setUrl("jdbc:postgresql://ec2-54-83-58-222.compute-1.amazonaws.com:5432/d6iub63mmp60e3");
+		dataSource.setUrl(urlParm);
 		dataSource.setUsername("zyzpvqwduyqiti");
 		dataSource.setPassword("3cd7e11084757b2323a3df58891be95bcbc3e14c986e793909e7aed3c50dd254");
-		dataSource.setConnectionProperties("sslmode=require; testOnBorrow=true; validationInterval=30000; maxAge=600000;");
+		// The driver rewrites batched inserts into multi-row inserts
+		dataSource.setConnectionProperties("sslmode=require; testOnBorrow=true; validationInterval=30000; maxAge=600000;" //
+				+ " reWriteBatchedInserts=true;");
+		// Reuse the prepared statements of each pooled connection; the driver prepares them on the server after a few executions
+		dataSource.setJdbcInterceptors("StatementCache(prepared=true,callable=false,max=100)");
 
 		return dataSource;
 	}
 
 	/**
 	 * Create a Hibernate session factory for the default DataSource.
+	 * <p>
+	 * Inserts and updates are sent to the database in JDBC batches, ordered by entity so that each batch holds one statement; batching 0 turns it
+	 * off. Entities whose keys come from a pooled or hi-lo generator, such as User, take part in insert batches.
 	 * 
 	 * @param defaultDataSourceParm
+	 * @param jdbcBatchSizeParm
+	 *            persistence.jdbc.batchSize, the most statements sent in one batch
 	 * @return
 	 */
 	@Bean(name = "defaultSessionFactory")
-	public SessionFactory getHibernateSessionFactory(@Qualifier("defaultDataSource") final DataSource defaultDataSourceParm) {
+	public SessionFactory getHibernateSessionFactory(@Qualifier("defaultDataSource") final javax.sql.DataSource defaultDataSourceParm,
+			@Value("${persistence.jdbc.batchSize:50}") final int jdbcBatchSizeParm) {
 		// Spring artifice for preparing a SessionFactory; a factory prepares a factory
 		final LocalSessionFactoryBean sessionFactoryFactory = new LocalSessionFactoryBean();
 		sessionFactoryFactory.setDataSource(defaultDataSourceParm);
@@ -98,6 +184,16 @@ public class Application {
 		hibernateProperties.put("format.sql", true);
 		hibernateProperties.put("hibernate.hbm2ddl.auto", "update");
 		hibernateProperties.put("hibernate.jdbc.time_zone", "UTC");
+		hibernateProperties.put("hibernate.jdbc.batch_size", jdbcBatchSizeParm);
+		hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+		hibernateProperties.put("hibernate.order_inserts", true);
+		hibernateProperties.put("hibernate.order_updates", true);
+		// Second-level cache, per node, used by the entities and natural IDs that specify it; the regions are bounded in ehcache.xml
+		hibernateProperties.put("hibernate.cache.use_second_level_cache", true);
+		hibernateProperties.put("hibernate.cache.region.factory_class", "org.hibernate.cache.jcache.JCacheRegionFactory");
+		hibernateProperties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+		hibernateProperties.put("hibernate.javax.cache.uri", Application.class.getResource("/ehcache.xml").toString());
+		hibernateProperties.put("hibernate.generate_statistics", true);
 
 		sessionFactoryFactory.setHibernateProperties(hibernateProperties);
 		try {
@@ -112,8 +208,22 @@ public class Application {
 		return sessionFactory;
 	}
 
+	/**
+	 * Publish the statistics of the default Hibernate session factory as metrics, including the hits, misses, and puts of each second-level cache
+	 * region.
+	 * 
+	 * @param sessionFactoryParm
+	 * @return
+	 */
+	@Bean(name = "defaultSessionFactoryMetrics")
+	public MeterBinder createHibernateMetrics(@Qualifier("defaultSessionFactory") final SessionFactory sessionFactoryParm) {
+		return new HibernateMetrics(sessionFactoryParm, "defaultSessionFactory", Collections.emptyList());
+	}
+
 	/**
 	 * Create a Hibernate transaction manager for the default Hibernate session factory.
+	 * <p>
+	 * Nested transactions are allowed, so that a batch can take a JDBC savepoint per item.
 	 * 
 	 * @param sessionFactoryParm
 	 * @return
@@ -122,6 +232,7 @@ public class Application {
 	public HibernateTransactionManager createHibernateTransactionManager(
 			@Qualifier("defaultSessionFactory") final SessionFactory sessionFactoryParm) {
 		HibernateTransactionManager transactionManager = new HibernateTransactionManager(sessionFactoryParm);
+		transactionManager.setNestedTransactionAllowed(true);
 
 		return transactionManager;
 	}
@@ -0,0 +1,257 @@
+package com.fusionalliance.internal.springboottemplate.application.web;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Set;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.MediaType;
+
+/**
+ * This class wraps a response so that its body is compressed, provided it reaches the minimum size and has a compressible content type.
+ * <p>
+ * The first bytes of the body, up to the minimum size, are held back until it is known whether the body will exceed it; small bodies are then written
+ * as they are, with their Content-Length. Flushes are ignored while the body is held back, so the headers are not committed before the decision is
+ * made. {@link #finish()} must be called once the response is complete.
+ */
+final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+	private final CompressionAlgorithm algorithm;
+	private final Set<MediaType> compressibleMediaTypes;
+	private final byte[] heldBytes;
+	private int heldByteCount;
+	/** Content-Length set by the application, withheld as the body may be compressed; -1 if not set */
+	private long contentLength = -1;
+	/** Null until it is decided whether to compress; then the stream the body is written to */
+	private OutputStream target;
+	private boolean compressing;
+	private boolean finished;
+	private ServletOutputStream servletOutputStream;
+	private PrintWriter writer;
+
+	CompressingResponseWrapper(final HttpServletResponse responseParm, final CompressionAlgorithm algorithmParm,
+			final Set<MediaType> compressibleMediaTypesParm, final int minResponseSizeParm) {
+		super(responseParm);
+
+		algorithm = algorithmParm;
+		compressibleMediaTypes = compressibleMediaTypesParm;
+		heldBytes = new byte[minResponseSizeParm];
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called.");
+		}
+
+		if (servletOutputStream == null) {
+			servletOutputStream = new CompressingServletOutputStream();
+		}
+
+		return servletOutputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (servletOutputStream != null) {
+				throw new IllegalStateException("getOutputStream() has already been called.");
+			}
+
+			servletOutputStream = new CompressingServletOutputStream();
+			writer = new PrintWriter(new OutputStreamWriter(servletOutputStream, getCharacterEncoding()));
+		}
+
+		return writer;
+	}
+
+	@Override
+	public void setContentLength(final int lengthParm) {
+		setContentLengthLong(lengthParm);
+	}
+
+	@Override
+	public void setContentLengthLong(final long lengthParm) {
+		if (target != null && !compressing) {
+			super.setContentLengthLong(lengthParm);
+
+			return;
+		}
+
+		contentLength = lengthParm;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+
+		if (target != null) {
+			target.flush();
+			super.flushBuffer();
+		}
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+
+		resetHeldBytes();
+	}
+
+	@Override
+	public void resetBuffer() {
+		super.resetBuffer();
+
+		resetHeldBytes();
+	}
+
+	/**
+	 * Write any body still held back and complete the compressed data. The underlying OutputStream is not closed.
+	 *
+	 * @throws IOException
+	 */
+	void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+
+		finished = true;
+
+		if (writer != null) {
+			writer.flush();
+		}
+
+		if (target == null) {
+			decide(false);
+		}
+
+		if (compressing) {
+			target.close();
+		}
+	}
+
+	private void resetHeldBytes() {
+		if (target == null) {
+			heldByteCount = 0;
+			contentLength = -1;
+		}
+	}
+
+	private void write(final byte[] bytesParm, final int offsetParm, final int lengthParm) throws IOException {
+		if (target == null) {
+			if (heldByteCount + lengthParm <= heldBytes.length) {
+				System.arraycopy(bytesParm, offsetParm, heldBytes, heldByteCount, lengthParm);
+				heldByteCount += lengthParm;
+
+				return;
+			}
+
+			decide(true);
+		}
+
+		target.write(bytesParm, offsetParm, lengthParm);
+	}
+
+	/**
+	 * Decide whether to compress, then write the bytes held back.
+	 *
+	 * @param minResponseSizeExceededParm
+	 * @throws IOException
+	 */
+	private void decide(final boolean minResponseSizeExceededParm) throws IOException {
+		final OutputStream responseOutputStream = super.getOutputStream();
+
+		if (minResponseSizeExceededParm && isCompressible()) {
+			compressing = true;
+			setHeader("Content-Encoding", algorithm.getContentEncoding());
+			// Closing the compressing stream must not close the response
+			target = algorithm.wrap(new FilterOutputStream(responseOutputStream) {
+				@Override
+				public void write(final byte[] bytesParm, final int offsetParm, final int lengthParm) throws IOException {
+					out.write(bytesParm, offsetParm, lengthParm);
+				}
+
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			});
+		}
+		else {
+			target = responseOutputStream;
+			if (contentLength >= 0) {
+				super.setContentLengthLong(contentLength);
+			}
+		}
+
+		target.write(heldBytes, 0, heldByteCount);
+	}
+
+	private boolean isCompressible() {
+		if (containsHeader("Content-Encoding") || getContentType() == null) {
+			return false;
+		}
+
+		final MediaType mediaType;
+		try {
+			mediaType = MediaType.parseMediaType(getContentType());
+		}
+		catch (final IllegalArgumentException e) {
+			return false;
+		}
+
+		for (final MediaType compressibleMediaType : compressibleMediaTypes) {
+			if (compressibleMediaType.includes(mediaType)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * This class is the ServletOutputStream given to the application.
+	 */
+	private final class CompressingServletOutputStream extends ServletOutputStream {
+		@Override
+		public void write(final int byteParm) throws IOException {
+			CompressingResponseWrapper.this.write(new byte[] { (byte) byteParm }, 0, 1);
+		}
+
+		@Override
+		public void write(final byte[] bytesParm, final int offsetParm, final int lengthParm) throws IOException {
+			CompressingResponseWrapper.this.write(bytesParm, offsetParm, lengthParm);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (target != null) {
+				target.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			finish();
+			CompressingResponseWrapper.super.getOutputStream().close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(final WriteListener writeListenerParm) {
+			throw new UnsupportedOperationException("Asynchronous output is not supported when compressing.");
+		}
+	}
+}
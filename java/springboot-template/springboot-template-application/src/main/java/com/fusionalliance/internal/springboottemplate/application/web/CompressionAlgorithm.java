@@ -0,0 +1,86 @@
+package com.fusionalliance.internal.springboottemplate.application.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This enum lists the response compression algorithms supported by {@link CompressionFilter}, by their Content-Encoding names.
+ */
+public enum CompressionAlgorithm {
+	GZIP("gzip") {
+		@Override
+		OutputStream wrap(final OutputStream outputStreamParm) throws IOException {
+			return new GZIPOutputStream(outputStreamParm, BUFFER_SIZE);
+		}
+	},
+	/** The zlib format (RFC 1950), which is what HTTP calls deflate */
+	DEFLATE("deflate") {
+		@Override
+		OutputStream wrap(final OutputStream outputStreamParm) {
+			final Deflater deflater = new Deflater();
+
+			return new DeflaterOutputStream(outputStreamParm, deflater, BUFFER_SIZE) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					}
+					finally {
+						// Only the default Deflater is ended by DeflaterOutputStream, and it has a tiny buffer
+						deflater.end();
+					}
+				}
+			};
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private final String contentEncoding;
+
+	CompressionAlgorithm(final String contentEncodingParm) {
+		contentEncoding = contentEncodingParm;
+	}
+
+	/**
+	 * Return the value for the Content-Encoding header, which is also the token expected in the Accept-Encoding header.
+	 *
+	 * @return
+	 */
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	/**
+	 * Return the algorithm with the Content-Encoding name passed, ignoring case.
+	 *
+	 * @param contentEncodingParm
+	 *            required
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the name is not supported
+	 */
+	public static CompressionAlgorithm fromContentEncoding(final String contentEncodingParm) {
+		for (final CompressionAlgorithm algorithm : values()) {
+			if (algorithm.contentEncoding.equalsIgnoreCase(contentEncodingParm)) {
+				return algorithm;
+			}
+		}
+
+		throw new IllegalArgumentException("The compression algorithm " + contentEncodingParm + " is not supported.");
+	}
+
+	/**
+	 * Return an OutputStream that compresses to the OutputStream passed. Closing it finishes the compressed data and releases the native compressor;
+	 * it also closes the OutputStream passed.
+	 *
+	 * @param outputStreamParm
+	 *            required
+	 * @return
+	 * @throws IOException
+	 */
+	abstract OutputStream wrap(OutputStream outputStreamParm) throws IOException;
+}
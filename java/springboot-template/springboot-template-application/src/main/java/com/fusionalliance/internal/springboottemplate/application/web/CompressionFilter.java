@@ -0,0 +1,128 @@
+package com.fusionalliance.internal.springboottemplate.application.web;
+
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+
+/**
+ * This class implements a filter that compresses RESTful responses for clients that accept the configured algorithm. Only responses with a
+ * compressible content type that reach the minimum size are compressed; below that, compression costs more than it saves.
+ * <p>
+ * The filter is configured with:
+ * <ul>
+ * <li>compression.enabled, default true</li>
+ * <li>compression.algorithm, gzip (default) or deflate</li>
+ * <li>compression.minResponseSize, in bytes, default 2048</li>
+ * <li>compression.mimeTypes, comma-separated, default application/json</li>
+ * </ul>
+ * Static assets are not filtered; they are compressed at build time, see {@link StaticAssetConfiguration}.
+ */
+@WebFilter(urlPatterns = { "/rs/*" })
+public class CompressionFilter implements Filter {
+	private final boolean enabled;
+	private final CompressionAlgorithm algorithm;
+	private final int minResponseSize;
+	private final Set<MediaType> compressibleMediaTypes = new LinkedHashSet<>();
+
+	@Autowired
+	public CompressionFilter( //
+			@Value("${compression.enabled:true}") final boolean enabledParm, //
+			@Value("${compression.algorithm:gzip}") final String algorithmParm, //
+			@Value("${compression.minResponseSize:2048}") final int minResponseSizeParm, //
+			@Value("${compression.mimeTypes:application/json}") final String[] mimeTypesParm //
+	) {
+		ValidationUtility.checkGoodConditionMet("The minimum response size is negative.", minResponseSizeParm >= 0);
+
+		enabled = enabledParm;
+		algorithm = CompressionAlgorithm.fromContentEncoding(algorithmParm.trim());
+		minResponseSize = minResponseSizeParm;
+		for (final String mimeType : mimeTypesParm) {
+			compressibleMediaTypes.add(MediaType.parseMediaType(mimeType.trim()));
+		}
+	}
+
+	@Override
+	public void init(final FilterConfig filterConfigParm) throws ServletException {
+		// Do nothing
+	}
+
+	@Override
+	public void doFilter(final ServletRequest requestParm, final ServletResponse responseParm, final FilterChain filterChainParm)
+			throws IOException, ServletException {
+		final HttpServletRequest request = (HttpServletRequest) requestParm;
+		final HttpServletResponse response = (HttpServletResponse) responseParm;
+
+		if (!enabled) {
+			filterChainParm.doFilter(request, response);
+
+			return;
+		}
+
+		// Whether or not this response is compressed, caches must key it by Accept-Encoding
+		response.addHeader("Vary", "Accept-Encoding");
+
+		if (!isAccepted(request)) {
+			filterChainParm.doFilter(request, response);
+
+			return;
+		}
+
+		final CompressingResponseWrapper compressingResponse = new CompressingResponseWrapper(response, algorithm, compressibleMediaTypes,
+				minResponseSize);
+
+		filterChainParm.doFilter(request, compressingResponse);
+
+		compressingResponse.finish();
+	}
+
+	@Override
+	public void destroy() {
+		// Do nothing
+	}
+
+	/**
+	 * Return true if an Accept-Encoding header lists the algorithm, or *, without q=0.
+	 *
+	 * @param requestParm
+	 * @return
+	 */
+	private boolean isAccepted(final HttpServletRequest requestParm) {
+		final Enumeration<String> acceptEncodings = requestParm.getHeaders("Accept-Encoding");
+		if (acceptEncodings == null) {
+			return false;
+		}
+
+		while (acceptEncodings.hasMoreElements()) {
+			for (final String coding : acceptEncodings.nextElement().split(",")) {
+				final String[] parts = coding.split(";");
+				final String name = parts[0].trim();
+				if (!name.equalsIgnoreCase(algorithm.getContentEncoding()) && !name.equals("*")) {
+					continue;
+				}
+
+				if (parts.length < 2 || !parts[1].trim().matches("(?i)q\\s*=\\s*0(\\.0*)?")) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
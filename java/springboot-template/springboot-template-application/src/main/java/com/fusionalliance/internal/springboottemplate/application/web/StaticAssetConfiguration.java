@@ -0,0 +1,46 @@
+package com.fusionalliance.internal.springboottemplate.application.web;
+
+import java.io.IOException;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.GzipResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+/**
+ * This class configures how the Angular client, packaged under {@value #STATIC_LOCATION}, is served.
+ * <p>
+ * The build writes a gzip copy of each compressible file next to it (angular-client/precompress.js); {@link GzipResourceResolver} serves that copy to
+ * clients that accept gzip, so nothing is compressed per request. {@link StaticAssetHeaderInterceptor} adds strong ETags and cache headers.
+ * <p>
+ * This configuration replaces the Spring Boot default mapping of /**, which it precedes.
+ */
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StaticAssetConfiguration implements WebMvcConfigurer {
+	public static final String STATIC_LOCATION = "classpath:/static/";
+
+	private final StaticAssetHeaderInterceptor staticAssetHeaderInterceptor;
+
+	public StaticAssetConfiguration() throws IOException {
+		staticAssetHeaderInterceptor = new StaticAssetHeaderInterceptor(STATIC_LOCATION);
+	}
+
+	@Override
+	public void addResourceHandlers(final ResourceHandlerRegistry registryParm) {
+		registryParm.addResourceHandler("/**") //
+				.addResourceLocations(STATIC_LOCATION) //
+				.resourceChain(true) //
+				.addResolver(new GzipResourceResolver()) //
+				.addResolver(new PathResourceResolver());
+	}
+
+	@Override
+	public void addInterceptors(final InterceptorRegistry registryParm) {
+		registryParm.addInterceptor(staticAssetHeaderInterceptor);
+	}
+}
@@ -0,0 +1,99 @@
+package com.fusionalliance.internal.springboottemplate.application.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * This class adds validators and cache headers to static asset responses, and answers a matching If-None-Match with 304 Not Modified.
+ * <p>
+ * The ETag of each asset, and of its .gz copy, is the hash of its content, computed once when the application starts; different content always has a
+ * different ETag, so it is a strong validator. Bundles whose names contain the Angular CLI content hash may be cached for a year, as a change always
+ * gets a new name. Everything else, notably index.html, must be revalidated before use.
+ */
+final class StaticAssetHeaderInterceptor implements HandlerInterceptor {
+	/** Production bundle names contain a 20-digit hex hash of their content; e.g., main.3a4b...9f.bundle.js */
+	private static final Pattern HASHED_NAME_PATTERN = Pattern.compile("(.*/)?[^/]+\\.[0-9a-f]{20}\\.[^/]+");
+	private static final String HASHED_CACHE_CONTROL = "public, max-age=31536000";
+	private static final String UNHASHED_CACHE_CONTROL = "no-cache";
+	private static final String GZIP_SUFFIX = ".gz";
+
+	/** ETags by path relative to the static location, including .gz copies */
+	private final Map<String, String> etags = new HashMap<>();
+
+	/**
+	 * Constructor; hash every asset under the location.
+	 *
+	 * @param locationParm
+	 *            required, a directory ending in /
+	 * @throws IOException
+	 *             if an asset cannot be read
+	 */
+	StaticAssetHeaderInterceptor(final String locationParm) throws IOException {
+		final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+		final Resource root = resolver.getResource(locationParm);
+		if (!root.exists()) {
+			// The client has not been built
+			return;
+		}
+
+		final String rootUrl = root.getURL().toString();
+		for (final Resource resource : resolver.getResources(locationParm + "**")) {
+			final String url = resource.getURL().toString();
+			if (url.endsWith("/") || !url.startsWith(rootUrl) || !resource.isReadable()) {
+				continue;
+			}
+
+			try (InputStream inputStream = resource.getInputStream()) {
+				final String hash = Hashing.sha256().hashBytes(ByteStreams.toByteArray(inputStream)).toString();
+				etags.put(url.substring(rootUrl.length()), '"' + hash.substring(0, 32) + '"');
+			}
+		}
+	}
+
+	@Override
+	public boolean preHandle(final HttpServletRequest requestParm, final HttpServletResponse responseParm, final Object handlerParm) {
+		if (!(handlerParm instanceof ResourceHttpRequestHandler)) {
+			return true;
+		}
+
+		final String path = (String) requestParm.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+		final String identityEtag = path == null ? null : etags.get(path);
+		if (identityEtag == null) {
+			return true;
+		}
+
+		// Choose the representation as GzipResourceResolver does
+		final String gzipEtag = etags.get(path + GZIP_SUFFIX);
+		final String etag;
+		if (gzipEtag == null) {
+			etag = identityEtag;
+		}
+		else {
+			responseParm.setHeader("Vary", "Accept-Encoding");
+
+			final String acceptEncoding = requestParm.getHeader("Accept-Encoding");
+			etag = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip") ? gzipEtag : identityEtag;
+		}
+
+		responseParm.setHeader("Cache-Control", HASHED_NAME_PATTERN.matcher(path).matches() ? HASHED_CACHE_CONTROL : UNHASHED_CACHE_CONTROL);
+
+		return !new ServletWebRequest(requestParm, responseParm).checkNotModified(etag);
+	}
+}
@@ -0,0 +1,104 @@
+package com.fusionalliance.internal.springboottemplate.business.cache;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fusionalliance.internal.sharedspringboot.service.SerializedResponseCache;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
+import com.fusionalliance.internal.springboottemplate.api.user.UserListSortOrder;
+import com.fusionalliance.internal.springboottemplate.business.entity.User;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserAddProcessor;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserListProcessor;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserUpdateCredsProcessor;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserUpdateProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This class caches the serialized {@link UserListProcessor} responses. The processors that change a {@link User},
+ * {@link UserAddProcessor}, {@link UserUpdateProcessor} and {@link UserUpdateCredsProcessor}, invalidate it once they commit.
+ * <p>
+ * Metrics are registered under user.list.response.cache in the application MeterRegistry, or in a private one if there is none.
+ */
+@Service("userListResponseCache")
+public class UserListResponseCache extends SerializedResponseCache<UserListResponseCache.Key> {
+	private static final String METRIC_NAME = "user.list.response.cache";
+
+	/**
+	 * Constructor
+	 * 
+	 * @param meterRegistryProviderParm
+	 *            autowired
+	 */
+	public UserListResponseCache(@Autowired final ObjectProvider<MeterRegistry> meterRegistryProviderParm) {
+		super(METRIC_NAME, meterRegistryProviderParm.getIfAvailable(SimpleMeterRegistry::new));
+	}
+
+	/**
+	 * This immutable class contains the request attributes that determine the first page of a list response.
+	 */
+	public static final class Key {
+		private final boolean includeDeactivated;
+		private final boolean includeAdminOnly;
+		private final boolean admin;
+		private final UserListSortOrder sortOrder;
+		private final int limit;
+		private final WireFormat wireFormat;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param includeDeactivatedParm
+		 * @param includeAdminOnlyParm
+		 * @param adminParm
+		 *            the login's admin flag
+		 * @param sortOrderParm
+		 *            required
+		 * @param limitParm
+		 * @param wireFormatParm
+		 *            required
+		 */
+		public Key(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm, final boolean adminParm,
+				final UserListSortOrder sortOrderParm, final int limitParm, final WireFormat wireFormatParm) {
+			ValidationUtility.checkObjectNotNull("The sort order is null.", sortOrderParm);
+			ValidationUtility.checkObjectNotNull("The wire format is null.", wireFormatParm);
+
+			includeDeactivated = includeDeactivatedParm;
+			includeAdminOnly = includeAdminOnlyParm;
+			admin = adminParm;
+			sortOrder = sortOrderParm;
+			limit = limitParm;
+			wireFormat = wireFormatParm;
+		}
+
+		@Override
+		public boolean equals(final Object otherParm) {
+			if (this == otherParm) {
+				return true;
+			}
+
+			if (!(otherParm instanceof Key)) {
+				return false;
+			}
+
+			final Key other = (Key) otherParm;
+
+			return includeDeactivated == other.includeDeactivated //
+					&& includeAdminOnly == other.includeAdminOnly //
+					&& admin == other.admin //
+					&& sortOrder == other.sortOrder //
+					&& limit == other.limit //
+					&& wireFormat == other.wireFormat;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(includeDeactivated, includeAdminOnly, admin, sortOrder, limit, wireFormat);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.fusionalliance.internal.springboottemplate.business.cache;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadQuery;
+import com.fusionalliance.internal.sharedutility.core.LoggerUtility;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.springboottemplate.business.dao.DefaultJdbcReadDao;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
+import com.fusionalliance.internal.springboottemplate.business.entity.User;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * This class indexes the {@link User} logins in memory, so that {@link UserDao#checkLoginUnique(User)} can skip the database for a login that is
+ * certainly not taken. Only logins in the index need a database check.
+ * <p>
+ * The index is loaded when the application starts, refreshed from the database periodically to pick up the logins written by other nodes, and
+ * maintained by the User processors of this node: a login is added as soon as it is written, and removed only after the transaction that renames
+ * it commits, so a stale entry only causes a database check. A refresh only adds logins, for the same reason.
+ * <p>
+ * A login written by another node since the last refresh is not seen, nor is a login reused by a concurrent rename. The unique constraint on login
+ * rejects those collisions when the User is flushed, and {@link UserDao#flushUser(User)} reports them as the validation error.
+ * <p>
+ * Until the index is loaded, every login needs a database check. This class is thread safe.
+ */
+@Service("userLoginIndex")
+public class UserLoginIndex {
+	private static final Logger LOG = LoggerFactory.getLogger(UserLoginIndex.class);
+
+	private static final JdbcReadQuery<String> LOGIN_QUERY = new JdbcReadQuery<>("select login from sb_template.user_def",
+			resultSet -> resultSet.getString(1));
+
+	private final DefaultJdbcReadDao defaultJdbcReadDao;
+	private final long refreshIntervalSeconds;
+	private final Set<String> logins = ConcurrentHashMap.newKeySet();
+	private volatile boolean loaded;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructor
+	 *
+	 * @param defaultJdbcReadDaoParm
+	 *            autowired
+	 * @param refreshIntervalSecondsParm
+	 *            user.loginIndex.refreshIntervalSeconds, how often the logins are reloaded; 0 disables the refresh, which is only safe on a single
+	 *            node
+	 */
+	public UserLoginIndex(@Autowired final DefaultJdbcReadDao defaultJdbcReadDaoParm,
+			@Value("${user.loginIndex.refreshIntervalSeconds:60}") final long refreshIntervalSecondsParm) {
+		ValidationUtility.checkBadConditionNotMet("The refresh interval is negative.", refreshIntervalSecondsParm < 0);
+
+		defaultJdbcReadDao = defaultJdbcReadDaoParm;
+		refreshIntervalSeconds = refreshIntervalSecondsParm;
+	}
+
+	/**
+	 * Load every login, and start the refresh schedule. If the logins cannot be read, the index stays unloaded until a refresh succeeds, and logins
+	 * are checked in the database.
+	 */
+	@PostConstruct
+	public void load() {
+		refresh();
+
+		if (refreshIntervalSeconds == 0) {
+			return;
+		}
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder() //
+				.setNameFormat("user-login-index-refresh-%d") //
+				.setDaemon(true) //
+				.build());
+
+		scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stop the refresh schedule.
+	 */
+	@PreDestroy
+	public void stopScheduler() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Return false if no User has the login passed, so no database check is needed; true if one might.
+	 *
+	 * @param loginParm
+	 *            required
+	 * @return
+	 */
+	public boolean isLoginPossiblyTaken(final String loginParm) {
+		ValidationUtility.checkObjectNotNull("The login is null.", loginParm);
+
+		if (!loaded) {
+			return true;
+		}
+
+		return logins.contains(loginParm);
+	}
+
+	/**
+	 * Add a login that is being written. Call this before the transaction commits, so that no concurrent check misses it.
+	 *
+	 * @param loginParm
+	 *            required
+	 */
+	public void addLogin(final String loginParm) {
+		ValidationUtility.checkObjectNotNull("The login is null.", loginParm);
+
+		logins.add(loginParm);
+	}
+
+	/**
+	 * Remove a login that is being replaced, once the current transaction commits; nothing is removed if it rolls back. If no transaction is active,
+	 * remove it now.
+	 *
+	 * @param loginParm
+	 *            required
+	 */
+	public void removeLoginAfterCommit(final String loginParm) {
+		ValidationUtility.checkObjectNotNull("The login is null.", loginParm);
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			logins.remove(loginParm);
+
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				logins.remove(loginParm);
+			}
+		});
+	}
+
+	/**
+	 * Add every login in the database.
+	 */
+	private void refresh() {
+		try {
+			final List<String> storedLogins = defaultJdbcReadDao.retrieveList(LOGIN_QUERY);
+			logins.addAll(storedLogins);
+
+			if (!loaded) {
+				loaded = true;
+
+				LOG.info("Loaded {} logins into the login index.", storedLogins.size());
+			}
+		}
+		catch (final Exception e) {
+			LoggerUtility.logException(LOG, "Unable to load the login index; logins not yet loaded will be checked in the database.", e);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.fusionalliance.internal.springboottemplate.business.dao;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.fusionalliance.internal.sharedspringboot.business.JdbcBatchDao;
+
+/**
+ * This class provides JDBC batch write support for the default DataSource, sharing the connection of the transactions of {@link DefaultDao}. As with
+ * DefaultDao, entity-specific statements should be placed in classes that inject this class.
+ */
+@Service("defaultJdbcBatchDao")
+public class DefaultJdbcBatchDao extends JdbcBatchDao {
+
+	/**
+	 * Constructor
+	 * 
+	 * @param defaultDataSourceParm
+	 *            autowired
+	 */
+	public DefaultJdbcBatchDao(@Autowired @Qualifier("defaultDataSource") final DataSource defaultDataSourceParm) {
+		super(defaultDataSourceParm);
+	}
+}
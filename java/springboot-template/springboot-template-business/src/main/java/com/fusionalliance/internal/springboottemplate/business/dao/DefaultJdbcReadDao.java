@@ -0,0 +1,27 @@
+package com.fusionalliance.internal.springboottemplate.business.dao;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadDao;
+
+/**
+ * This class provides JDBC read support for the default DataSource, sharing the connection of the transactions of {@link DefaultDao}. As with
+ * DefaultDao, entity-specific queries should be placed in classes that inject this class.
+ */
+@Service("defaultJdbcReadDao")
+public class DefaultJdbcReadDao extends JdbcReadDao {
+
+	/**
+	 * Constructor
+	 * 
+	 * @param defaultDataSourceParm
+	 *            autowired
+	 */
+	public DefaultJdbcReadDao(@Autowired @Qualifier("defaultDataSource") final DataSource defaultDataSourceParm) {
+		super(defaultDataSourceParm);
+	}
+}
@@ -5,46 +5,128 @@
  */
 package com.fusionalliance.internal.springboottemplate.business.dao;
 
-import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.PersistenceException;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.query.NativeQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.fusionalliance.internal.sharedspringboot.business.JdbcBatchDao;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadDao;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcReadQuery;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcRowHandler;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcRowMapper;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
-import com.fusionalliance.internal.sharedutility.core.GenericCastUtility;
 import com.fusionalliance.internal.sharedutility.core.LoggerUtility;
 import com.fusionalliance.internal.sharedutility.core.TreatAsRestricted;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.springboottemplate.api.user.UserListSortOrder;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserLoginIndex;
 import com.fusionalliance.internal.springboottemplate.business.entity.User;
 
 /**
- * This class implements DAO operations for the User entity.
+ * This class implements DAO operations for the User entity. Hot list reads go through the {@link JdbcReadDao}, mapping rows straight into
+ * projections; bulk inserts go through the {@link JdbcBatchDao}.
  */
 @Service("userDao")
 public class UserDao {
 	private static final Logger LOG = LoggerFactory.getLogger(UserDao.class);
 
+	/** Filter shared by the list queries, so that they always select the same rows; the parameters are includeDeactivated, includeAdminOnly */
+	private static final String USER_LIST_WHERE = String.join(" ", //
+			"where (? or not deactivated)", //
+			"  and (not ? or admin)" //
+	);
+
+	private static final JdbcRowMapper<UserSummary> USER_SUMMARY_MAPPER = resultSet -> new UserSummary( //
+			resultSet.getLong(1), //
+			resultSet.getLong(2), //
+			resultSet.getString(3), //
+			resultSet.getString(4), //
+			resultSet.getString(5), //
+			resultSet.getBoolean(6), //
+			resultSet.getBoolean(7) //
+	);
+	private static final String USER_SUMMARY_SELECT = "select user_key, version, login, full_name, description, admin, deactivated";
+	private static final Map<UserListSortOrder, JdbcReadQuery<UserSummary>> USER_SUMMARY_FIRST_PAGE_QUERIES = generateUserListQueries(
+			USER_SUMMARY_SELECT, USER_SUMMARY_MAPPER, false);
+	private static final Map<UserListSortOrder, JdbcReadQuery<UserSummary>> USER_SUMMARY_NEXT_PAGE_QUERIES = generateUserListQueries(
+			USER_SUMMARY_SELECT, USER_SUMMARY_MAPPER, true);
+
+	/** Every User of the list filter in login order, without a limit; the parameters are includeDeactivated, includeAdminOnly */
+	private static final JdbcReadQuery<UserSummary> USER_SUMMARY_EXPORT_QUERY = new JdbcReadQuery<>(String.join(" ", //
+			USER_SUMMARY_SELECT, //
+			"from sb_template.user_def", //
+			generateUserListWhereOrderBy(UserListSortOrder.LOGIN, false) //
+	), USER_SUMMARY_MAPPER);
+	/** Rows of an export read from the server at a time */
+	private static final int EXPORT_FETCH_SIZE = 1000;
+
+	private static final JdbcRowMapper<long[]> USER_VERSION_MAPPER = resultSet -> new long[] { resultSet.getLong(1), resultSet.getLong(2) };
+	private static final String USER_VERSION_SELECT = "select user_key, version";
+	private static final Map<UserListSortOrder, JdbcReadQuery<long[]>> USER_VERSION_FIRST_PAGE_QUERIES = generateUserListQueries(
+			USER_VERSION_SELECT, USER_VERSION_MAPPER, false);
+	private static final Map<UserListSortOrder, JdbcReadQuery<long[]>> USER_VERSION_NEXT_PAGE_QUERIES = generateUserListQueries(
+			USER_VERSION_SELECT, USER_VERSION_MAPPER, true);
+
+	private static final JdbcReadQuery<String> TAKEN_LOGIN_QUERY = new JdbcReadQuery<>(
+			"select login from sb_template.user_def where login = any(?)", resultSet -> resultSet.getString(1));
+	private static final String USER_INSERT = String.join(" ", //
+			"insert into sb_template.user_def (user_key, version, deactivated, login, creds, full_name, description, admin)", //
+			"values (?, 0, ?, ?, ?, ?, ?, ?)" //
+	);
+
+	/** PostgreSQL unique_violation */
+	private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
 	private final DefaultDao defaultDao;
+	private final DefaultJdbcReadDao defaultJdbcReadDao;
+	private final DefaultJdbcBatchDao defaultJdbcBatchDao;
+	private final UserLoginIndex userLoginIndex;
 
 	/**
 	 * Constructor
 	 * 
 	 * @param defaultDaoParm
 	 *            autowired
+	 * @param defaultJdbcReadDaoParm
+	 *            autowired
+	 * @param defaultJdbcBatchDaoParm
+	 *            autowired
+	 * @param userLoginIndexParm
+	 *            autowired
 	 */
-	public UserDao(@Autowired final DefaultDao defaultDaoParm) {
+	public UserDao(@Autowired final DefaultDao defaultDaoParm, @Autowired final DefaultJdbcReadDao defaultJdbcReadDaoParm,
+			@Autowired final DefaultJdbcBatchDao defaultJdbcBatchDaoParm, @Autowired final UserLoginIndex userLoginIndexParm) {
 		defaultDao = defaultDaoParm;
+		defaultJdbcReadDao = defaultJdbcReadDaoParm;
+		defaultJdbcBatchDao = defaultJdbcBatchDaoParm;
+		userLoginIndex = userLoginIndexParm;
 	}
 
 	/**
 	 * Return true if the login for the User passed is unique.
 	 * <p>
 	 * Return false if the User is null or the login is blank.
+	 * <p>
+	 * A login that the {@link UserLoginIndex} knows is not taken needs no lookup. Otherwise, the login is looked up as the natural ID, which the
+	 * second-level cache usually resolves without a database access. A login renamed on another node may still resolve to its old owner until the
+	 * cache entry expires, so that login is reported as taken for up to the cache time to live.
 	 * 
 	 * @param userParm
 	 *            required
@@ -58,23 +140,14 @@ public class UserDao {
 			return false;
 		}
 
-		final String query = String.join(" ", //
-				"select count(*) rowCount", //
-				"from sb_template.user_def", //
-				"where login = :login", //
-				"  and user_key <> :userKey" //
-		);
+		if (!userLoginIndex.isLoginPossiblyTaken(userParm.getLogin())) {
+			return true;
+		}
 
 		try {
-			final NativeQuery<?> nativeQuery = defaultDao.retrieveCurrentSession() //
-					.createNativeQuery(query) //
-					.setParameter("login", userParm.getLogin()) //
-					.setParameter("userKey", userParm.getUserKey()) //
-					.setReadOnly(true);
+			final User existingUser = defaultDao.getByNaturalId(User.class, userParm.getLogin());
 
-			final BigInteger rows = (BigInteger) nativeQuery.uniqueResult();
-
-			return rows.equals(BigInteger.ZERO);
+			return existingUser == null || existingUser.getUserKey() == userParm.getUserKey();
 		}
 		catch (final Exception e) {
 			LoggerUtility.logException(LOG, "A Hibernate error occurred.", e);
@@ -85,40 +158,282 @@ public class UserDao {
 	}
 
 	/**
-	 * Return a list of User ordered by login. These entities are read-only.
+	 * Flush the changes of the User passed. A login taken since it was checked, typically by another node, violates the unique constraint on login;
+	 * that is reported as the validation error it would have been.
+	 * 
+	 * @param userParm
+	 *            required
+	 * @throws ApplicationException
+	 *             if the login is taken, after adding an error to the MessageManager
+	 */
+	public void flushUser(final User userParm) {
+		ValidationUtility.checkObjectNotNull("The user is null.", userParm);
+
+		try {
+			defaultDao.flush();
+		}
+		catch (final PersistenceException e) {
+			if (!isUniqueViolation(e)) {
+				throw e;
+			}
+
+			MessageManager.addError(User.LOGIN_IN_USE_MESSAGE, userParm.getLogin());
+
+			throw new ApplicationException("The login is already in use.");
+		}
+	}
+
+	/**
+	 * Return those of the logins passed that are already taken, in one query.
+	 * 
+	 * @param loginsParm
+	 *            required
+	 * @return
+	 */
+	public Set<String> retrieveTakenLogins(final Collection<String> loginsParm) {
+		ValidationUtility.checkObjectNotNull("The logins are null.", loginsParm);
+
+		if (loginsParm.isEmpty()) {
+			return Collections.emptySet();
+		}
+
+		try {
+			return new HashSet<>(defaultJdbcReadDao.retrieveList(TAKEN_LOGIN_QUERY, (Object) loginsParm.toArray(new String[loginsParm.size()])));
+		}
+		catch (final Exception e) {
+			LoggerUtility.logException(LOG, "A JDBC error occurred.", e);
+			MessageManager.addSystem();
+
+			throw new ApplicationException("A JDBC error occurred.");
+		}
+	}
+
+	/**
+	 * Insert the new Users passed, over JDBC in batches. Their keys are allocated by the User key generator, as persisting them would, and set in
+	 * the instances.
+	 * <p>
+	 * The Users are not validated; in particular, the caller must ensure that their logins are unique. Nothing is added to the Hibernate session or
+	 * the {@link UserLoginIndex}.
+	 * 
+	 * @param usersParm
+	 *            required
+	 */
+	public void insertUsers(final List<User> usersParm) {
+		ValidationUtility.checkObjectNotNull("The users are null.", usersParm);
+
+		final List<Object[]> parameterRows = new ArrayList<>(usersParm.size());
+		try {
+			for (final User user : usersParm) {
+				user.userKey((Long) defaultDao.generateKey(user));
+
+				parameterRows.add(new Object[] { user.getUserKey(), user.isDeactivated(), user.getLogin(), user.getCreds(), user.getFullName(),
+						user.getDescription(), user.isAdmin() });
+			}
+
+			defaultJdbcBatchDao.executeBatch(USER_INSERT, parameterRows);
+		}
+		catch (final Exception e) {
+			LoggerUtility.logException(LOG, "A JDBC error occurred.", e);
+			MessageManager.addSystem();
+
+			throw new ApplicationException("A JDBC error occurred.");
+		}
+	}
+
+	/**
+	 * Return a page of {@link UserSummary} in the sort order passed, read over JDBC without loading the entities.
+	 * <p>
+	 * The page starts after the sort key carried by the cursor passed, using the sort order index, so its cost does not depend on how many pages
+	 * precede it. The User the cursor was taken from need not still exist.
 	 * 
 	 * @param includeDeactivatedParm
 	 *            if true, return deactivated rows as well
 	 * @param includeAdminOnlyParm
 	 *            if true, return only admin = true rows
+	 * @param sortOrderParm
+	 *            required
+	 * @param afterParm
+	 *            optional, the nextCursor of the previous page, valid for the sort order; null for the first page
+	 * @param limitParm
+	 *            maximum number of rows returned; greater than 0
 	 * @return
 	 */
-	public List<User> retrieveUserList(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm) {
-		final String query = String.join(" ", //
-				"select *", //
-				"from sb_template.user_def", //
-				"where (:includeDeactivated or not deactivated)", //
-				"  and (not :includeAdminOnly or admin)", //
-				"order by login" //
-		);
+	public List<UserSummary> retrieveUserSummaryList(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm,
+			final UserListSortOrder sortOrderParm, final String afterParm, final int limitParm) {
+		ValidationUtility.checkObjectNotNull("The sort order is null.", sortOrderParm);
+
+		final JdbcReadQuery<UserSummary> query = afterParm == null //
+				? USER_SUMMARY_FIRST_PAGE_QUERIES.get(sortOrderParm)
+				: USER_SUMMARY_NEXT_PAGE_QUERIES.get(sortOrderParm);
 
 		try {
-			final NativeQuery<User> nativeQuery = defaultDao.retrieveCurrentSession() //
-					.createNativeQuery(query, User.class) //
-					.setParameter("includeDeactivated", includeDeactivatedParm) //
-					.setParameter("includeAdminOnly", includeAdminOnlyParm) //
-					.setReadOnly(true);
+			return defaultJdbcReadDao.retrieveList(query,
+					generateUserListParameters(includeDeactivatedParm, includeAdminOnlyParm, sortOrderParm, afterParm, limitParm));
+		}
+		catch (final Exception e) {
+			LoggerUtility.logException(LOG, "A JDBC error occurred.", e);
+			MessageManager.addSystem();
 
-			final List<User> userList = GenericCastUtility.cast(nativeQuery.list());
+			throw new ApplicationException("A JDBC error occurred.");
+		}
+	}
 
-			return userList;
+	/**
+	 * Pass the {@link UserSummary} of every User, in login order, to the handler as the rows are read, and return the number of Users. The rows are
+	 * read through a server-side cursor, so memory use does not depend on the number of Users; this must be called within a transaction.
+	 * 
+	 * @param includeDeactivatedParm
+	 *            if true, pass deactivated rows as well
+	 * @param includeAdminOnlyParm
+	 *            if true, pass only admin = true rows
+	 * @param rowHandlerParm
+	 *            required
+	 * @return
+	 */
+	public long exportUserSummaries(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm,
+			final JdbcRowHandler<UserSummary> rowHandlerParm) {
+		ValidationUtility.checkObjectNotNull("The row handler is null.", rowHandlerParm);
+
+		try {
+			return defaultJdbcReadDao.retrieveEach(USER_SUMMARY_EXPORT_QUERY, EXPORT_FETCH_SIZE, rowHandlerParm, includeDeactivatedParm,
+					includeAdminOnlyParm);
 		}
 		catch (final Exception e) {
-			LoggerUtility.logException(LOG, "A Hibernate error occurred.", e);
+			LoggerUtility.logException(LOG, "A JDBC error occurred.", e);
 			MessageManager.addSystem();
 
-			throw new ApplicationException("A Hibernate error occurred.");
+			throw new ApplicationException("A JDBC error occurred.");
+		}
+	}
+
+	/**
+	 * Return the key and version of each User that {@link #retrieveUserSummaryList(boolean, boolean, UserListSortOrder, String, int)} would return,
+	 * in the same order. Each element is { userKey, version }.
+	 * 
+	 * @param includeDeactivatedParm
+	 *            if true, return deactivated rows as well
+	 * @param includeAdminOnlyParm
+	 *            if true, return only admin = true rows
+	 * @param sortOrderParm
+	 *            required
+	 * @param afterParm
+	 *            optional, the nextCursor of the previous page, valid for the sort order; null for the first page
+	 * @param limitParm
+	 *            maximum number of rows returned; greater than 0
+	 * @return
+	 */
+	public List<long[]> retrieveUserVersionList(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm,
+			final UserListSortOrder sortOrderParm, final String afterParm, final int limitParm) {
+		ValidationUtility.checkObjectNotNull("The sort order is null.", sortOrderParm);
+
+		final JdbcReadQuery<long[]> query = afterParm == null //
+				? USER_VERSION_FIRST_PAGE_QUERIES.get(sortOrderParm)
+				: USER_VERSION_NEXT_PAGE_QUERIES.get(sortOrderParm);
+
+		try {
+			return defaultJdbcReadDao.retrieveList(query,
+					generateUserListParameters(includeDeactivatedParm, includeAdminOnlyParm, sortOrderParm, afterParm, limitParm));
+		}
+		catch (final Exception e) {
+			LoggerUtility.logException(LOG, "A JDBC error occurred.", e);
+			MessageManager.addSystem();
+
+			throw new ApplicationException("A JDBC error occurred.");
+		}
+	}
+
+	/**
+	 * Return the list query for each sort order, for first or next pages. The query parameters are those of
+	 * {@link #generateUserListParameters(boolean, boolean, UserListSortOrder, String, int)}.
+	 * 
+	 * @param <T>
+	 *            the projection type
+	 * @param selectParm
+	 *            required, the select list read by the row mapper
+	 * @param rowMapperParm
+	 *            required
+	 * @param nextPageParm
+	 *            if true, the queries start after a cursor
+	 * @return
+	 */
+	private static <T> Map<UserListSortOrder, JdbcReadQuery<T>> generateUserListQueries(final String selectParm, final JdbcRowMapper<T> rowMapperParm,
+			final boolean nextPageParm) {
+		final Map<UserListSortOrder, JdbcReadQuery<T>> queries = new EnumMap<>(UserListSortOrder.class);
+		for (final UserListSortOrder sortOrder : UserListSortOrder.values()) {
+			final String sql = String.join(" ", //
+					selectParm, //
+					"from sb_template.user_def", //
+					generateUserListWhereOrderBy(sortOrder, nextPageParm), //
+					"limit ?" //
+			);
+			queries.put(sortOrder, new JdbcReadQuery<>(sql, rowMapperParm));
 		}
+
+		return Collections.unmodifiableMap(queries);
+	}
+
+	/**
+	 * Return the where and order by clauses shared by the list queries, so that they always select the same rows in the same order. The keyset
+	 * condition compares the sort columns as a row value, which PostgreSQL resolves with a range scan of the matching index.
+	 * 
+	 * @param sortOrderParm
+	 *            required
+	 * @param nextPageParm
+	 *            if true, add the keyset condition, which has a parameter for each sort column
+	 * @return
+	 */
+	private static String generateUserListWhereOrderBy(final UserListSortOrder sortOrderParm, final boolean nextPageParm) {
+		final String keysetCondition;
+		final String orderBy;
+		switch (sortOrderParm) {
+		case FULL_NAME:
+			keysetCondition = "and (full_name, login) > (?, ?)";
+			orderBy = "order by full_name, login";
+			break;
+		case USER_KEY:
+			keysetCondition = "and user_key > ?";
+			orderBy = "order by user_key";
+			break;
+		default:
+			keysetCondition = "and login > ?";
+			orderBy = "order by login";
+		}
+
+		return String.join(" ", //
+				USER_LIST_WHERE, //
+				nextPageParm ? keysetCondition : "", //
+				orderBy //
+		);
+	}
+
+	/**
+	 * Return the parameters of a list query, in placeholder order.
+	 * 
+	 * @param includeDeactivatedParm
+	 * @param includeAdminOnlyParm
+	 * @param sortOrderParm
+	 *            required
+	 * @param afterParm
+	 *            optional; its sort key values are included if not null
+	 * @param limitParm
+	 * @return
+	 */
+	private static Object[] generateUserListParameters(final boolean includeDeactivatedParm, final boolean includeAdminOnlyParm,
+			final UserListSortOrder sortOrderParm, final String afterParm, final int limitParm) {
+		if (afterParm == null) {
+			return new Object[] { includeDeactivatedParm, includeAdminOnlyParm, limitParm };
+		}
+
+		final Object[] keysetValues = sortOrderParm.parseCursor(afterParm);
+		ValidationUtility.checkObjectNotNull("The cursor is not valid for the sort order.", keysetValues);
+
+		final List<Object> parameters = new ArrayList<>();
+		parameters.add(includeDeactivatedParm);
+		parameters.add(includeAdminOnlyParm);
+		parameters.addAll(Arrays.asList(keysetValues));
+		parameters.add(limitParm);
+
+		return parameters.toArray();
 	}
 
 	/**
@@ -165,4 +480,18 @@ public class UserDao {
 
 		defaultDao.persist(adminUser);
 	}
+
+	/**
+	 * Return true if the exception was caused by a unique constraint violation. The only unique constraints of user_def are on login and on the
+	 * generated user_key.
+	 */
+	private static boolean isUniqueViolation(final PersistenceException exceptionParm) {
+		for (Throwable cause = exceptionParm; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				return UNIQUE_VIOLATION_SQL_STATE.equals(((ConstraintViolationException) cause).getSQLState());
+			}
+		}
+
+		return false;
+	}
 }
@@ -0,0 +1,66 @@
+package com.fusionalliance.internal.springboottemplate.business.dao;
+
+import com.fusionalliance.internal.springboottemplate.business.entity.User;
+
+/**
+ * This immutable class is a read-only projection of the {@link User} columns needed to list Users; in particular, creds is not read.
+ */
+public final class UserSummary {
+	private final long userKey;
+	private final long version;
+	private final String login;
+	private final String fullName;
+	private final String description;
+	private final boolean admin;
+	private final boolean deactivated;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param userKeyParm
+	 * @param versionParm
+	 * @param loginParm
+	 * @param fullNameParm
+	 * @param descriptionParm
+	 * @param adminParm
+	 * @param deactivatedParm
+	 */
+	UserSummary(final long userKeyParm, final long versionParm, final String loginParm, final String fullNameParm, final String descriptionParm,
+			final boolean adminParm, final boolean deactivatedParm) {
+		userKey = userKeyParm;
+		version = versionParm;
+		login = loginParm;
+		fullName = fullNameParm;
+		description = descriptionParm;
+		admin = adminParm;
+		deactivated = deactivatedParm;
+	}
+
+	public long getUserKey() {
+		return userKey;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public String getLogin() {
+		return login;
+	}
+
+	public String getFullName() {
+		return fullName;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public boolean isAdmin() {
+		return admin;
+	}
+
+	public boolean isDeactivated() {
+		return deactivated;
+	}
+}
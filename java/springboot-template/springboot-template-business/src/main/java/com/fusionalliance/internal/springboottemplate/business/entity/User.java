@@ -8,12 +8,19 @@ package com.fusionalliance.internal.springboottemplate.business.entity;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.persistence.Version;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
 
 import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.business.PersistenceEntity;
@@ -26,13 +33,37 @@ import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
  * <b>Note:</b> The use of fluent setters is for convenience; there is no <code>build()</code> method, and instances are mutable.
  * <p>
  * "user" is a system table, so qualify the table name
+ * <p>
+ * Users and their login natural IDs are kept in the second-level cache. READ_WRITE replaces the cached state only after the updating transaction
+ * commits, and locks the entry meanwhile, so readers on this node go to the database rather than see a stale version. The cache is per node and
+ * is not invalidated by other nodes, so their changes are seen only once the entry expires; the time to live in ehcache.xml bounds that staleness.
+ * <p>
+ * Keys are allocated in blocks of {@value #KEY_ALLOCATION_SIZE} by a hi-lo optimizer over hibernate_sequence: each sequence value reserves the block
+ * of keys that ends with the value times the block size. Only the first insert of a block reads the sequence, and the key is known before the
+ * insert, so inserts can be batched. The optimizer works with the sequence incremented by 1, so existing schemas need no change; the blocks start
+ * above the keys assigned before, which were sequence values. Every key must come from this generator, including those of rows inserted over JDBC.
  */
 @Entity
-@Table(schema = "sb_template", name = "user_def")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
+@Table(schema = "sb_template", name = "user_def", indexes = {
+		// Supports the keyset-paginated list in full name order; login and user_key have unique indexes
+		@Index(name = "user_def_full_name_login_idx", columnList = "full_name, login") //
+})
 public class User implements PersistenceEntity {
 
+	/** Keys allocated by one read of the sequence */
+	public static final int KEY_ALLOCATION_SIZE = 50;
+	/** Error reported for a login that another User has; its replacement is the login */
+	public static final String LOGIN_IN_USE_MESSAGE = "The login '%1$s' is already in use. (The user may be deactivated.)";
+
 	@Id
-	@GeneratedValue
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_key_generator")
+	@GenericGenerator(name = "user_key_generator", strategy = "enhanced-sequence", parameters = { //
+			@Parameter(name = "sequence_name", value = "hibernate_sequence"), //
+			@Parameter(name = "increment_size", value = "" + KEY_ALLOCATION_SIZE), //
+			@Parameter(name = "optimizer", value = "hilo") //
+	})
 	@Column(name = "user_key", unique = true, nullable = false)
 	private long userKey;
 
@@ -80,7 +111,7 @@ public class User implements PersistenceEntity {
 
 		if (!checkLoginUnique()) {
 			valid = false;
-			MessageManager.addError("The login '%1$s' is already in use. (The user may be deactivated.)", login);
+			MessageManager.addError(LOGIN_IN_USE_MESSAGE, login);
 		}
 
 		return valid;
@@ -103,6 +134,15 @@ public class User implements PersistenceEntity {
 		return userKey;
 	}
 
+	/**
+	 * Return the optimistic lock version, which Hibernate increments on every update.
+	 * 
+	 * @return
+	 */
+	public long getVersion() {
+		return version;
+	}
+
 	public boolean isDeactivated() {
 		return deactivated;
 	}
@@ -12,7 +12,10 @@ import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserListResponseCache;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserLoginIndex;
 import com.fusionalliance.internal.springboottemplate.business.dao.DefaultDao;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
 import com.fusionalliance.internal.springboottemplate.business.entity.User;
 
 /**
@@ -49,9 +52,13 @@ public class UserAddProcessor extends BusinessProcessor<UserInboundDto> {
 		}
 
 		SpringContextHelper.getBeanByClass(DefaultDao.class).persist(user);
+		SpringContextHelper.getBeanByClass(UserDao.class).flushUser(user);
+		SpringContextHelper.getBeanByClass(UserLoginIndex.class).addLogin(user.getLogin());
 
 		MessageManager.addInfo("User login %1$s (%2$s) was added.", user.getLogin(), user.getFullName());
 
+		SpringContextHelper.getBeanByClass(UserListResponseCache.class).invalidateAfterCommit();
+
 		return new MessagesOnlyOutboundDto().build();
 	}
 }
@@ -0,0 +1,50 @@
+package com.fusionalliance.internal.springboottemplate.business.processor.user;
+
+import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
+import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedspringboot.business.JdbcRowHandler;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserSummary;
+import com.fusionalliance.internal.springboottemplate.business.entity.User;
+
+/**
+ * This class implements a {@link BusinessProcessor} that exports every {@link User} of a LIST request's filter, in login order, ignoring its
+ * paging. Each User is passed to the row handler as it is read, typically to write it to the response, so the export runs in constant memory; the
+ * outbound DTO only carries the messages.
+ */
+public class UserExportProcessor extends BusinessProcessor<UserInboundDto> {
+	private final JdbcRowHandler<UserSummary> rowHandler;
+
+	/**
+	 * Constructor
+	 *
+	 * @param inboundDtoParm
+	 *            required, a LIST request
+	 * @param rowHandlerParm
+	 *            required
+	 */
+	public UserExportProcessor(final UserInboundDto inboundDtoParm, final JdbcRowHandler<UserSummary> rowHandlerParm) {
+		super(inboundDtoParm);
+
+		ValidationUtility.checkObjectNotNull("The row handler is null.", rowHandlerParm);
+
+		rowHandler = rowHandlerParm;
+	}
+
+	@Override
+	protected BaseOutboundDto<?> process() {
+		final UserInboundDto inboundDto = getInboundDto();
+		final UserDao userDao = SpringContextHelper.getBeanByClass(UserDao.class);
+
+		final long userCount = userDao.exportUserSummaries(inboundDto.isDeactivated(), inboundDto.isAdmin(), rowHandler);
+
+		MessageManager.addInfo("%1$d users were exported.", userCount);
+
+		return new MessagesOnlyOutboundDto().build();
+	}
+}
@@ -7,8 +7,10 @@ package com.fusionalliance.internal.springboottemplate.business.processor.user;
 
 import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.NotModifiedOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
+import com.fusionalliance.internal.sharedutility.core.EntityTagUtility;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
 import com.fusionalliance.internal.springboottemplate.api.user.UserOutboundDto;
@@ -17,6 +19,8 @@ import com.fusionalliance.internal.springboottemplate.business.entity.User;
 
 /**
  * This class implements a {@link BusinessProcessor} for {@link User} gets.
+ * <p>
+ * The entity tag is derived from the User version. If it matches If-None-Match, a {@link NotModifiedOutboundDto} is returned instead of the User.
  */
 public class UserGetProcessor extends BusinessProcessor<UserInboundDto> {
 
@@ -42,6 +46,11 @@ public class UserGetProcessor extends BusinessProcessor<UserInboundDto> {
 			throw new ApplicationException("User not found");
 		}
 
+		final String entityTag = EntityTagUtility.generateWeak(Long.toString(user.getVersion()));
+		if (inboundDto.isNotModified(entityTag)) {
+			return new NotModifiedOutboundDto().entityTag(entityTag).build();
+		}
+
 		final UserOutboundDto outboundDto = new UserOutboundDto() //
 				.admin(user.isAdmin()) //
 				.deactivated(user.isDeactivated()) //
@@ -49,6 +58,7 @@ public class UserGetProcessor extends BusinessProcessor<UserInboundDto> {
 				.fullName(user.getFullName()) //
 				.login(user.getLogin()) //
 				.userKey(user.getUserKey()) //
+				.entityTag(entityTag) //
 				.build();
 
 		return outboundDto;
@@ -0,0 +1,175 @@
+package com.fusionalliance.internal.springboottemplate.business.processor.user;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
+import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedutility.application.ApplicationException;
+import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.springboottemplate.api.user.UserImportInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserListResponseCache;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserLoginIndex;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
+import com.fusionalliance.internal.springboottemplate.business.entity.User;
+
+/**
+ * This class implements a {@link BusinessProcessor} for {@link User} imports.
+ * <p>
+ * The import is all or nothing: every row is validated with the ADD rules of {@link UserInboundDto}, and each rejected row is reported by an error
+ * message whose entity key is the row, so any rejection rolls back the Users already inserted. Reporting stops after
+ * {@value UserImportInboundDto#MAX_REJECTED_ROWS} rejected rows.
+ * <p>
+ * Rows are processed in chunks. The logins of a chunk are checked against the database in one query, and its Users are inserted over JDBC in
+ * batches rather than persisted one by one; once a row is rejected, the remaining chunks are only checked.
+ */
+public class UserImportProcessor extends BusinessProcessor<UserImportInboundDto> {
+	/** Rows checked and inserted together */
+	static final int CHUNK_SIZE = 1000;
+
+	private static final String USER_ENTITY = User.class.getSimpleName();
+
+	private int rejectedRowCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param userImportInboundDtoParm
+	 *            required
+	 */
+	public UserImportProcessor(final UserImportInboundDto userImportInboundDtoParm) {
+		super(userImportInboundDtoParm);
+	}
+
+	@Override
+	protected BaseOutboundDto<?> process() throws ApplicationException {
+		final UserImportInboundDto inboundDto = getInboundDto();
+		rejectedRowCount = inboundDto.getRejectedRowCount();
+
+		final Set<String> importLogins = new HashSet<>();
+		final Map<Long, User> chunk = new LinkedHashMap<>();
+		int importedCount = 0;
+
+		for (final Entry<Long, UserInboundDto> rowEntry : inboundDto.getUserMap().entrySet()) {
+			if (rejectedRowCount >= UserImportInboundDto.MAX_REJECTED_ROWS) {
+				break;
+			}
+
+			final long row = rowEntry.getKey();
+			final UserInboundDto userInboundDto = rowEntry.getValue();
+
+			if (userInboundDto.isValidationErrors()) {
+				rejectRow(row, null, String.join(" ", userInboundDto.getValidationErrors()));
+
+				continue;
+			}
+
+			if (!importLogins.add(userInboundDto.getLogin())) {
+				rejectRow(row, "login", String.format("The login '%1$s' is repeated in the import.", userInboundDto.getLogin()));
+
+				continue;
+			}
+
+			final User user = new User() //
+					.admin(userInboundDto.isAdmin()) //
+					.creds(userInboundDto.getUpdateToCreds()) //
+					.deactivated(userInboundDto.isDeactivated()) //
+					.description(userInboundDto.getDescription()) //
+					.fullName(userInboundDto.getFullfullName()) //
+					.login(userInboundDto.getLogin()) //
+			;
+			chunk.put(row, user);
+
+			if (chunk.size() == CHUNK_SIZE) {
+				importedCount += importChunk(chunk);
+				chunk.clear();
+			}
+		}
+
+		importedCount += importChunk(chunk);
+
+		if (rejectedRowCount >= UserImportInboundDto.MAX_REJECTED_ROWS) {
+			MessageManager.addError("The import was stopped after %1$d rejected rows.", rejectedRowCount);
+		}
+		if (MessageManager.isError()) {
+			throw new ApplicationException("User import rejected");
+		}
+		if (importedCount == 0) {
+			MessageManager.addError("The import contains no users.");
+
+			throw new ApplicationException("User import empty");
+		}
+
+		MessageManager.addInfo("%1$d users were imported.", importedCount);
+
+		SpringContextHelper.getBeanByClass(UserListResponseCache.class).invalidateAfterCommit();
+
+		return new MessagesOnlyOutboundDto().build();
+	}
+
+	/**
+	 * Reject the rows of the chunk whose logins are taken, then insert its Users unless a row of the import has been rejected.
+	 *
+	 * @param chunkParm
+	 *            Users by row
+	 * @return the number of Users inserted
+	 */
+	private int importChunk(final Map<Long, User> chunkParm) {
+		if (chunkParm.isEmpty()) {
+			return 0;
+		}
+
+		final UserDao userDao = SpringContextHelper.getBeanByClass(UserDao.class);
+
+		final List<String> logins = new ArrayList<>(chunkParm.size());
+		for (final User user : chunkParm.values()) {
+			logins.add(user.getLogin());
+		}
+
+		final Set<String> takenLogins = userDao.retrieveTakenLogins(logins);
+		for (final Entry<Long, User> rowEntry : chunkParm.entrySet()) {
+			final String login = rowEntry.getValue().getLogin();
+			if (takenLogins.contains(login)) {
+				rejectRow(rowEntry.getKey(), "login", String.format("The login '%1$s' is already in use. (The user may be deactivated.)", login));
+			}
+		}
+
+		// The transaction will roll back, so inserting would be wasted
+		if (MessageManager.isError()) {
+			return 0;
+		}
+
+		final List<User> users = new ArrayList<>(chunkParm.values());
+		userDao.insertUsers(users);
+
+		final UserLoginIndex userLoginIndex = SpringContextHelper.getBeanByClass(UserLoginIndex.class);
+		for (final User user : users) {
+			userLoginIndex.addLogin(user.getLogin());
+		}
+
+		return users.size();
+	}
+
+	/**
+	 * Report a rejected row.
+	 *
+	 * @param rowParm
+	 * @param fieldParm
+	 *            optional
+	 * @param reasonParm
+	 *            required
+	 */
+	private void rejectRow(final long rowParm, final String fieldParm, final String reasonParm) {
+		rejectedRowCount++;
+
+		MessageManager.addErrorEntity("Row %1$d was rejected. %2$s", USER_ENTITY, rowParm, fieldParm, rowParm, reasonParm);
+	}
+}
@@ -1,19 +1,29 @@
 package com.fusionalliance.internal.springboottemplate.business.processor.user;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.NotModifiedOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedutility.core.EntityTagUtility;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
 import com.fusionalliance.internal.springboottemplate.api.user.UserListOutboundDto;
 import com.fusionalliance.internal.springboottemplate.api.user.UserOutboundDto;
 import com.fusionalliance.internal.springboottemplate.business.dao.UserDao;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserSummary;
 import com.fusionalliance.internal.springboottemplate.business.entity.User;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
- * This class implements a {@link BusinessProcessor} that lists {@link User}.
+ * This class implements a {@link BusinessProcessor} that lists a page of {@link User}, with the cursor of the next page if there is one.
+ * <p>
+ * The entity tag is a hash of the key and version of each User listed, and of the first User of the next page, so it changes when any of them is
+ * added, updated, or removed. When the request supplies If-None-Match, only the keys and versions are queried first; if the tag matches, a
+ * {@link NotModifiedOutboundDto} is returned without loading the Users.
  */
 public class UserListProcessor extends BusinessProcessor<UserInboundDto> {
 
@@ -32,11 +42,35 @@ public class UserListProcessor extends BusinessProcessor<UserInboundDto> {
 		final UserInboundDto inboundDto = getInboundDto();
 		final UserDao userDao = SpringContextHelper.getBeanByClass(UserDao.class);
 
-		final List<User> userList = userDao.retrieveUserList(inboundDto.isAdmin(), inboundDto.isAdmin());
+		// One row past the page is read to tell whether another page follows
+		final int limit = inboundDto.getLimit();
+
+		if (inboundDto.getIfNoneMatch() != null) {
+			final String entityTag = generateEntityTag(userDao.retrieveUserVersionList(inboundDto.isDeactivated(), inboundDto.isAdmin(),
+					inboundDto.getSortOrder(), inboundDto.getAfter(), limit + 1));
+			if (inboundDto.isNotModified(entityTag)) {
+				return new NotModifiedOutboundDto().entityTag(entityTag).build();
+			}
+		}
+
+		List<UserSummary> userList = userDao.retrieveUserSummaryList(inboundDto.isDeactivated(), inboundDto.isAdmin(), inboundDto.getSortOrder(),
+				inboundDto.getAfter(), limit + 1);
+
+		final List<long[]> userVersionList = new ArrayList<>(userList.size());
+		for (UserSummary user : userList) {
+			userVersionList.add(new long[] { user.getUserKey(), user.getVersion() });
+		}
+
+		String nextCursor = null;
+		if (userList.size() > limit) {
+			userList = userList.subList(0, limit);
+			final UserSummary lastUser = userList.get(limit - 1);
+			nextCursor = inboundDto.getSortOrder().formatCursor(lastUser.getUserKey(), lastUser.getLogin(), lastUser.getFullName());
+		}
 
 		final UserListOutboundDto outboundDto = new UserListOutboundDto();
 		UserOutboundDto userOutboundDto = null;
-		for (User user : userList) {
+		for (UserSummary user : userList) {
 			userOutboundDto = new UserOutboundDto() //
 					.admin(user.isAdmin()) //
 					.deactivated(user.isDeactivated()) //
@@ -47,6 +81,8 @@ public class UserListProcessor extends BusinessProcessor<UserInboundDto> {
 					.build();
 			outboundDto.addUser(userOutboundDto);
 		}
+		outboundDto.nextCursor(nextCursor);
+		outboundDto.entityTag(generateEntityTag(userVersionList));
 		outboundDto.build();
 
 		if (outboundDto.getUserList().isEmpty()) {
@@ -60,4 +96,20 @@ public class UserListProcessor extends BusinessProcessor<UserInboundDto> {
 
 		return outboundDto;
 	}
+
+	/**
+	 * Return the entity tag for a list of { userKey, version }.
+	 * 
+	 * @param userVersionListParm
+	 *            required
+	 * @return
+	 */
+	private static String generateEntityTag(final List<long[]> userVersionListParm) {
+		final Hasher hasher = Hashing.sha256().newHasher();
+		for (final long[] userVersion : userVersionListParm) {
+			hasher.putLong(userVersion[0]).putLong(userVersion[1]);
+		}
+
+		return EntityTagUtility.generateWeak(hasher.hash().toString().substring(0, 32));
+	}
 }
@@ -9,14 +9,20 @@ import com.fusionalliance.internal.sharedspringboot.SpringContextHelper;
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedspringboot.business.PreconditionFailedException;
 import com.fusionalliance.internal.sharedutility.application.ApplicationException;
+import com.fusionalliance.internal.sharedutility.core.EntityTagUtility;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserListResponseCache;
 import com.fusionalliance.internal.springboottemplate.business.dao.DefaultDao;
 import com.fusionalliance.internal.springboottemplate.business.entity.User;
 
 /**
  * This class implements a {@link BusinessProcessor} for {@link User} creds updates.
+ * <p>
+ * If the request supplies If-Match and it does not match the User version, a {@link PreconditionFailedException} is thrown before the User is
+ * modified, validated, or flushed.
  */
 public class UserUpdateCredsProcessor extends BusinessProcessor<UserInboundDto> {
 
@@ -41,6 +47,12 @@ public class UserUpdateCredsProcessor extends BusinessProcessor<UserInboundDto>
 			throw new ApplicationException("User not found");
 		}
 
+		if (inboundDto.isPreconditionFailed(EntityTagUtility.generateWeak(Long.toString(user.getVersion())))) {
+			MessageManager.addError("User login %1$s (%2$s) was changed after it was retrieved.", user.getLogin(), user.getFullName());
+
+			throw new PreconditionFailedException("User version mismatch");
+		}
+
 		if (!user.getCreds().equals(inboundDto.getExistingCreds())) {
 			MessageManager.addError("User login %1$s (%2$s) existing creds do not match.", user.getLogin(), user.getFullName());
 
@@ -57,6 +69,8 @@ public class UserUpdateCredsProcessor extends BusinessProcessor<UserInboundDto>
 
 		MessageManager.addInfo("User login %1$s (%2$s) creds were updated.", user.getLogin(), user.getFullName());
 
+		SpringContextHelper.getBeanByClass(UserListResponseCache.class).invalidateAfterCommit();
+
 		return new MessagesOnlyOutboundDto().build();
 	}
 }
@@ -5,73 +5,137 @@
  */
 package com.fusionalliance.internal.springboottemplate.service.user;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestAttribute;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
 import com.fusionalliance.internal.sharedspringboot.api.MessagesOnlyOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.api.RequestTypeHolder;
+import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
 import com.fusionalliance.internal.sharedspringboot.service.BaseController;
 import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedspringboot.service.SerializedResponse;
 import com.fusionalliance.internal.sharedspringboot.transaction.TransactionLayerFacade;
-import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.core.LimitedInputStream;
+import com.fusionalliance.internal.sharedutility.core.ValidationException;
+import com.fusionalliance.internal.sharedutility.core.WireFormat;
 import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
 import com.fusionalliance.internal.sharedutility.messagemanager.StandardCompletionStatus;
+import com.fusionalliance.internal.springboottemplate.api.user.UserBatchInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserBatchItemInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserImportInboundDto;
 import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserListOutboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserListSortOrder;
 import com.fusionalliance.internal.springboottemplate.api.user.UserRequestTypeHolder;
+import com.fusionalliance.internal.springboottemplate.business.cache.UserListResponseCache;
 import com.fusionalliance.internal.springboottemplate.business.entity.User;
 import com.fusionalliance.internal.springboottemplate.business.processor.user.UserAddProcessor;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserExportProcessor;
 import com.fusionalliance.internal.springboottemplate.business.processor.user.UserGetProcessor;
+import com.fusionalliance.internal.springboottemplate.business.processor.user.UserImportProcessor;
 import com.fusionalliance.internal.springboottemplate.business.processor.user.UserListProcessor;
 import com.fusionalliance.internal.springboottemplate.business.processor.user.UserUpdateCredsProcessor;
 import com.fusionalliance.internal.springboottemplate.business.processor.user.UserUpdateProcessor;
+import com.fusionalliance.internal.springboottemplate.transaction.ReplicaRoutingDataSource;
 
 /**
  * This class implements a RESTful controller for {@link User}-related endpoints.
+ * <p>
+ * The get and list endpoints return an ETag and honor If-None-Match with 304 Not Modified. The update endpoints honor If-Match with 412
+ * Precondition Failed, so clients can reject stale updates.
+ * <p>
+ * List responses are served from the {@link UserListResponseCache} until a User change commits. The export endpoint streams every User instead.
+ * <p>
+ * The batch endpoint runs many add and update requests in one transaction, paying for one connection checkout and one commit.
  */
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = HttpHeaders.ETAG)
 @RequestMapping("/rs/users")
 public class UserController extends BaseController {
 
+	private static final MediaType CSV_MEDIA_TYPE = MediaType.valueOf(UserImportParser.CSV_CONTENT_TYPE);
+	private static final MediaType NDJSON_MEDIA_TYPE = MediaType.valueOf(UserImportParser.NDJSON_CONTENT_TYPE);
+
 	private final TransactionLayerFacade transactionLayerFacade;
+	private final UserListResponseCache userListResponseCache;
+	private final long importMaxBytes;
+	private final int importMaxRows;
 
 	/**
 	 * Constructor
+	 * 
+	 * @param transactionLayerFacadeParm
+	 *            autowired
+	 * @param userListResponseCacheParm
+	 *            autowired
+	 * @param importMaxBytesParm
+	 *            user.import.maxBytes, the largest import file accepted
+	 * @param importMaxRowsParm
+	 *            user.import.maxRows, the most Users an import file may contain
 	 */
-	public UserController(@Autowired final TransactionLayerFacade transactionLayerFacadeParm) {
+	public UserController(@Autowired final TransactionLayerFacade transactionLayerFacadeParm,
+			@Autowired final UserListResponseCache userListResponseCacheParm, //
+			@Value("${user.import.maxBytes:16777216}") final long importMaxBytesParm, //
+			@Value("${user.import.maxRows:50000}") final int importMaxRowsParm //
+	) {
 		transactionLayerFacade = transactionLayerFacadeParm;
+		userListResponseCache = userListResponseCacheParm;
+		importMaxBytes = importMaxBytesParm;
+		importMaxRows = importMaxRowsParm;
 	}
 
 	/**
-	 * Return a User list. Requires admin.
+	 * Return a page of the User list. Requires admin.
 	 * <p>
-	 * The path query part must specify two params, includeDeativated=true|false, includeAdminOnly=true|false.
+	 * The path query part may specify includeDeativated=true|false, includeAdminOnly=true|false, sort=login|fullName|userKey, limit=1 to
+	 * {@value UserInboundDto#MAX_LIST_LIMIT}, and after=the nextCursor of the previous page. First pages are served from the
+	 * {@link UserListResponseCache}.
 	 * 
 	 * @param loginInfoParm
 	 * @param includeDeativatedParm
 	 * @param adminOnlyParm
-	 * @return
+	 * @param sortParm
+	 * @param limitParm
+	 * @param afterParm
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
 	 */
 	@GetMapping( //
 			path = { "" }, //
-			produces = "application/json" //
+			produces = { "application/json", "application/cbor" } //
 	)
-	String handleUserListRequest( //
+	void handleUserListRequest( //
 			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
 			@RequestParam("includeDeactivated") final Optional<Boolean> includeDeativatedParm, //
-			@RequestParam("includeAdminOnly") final Optional<Boolean> includeAdminOnlyParm //
-	) {
+			@RequestParam("includeAdminOnly") final Optional<Boolean> includeAdminOnlyParm, //
+			@RequestParam("sort") final Optional<String> sortParm, //
+			@RequestParam("limit") final Optional<Integer> limitParm, //
+			@RequestParam("after") final Optional<String> afterParm, //
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
 		MessageManager.initialize();
 
 		if (!loginInfoParm.isAdmin()) {
@@ -79,9 +143,111 @@ public class UserController extends BaseController {
 					loginInfoParm.getUserName());
 
 			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = noAuthOutboundDto.toJson();
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
 
-			return json;
+			return;
+		}
+
+		final UserListSortOrder sortOrder = UserListSortOrder.fromParameterValue(sortParm.orElse(UserListSortOrder.LOGIN.getParameterValue()));
+		if (sortOrder == null) {
+			MessageManager.addError("The sort order '%1$s' is unknown.", sortParm.get());
+
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final boolean includeDeactivated = includeDeativatedParm.orElse(Boolean.FALSE);
+		final boolean includeAdminOnly = includeAdminOnlyParm.orElse(Boolean.FALSE);
+		final int limit = limitParm.orElse(UserInboundDto.DEFAULT_LIST_LIMIT);
+		final String after = afterParm.orElse(null);
+		final WireFormat wireFormat = selectWireFormat(servletRequestParm);
+
+		// Only first pages are cached, which keeps the number of keys bounded
+		final UserListResponseCache.Key cacheKey = after == null
+				? new UserListResponseCache.Key(includeDeactivated, includeAdminOnly, loginInfoParm.isAdmin(), sortOrder, limit, wireFormat)
+				: null;
+
+		final SerializedResponse cachedResponse = cacheKey == null ? null : userListResponseCache.retrieve(cacheKey);
+		if (cachedResponse != null) {
+			writeResponse(cachedResponse, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final long generation = userListResponseCache.retrieveGeneration();
+		final long startNanos = System.nanoTime();
+
+		final UserInboundDto inboundDto = new UserInboundDto() //
+				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.LIST)) //
+				.loginInfo(loginInfoParm) //
+				.admin(includeAdminOnly) //
+				.deactivated(includeDeactivated) //
+				.sortOrder(sortOrder) //
+				.limit(limit) //
+				.after(after) //
+				.ifNoneMatch(readIfNoneMatch(servletRequestParm)) //
+				.build();
+
+		// A page that will be cached is read on the primary; a lagging replica could cache a stale page until the next invalidation
+		final UserListProcessor processor = new UserListProcessor(inboundDto);
+		final BaseOutboundDto<?> outboundDto = cacheKey == null //
+				? transactionLayerFacade.process(processor, false)
+				: ReplicaRoutingDataSource.runOnPrimary(() -> transactionLayerFacade.process(processor, false));
+
+		// Only a list is cached; not modified and failure responses are written as is
+		if (!(outboundDto instanceof UserListOutboundDto)) {
+			writeResponse(outboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final SerializedResponse serializedResponse = serializeResponse(outboundDto, wireFormat);
+		if (cacheKey != null) {
+			userListResponseCache.put(cacheKey, generation, serializedResponse, System.nanoTime() - startNanos);
+		}
+
+		writeResponse(serializedResponse, servletRequestParm, servletResponseParm);
+	}
+
+	/**
+	 * Export every User, in login order. Requires admin.
+	 * <p>
+	 * The path query part may specify includeDeativated=true|false, includeAdminOnly=true|false. The response is CSV if the caller prefers
+	 * {@value UserExportWriter#CSV_CONTENT_TYPE}, and NDJSON otherwise; see {@link UserExportWriter}. Each User is written as it is read from the
+	 * database cursor, so the export runs in constant memory and the client receives the first Users at once.
+	 * <p>
+	 * If the export fails after the response was committed, the response is truncated; otherwise, the messages are written instead.
+	 * 
+	 * @param loginInfoParm
+	 * @param includeDeativatedParm
+	 * @param adminOnlyParm
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
+	 */
+	@GetMapping( //
+			path = { "/export" }, //
+			produces = { UserExportWriter.NDJSON_CONTENT_TYPE, UserExportWriter.CSV_CONTENT_TYPE } //
+	)
+	void handleUserExportRequest( //
+			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
+			@RequestParam("includeDeactivated") final Optional<Boolean> includeDeativatedParm, //
+			@RequestParam("includeAdminOnly") final Optional<Boolean> includeAdminOnlyParm, //
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
+		MessageManager.initialize();
+
+		if (!loginInfoParm.isAdmin()) {
+			MessageManager.addError("Login '%1$s' ('%2$s') does not have permission to export users.", loginInfoParm.getLogin(),
+					loginInfoParm.getUserName());
+
+			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
 		}
 
 		final UserInboundDto inboundDto = new UserInboundDto() //
@@ -91,11 +257,53 @@ public class UserController extends BaseController {
 				.deactivated(includeDeativatedParm.orElse(Boolean.FALSE)) //
 				.build();
 
-		final UserListProcessor processor = new UserListProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, false);
-		final String json = outboundDto.toJson();
+		final boolean csv = isCsvPreferred(servletRequestParm.getHeader(HttpHeaders.ACCEPT));
+		addVaryAccept(servletResponseParm);
+		servletResponseParm.setContentType((csv ? UserExportWriter.CSV_CONTENT_TYPE : UserExportWriter.NDJSON_CONTENT_TYPE) + ";charset=UTF-8");
 
-		return json;
+		final BaseOutboundDto<?> outboundDto;
+		try (final UserExportWriter exportWriter = csv //
+				? UserExportWriter.openCsv(servletResponseParm.getOutputStream())
+				: UserExportWriter.openNdjson(servletResponseParm.getOutputStream())) {
+			outboundDto = transactionLayerFacade.process(new UserExportProcessor(inboundDto, exportWriter), false);
+		}
+
+		if (MessageManager.isError() && !servletResponseParm.isCommitted()) {
+			servletResponseParm.reset();
+			writeResponse(outboundDto, servletRequestParm, servletResponseParm);
+		}
+	}
+
+	/**
+	 * Return true if the Accept header prefers {@value UserExportWriter#CSV_CONTENT_TYPE} to {@value UserExportWriter#NDJSON_CONTENT_TYPE}.
+	 * 
+	 * @param acceptParm
+	 *            optional
+	 * @return
+	 */
+	private static boolean isCsvPreferred(final String acceptParm) {
+		if (acceptParm == null || !acceptParm.contains(UserExportWriter.CSV_CONTENT_TYPE)) {
+			return false;
+		}
+
+		try {
+			final List<MediaType> mediaTypes = MediaType.parseMediaTypes(acceptParm);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+			for (final MediaType mediaType : mediaTypes) {
+				if (CSV_MEDIA_TYPE.includes(mediaType)) {
+					return true;
+				}
+				if (NDJSON_MEDIA_TYPE.includes(mediaType)) {
+					return false;
+				}
+			}
+		}
+		catch (final InvalidMediaTypeException e) {
+			// Fall back to NDJSON
+		}
+
+		return false;
 	}
 
 	/**
@@ -103,16 +311,20 @@ public class UserController extends BaseController {
 	 * 
 	 * @param loginInfoParm
 	 * @param userKeyParm
-	 * @return
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
 	 */
 	@GetMapping( //
 			path = { "/userKey/{userKey}" }, //
-			produces = "application/json" //
+			produces = { "application/json", "application/cbor" } //
 	)
-	String handleUserGetRequest( //
+	void handleUserGetRequest( //
 			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
-			@PathVariable("userKey") final long userKeyParm //
-	) {
+			@PathVariable("userKey") final long userKeyParm, //
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
 		MessageManager.initialize();
 
 		if (!loginInfoParm.isAdmin()) {
@@ -120,22 +332,20 @@ public class UserController extends BaseController {
 					loginInfoParm.getUserName());
 
 			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = noAuthOutboundDto.toJson();
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
 
-			return json;
+			return;
 		}
 
 		final UserInboundDto inboundDto = new UserInboundDto() //
 				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.GET)) //
 				.loginInfo(loginInfoParm) //
 				.userKey(userKeyParm) //
+				.ifNoneMatch(readIfNoneMatch(servletRequestParm)) //
 				.build();
 
 		final UserGetProcessor processor = new UserGetProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, false);
-		final String json = outboundDto.toJson();
-
-		return json;
+		writeResponse(transactionLayerFacade.process(processor, false), servletRequestParm, servletResponseParm);
 	}
 
 	/**
@@ -146,16 +356,19 @@ public class UserController extends BaseController {
 	 * @param loginInfoParm
 	 * @param includeDeativatedParm
 	 * @param adminOnlyParm
-	 * @return
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
 	 */
 	@PostMapping( //
 			path = { "" }, //
-			produces = "application/json" //
+			produces = { "application/json", "application/cbor" } //
 	)
-	String handleUserAddRequest( //
+	void handleUserAddRequest( //
 			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
-			@RequestBody() final String requestJsonParm //
-	) {
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
 		MessageManager.initialize();
 
 		if (!loginInfoParm.isAdmin()) {
@@ -163,21 +376,180 @@ public class UserController extends BaseController {
 					loginInfoParm.getUserName());
 
 			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = noAuthOutboundDto.toJson();
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
 
-			return json;
+		final UserInboundDto requestDto = readInboundDto(servletRequestParm, UserInboundDto.class);
+		if (requestDto == null) {
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
 		}
 
-		final UserInboundDto inboundDto = GsonHelper.GSON.fromJson(requestJsonParm, UserInboundDto.class) //
+		final UserInboundDto inboundDto = requestDto //
 				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.ADD)) //
 				.loginInfo(loginInfoParm) //
 				.build();
 
 		final UserAddProcessor processor = new UserAddProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, true);
-		final String json = outboundDto.toJson();
+		writeResponse(transactionLayerFacade.process(processor, true), servletRequestParm, servletResponseParm);
+	}
+
+	/**
+	 * Add the Users of an import file. Requires admin.
+	 * <p>
+	 * The body is NDJSON or CSV, as the Content-Type specifies; see {@link UserImportParser}. It is parsed as it is read, before the transaction
+	 * starts, so no connection is held while the file is uploaded. The import is all or nothing: if any row is rejected, no User is added, and an
+	 * error message for each rejected row has the row as its entity key.
+	 * 
+	 * @param loginInfoParm
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
+	 */
+	@PostMapping( //
+			path = { "/import" }, //
+			consumes = { UserImportParser.NDJSON_CONTENT_TYPE, UserImportParser.CSV_CONTENT_TYPE }, //
+			produces = { "application/json", "application/cbor" } //
+	)
+	void handleUserImportRequest( //
+			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
+		MessageManager.initialize();
+
+		if (!loginInfoParm.isAdmin()) {
+			MessageManager.addError("Login '%1$s' ('%2$s') does not have permission to import users.", loginInfoParm.getLogin(),
+					loginInfoParm.getUserName());
+
+			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
 
-		return json;
+		if (servletRequestParm.getContentLengthLong() > importMaxBytes) {
+			MessageManager.addError("The request body exceeds the limit of %1$d bytes.", importMaxBytes);
+
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final UserImportInboundDto requestDto = new UserImportInboundDto();
+		final UserImportParser parser = new UserImportParser(requestDto, loginInfoParm, importMaxRows);
+		try {
+			final LimitedInputStream inputStream = new LimitedInputStream(servletRequestParm.getInputStream(), importMaxBytes);
+			if (CSV_MEDIA_TYPE.includes(MediaType.parseMediaType(servletRequestParm.getContentType()))) {
+				parser.parseCsv(inputStream);
+			}
+			else {
+				parser.parseNdjson(inputStream, getJsonReadLimits());
+			}
+		}
+		catch (final ValidationException e) {
+			MessageManager.addError("The request body was rejected. %1$s", e.getMessage());
+
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final UserImportInboundDto inboundDto = requestDto //
+				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.IMPORT)) //
+				.loginInfo(loginInfoParm) //
+				.build();
+
+		final UserImportProcessor processor = new UserImportProcessor(inboundDto);
+		writeResponse(transactionLayerFacade.process(processor, true), servletRequestParm, servletResponseParm);
+	}
+
+	/**
+	 * Run a batch of User add, update and creds update requests in one transaction, in order. Requires admin.
+	 * <p>
+	 * The body is a {@link UserBatchInboundDto}; each item supplies its If-Match value in its ifMatch field, and the userKey of an update in its
+	 * user. The response carries the messages of each item, in order, and messages summarizing the batch. If savepointPerItem is true, a failed item
+	 * is rolled back to a savepoint and the others are committed; otherwise, a failed item rolls back the batch and the rest are not run.
+	 * 
+	 * @param loginInfoParm
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
+	 */
+	@PostMapping( //
+			path = { "/batch" }, //
+			produces = { "application/json", "application/cbor" } //
+	)
+	void handleUserBatchRequest( //
+			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
+		MessageManager.initialize();
+
+		if (!loginInfoParm.isAdmin()) {
+			MessageManager.addError("Login '%1$s' ('%2$s') does not have permission to run user batches.", loginInfoParm.getLogin(),
+					loginInfoParm.getUserName());
+
+			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final UserBatchInboundDto requestDto = readInboundDto(servletRequestParm, UserBatchInboundDto.class);
+		if (requestDto == null) {
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final UserBatchInboundDto inboundDto = requestDto //
+				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.BATCH)) //
+				.loginInfo(loginInfoParm) //
+				.build();
+
+		if (inboundDto.isValidationErrors()) {
+			for (final String validationError : inboundDto.getValidationErrors()) {
+				MessageManager.addError(validationError);
+			}
+
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final List<BusinessProcessor<UserInboundDto>> processors = new ArrayList<>();
+		for (final UserBatchItemInboundDto item : inboundDto.getItemList()) {
+			final UserInboundDto userInboundDto = item.getUser() //
+					.requestTypeHolder(new UserRequestTypeHolder(item.getRequestType())) //
+					.loginInfo(loginInfoParm) //
+					.ifMatch(normalizeIfMatch(item.getIfMatch())) //
+					.build();
+
+			switch (item.getRequestType()) {
+			case RequestTypeHolder.ADD:
+				processors.add(new UserAddProcessor(userInboundDto));
+				break;
+			case RequestTypeHolder.UPDATE:
+				processors.add(new UserUpdateProcessor(userInboundDto));
+				break;
+			default:
+				processors.add(new UserUpdateCredsProcessor(userInboundDto));
+				break;
+			}
+		}
+
+		writeResponse(transactionLayerFacade.processBatch(processors, true, inboundDto.isSavepointPerItem()), servletRequestParm,
+				servletResponseParm);
 	}
 
 	/**
@@ -188,17 +560,20 @@ public class UserController extends BaseController {
 	 * @param loginInfoParm
 	 * @param includeDeativatedParm
 	 * @param adminOnlyParm
-	 * @return
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
 	 */
 	@PatchMapping( //
 			path = { "/userKey/{userKey}" }, //
-			produces = "application/json" //
+			produces = { "application/json", "application/cbor" } //
 	)
-	String handleUserUpdateRequest( //
+	void handleUserUpdateRequest( //
 			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
 			@PathVariable("userKey") final long userKeyParm, //
-			@RequestBody() final String requestJsonParm //
-	) {
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
 		MessageManager.initialize();
 
 		if (!loginInfoParm.isAdmin()) {
@@ -206,22 +581,28 @@ public class UserController extends BaseController {
 					loginInfoParm.getUserName());
 
 			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = noAuthOutboundDto.toJson();
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
 
-			return json;
+		final UserInboundDto requestDto = readInboundDto(servletRequestParm, UserInboundDto.class);
+		if (requestDto == null) {
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
 		}
 
-		final UserInboundDto inboundDto = GsonHelper.GSON.fromJson(requestJsonParm, UserInboundDto.class) //
+		final UserInboundDto inboundDto = requestDto //
 				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.UPDATE)) //
 				.loginInfo(loginInfoParm) //
 				.userKey(userKeyParm) //
+				.ifMatch(readIfMatch(servletRequestParm)) //
 				.build();
 
 		final UserUpdateProcessor processor = new UserUpdateProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, true);
-		final String json = outboundDto.toJson();
-
-		return json;
+		writeResponse(transactionLayerFacade.process(processor, true), servletRequestParm, servletResponseParm);
 	}
 
 	/**
@@ -230,17 +611,20 @@ public class UserController extends BaseController {
 	 * @param loginInfoParm
 	 * @param includeDeativatedParm
 	 * @param adminOnlyParm
-	 * @return
+	 * @param servletRequestParm
+	 * @param servletResponseParm
+	 * @throws IOException
 	 */
 	@PatchMapping( //
 			path = { "/userKey/{userKey}/creds" }, //
-			produces = "application/json" //
+			produces = { "application/json", "application/cbor" } //
 	)
-	String handleUserCredsUpdateRequest( //
+	void handleUserCredsUpdateRequest( //
 			@RequestAttribute("loginInfo") final LoginInfo loginInfoParm, //
 			@PathVariable("userKey") final long userKeyParm, //
-			@RequestBody() final String requestJsonParm //
-	) {
+			final HttpServletRequest servletRequestParm, //
+			final HttpServletResponse servletResponseParm //
+	) throws IOException {
 		MessageManager.initialize();
 
 		if (!loginInfoParm.isAdmin()) {
@@ -248,20 +632,27 @@ public class UserController extends BaseController {
 					loginInfoParm.getUserName());
 
 			final MessagesOnlyOutboundDto noAuthOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
-			final String json = noAuthOutboundDto.toJson();
+			writeResponse(noAuthOutboundDto, servletRequestParm, servletResponseParm);
 
-			return json;
+			return;
 		}
 
-		final UserInboundDto inboundDto = GsonHelper.GSON.fromJson(requestJsonParm, UserInboundDto.class) //
+		final UserInboundDto requestDto = readInboundDto(servletRequestParm, UserInboundDto.class);
+		if (requestDto == null) {
+			final MessagesOnlyOutboundDto rejectedOutboundDto = generateOutboundDtoFromMessageManager(StandardCompletionStatus.INVALID_REQUEST);
+			writeResponse(rejectedOutboundDto, servletRequestParm, servletResponseParm);
+
+			return;
+		}
+
+		final UserInboundDto inboundDto = requestDto //
 				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.UPDATE_CREDS)) //
+				.loginInfo(loginInfoParm) //
 				.userKey(userKeyParm) //
+				.ifMatch(readIfMatch(servletRequestParm)) //
 				.build();
 
 		final UserUpdateCredsProcessor processor = new UserUpdateCredsProcessor(inboundDto);
-		final BaseOutboundDto<?> outboundDto = transactionLayerFacade.process(processor, true);
-		final String json = outboundDto.toJson();
-
-		return json;
+		writeResponse(transactionLayerFacade.process(processor, true), servletRequestParm, servletResponseParm);
 	}
 }
@@ -0,0 +1,111 @@
+package com.fusionalliance.internal.springboottemplate.service.user;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fusionalliance.internal.sharedspringboot.business.JdbcRowHandler;
+import com.fusionalliance.internal.sharedutility.core.CsvWriter;
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.core.Utf8StreamWriter;
+import com.fusionalliance.internal.springboottemplate.business.dao.UserSummary;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * This class writes exported {@link UserSummary} rows to an OutputStream as they are handed over, encoded as UTF-8, in one of two formats.
+ * <ul>
+ * <li>{@link #NDJSON_CONTENT_TYPE}, one JSON object per line, with the field names of UserOutboundDto</li>
+ * <li>{@link #CSV_CONTENT_TYPE}, a header, then one record per User</li>
+ * </ul>
+ * The output passes through a fixed-size buffer, so memory use does not depend on the number of rows. Closing an instance flushes it, but does not
+ * close the OutputStream.
+ */
+final class UserExportWriter implements JdbcRowHandler<UserSummary>, Closeable {
+	static final String NDJSON_CONTENT_TYPE = UserImportParser.NDJSON_CONTENT_TYPE;
+	static final String CSV_CONTENT_TYPE = UserImportParser.CSV_CONTENT_TYPE;
+
+	private static final String[] CSV_HEADER = { "userKey", "login", "fullName", "description", "admin", "deactivated" };
+
+	private final Utf8StreamWriter writer;
+	/** Null when writing CSV */
+	private final JsonWriter jsonWriter;
+	/** Null when writing NDJSON */
+	private final CsvWriter csvWriter;
+
+	/**
+	 * Open a writer of NDJSON.
+	 *
+	 * @param outputStreamParm
+	 *            required
+	 * @return
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	static UserExportWriter openNdjson(final OutputStream outputStreamParm) throws IOException {
+		final Utf8StreamWriter writer = Utf8StreamWriter.open(outputStreamParm);
+
+		final JsonWriter jsonWriter = GsonHelper.GSON.newJsonWriter(writer);
+		// Allows a top-level value per line
+		jsonWriter.setLenient(true);
+
+		return new UserExportWriter(writer, jsonWriter, null);
+	}
+
+	/**
+	 * Open a writer of CSV, writing the header.
+	 *
+	 * @param outputStreamParm
+	 *            required
+	 * @return
+	 * @throws IOException
+	 *             if the OutputStream cannot be written
+	 */
+	static UserExportWriter openCsv(final OutputStream outputStreamParm) throws IOException {
+		final Utf8StreamWriter writer = Utf8StreamWriter.open(outputStreamParm);
+
+		final CsvWriter csvWriter = new CsvWriter(writer);
+		csvWriter.writeRecord(CSV_HEADER);
+
+		return new UserExportWriter(writer, null, csvWriter);
+	}
+
+	/**
+	 * Restricted constructor
+	 */
+	private UserExportWriter(final Utf8StreamWriter writerParm, final JsonWriter jsonWriterParm, final CsvWriter csvWriterParm) {
+		writer = writerParm;
+		jsonWriter = jsonWriterParm;
+		csvWriter = csvWriterParm;
+	}
+
+	@Override
+	public void handleRow(final UserSummary userParm) throws IOException {
+		if (csvWriter != null) {
+			csvWriter.writeRecord( //
+					Long.toString(userParm.getUserKey()), //
+					userParm.getLogin(), //
+					userParm.getFullName(), //
+					userParm.getDescription(), //
+					Boolean.toString(userParm.isAdmin()), //
+					Boolean.toString(userParm.isDeactivated()) //
+			);
+
+			return;
+		}
+
+		jsonWriter.beginObject() //
+				.name("userKey").value(userParm.getUserKey()) //
+				.name("login").value(userParm.getLogin()) //
+				.name("fullName").value(userParm.getFullName()) //
+				.name("description").value(userParm.getDescription()) //
+				.name("admin").value(userParm.isAdmin()) //
+				.name("deactivated").value(userParm.isDeactivated()) //
+				.endObject();
+		writer.write('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
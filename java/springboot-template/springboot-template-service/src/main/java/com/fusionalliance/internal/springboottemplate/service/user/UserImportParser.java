@@ -0,0 +1,218 @@
+package com.fusionalliance.internal.springboottemplate.service.user;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedutility.core.CsvReader;
+import com.fusionalliance.internal.sharedutility.core.GsonHelper;
+import com.fusionalliance.internal.sharedutility.core.JsonReadLimits;
+import com.fusionalliance.internal.sharedutility.core.ValidationException;
+import com.fusionalliance.internal.sharedutility.messagemanager.MessageManager;
+import com.fusionalliance.internal.springboottemplate.api.user.UserImportInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserInboundDto;
+import com.fusionalliance.internal.springboottemplate.api.user.UserRequestTypeHolder;
+
+/**
+ * This class parses an uploaded User import file into a {@link UserImportInboundDto}, one row at a time, as the request body is read. Each User is
+ * built as an ADD {@link UserInboundDto}; rows that cannot be parsed are reported by an error message whose entity key is the row.
+ * <p>
+ * Two formats are supported.
+ * <ul>
+ * <li>{@link #NDJSON_CONTENT_TYPE}, one UserInboundDto JSON object per line</li>
+ * <li>{@link #CSV_CONTENT_TYPE}, a header naming some of the columns login, fullName, description, admin, existingCreds, updateToCreds, in any
+ * order, then one User per record</li>
+ * </ul>
+ * Parsing stops when the maximum number of rows is exceeded, which is an error, or {@value UserImportInboundDto#MAX_REJECTED_ROWS} rows are
+ * rejected.
+ */
+final class UserImportParser {
+	static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+	static final String CSV_CONTENT_TYPE = "text/csv";
+
+	private static final String USER_ENTITY = "User";
+
+	private final UserImportInboundDto importInboundDto;
+	private final LoginInfo loginInfo;
+	private final int maxRows;
+	private long row;
+	private int rejectedRowCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param importInboundDtoParm
+	 *            required, not built; receives the Users and the rejected row count
+	 * @param loginInfoParm
+	 *            required
+	 * @param maxRowsParm
+	 *            maximum number of Users in the file
+	 */
+	UserImportParser(final UserImportInboundDto importInboundDtoParm, final LoginInfo loginInfoParm, final int maxRowsParm) {
+		importInboundDto = importInboundDtoParm;
+		loginInfo = loginInfoParm;
+		maxRows = maxRowsParm;
+	}
+
+	/**
+	 * Parse NDJSON. Each line is limited as a JSON request body would be.
+	 *
+	 * @param inputStreamParm
+	 *            required
+	 * @param limitsParm
+	 *            required, the limits of each line
+	 * @throws ValidationException
+	 *             if the InputStream exceeds a byte limit
+	 * @throws IOException
+	 */
+	void parseNdjson(final InputStream inputStreamParm, final JsonReadLimits limitsParm) throws IOException {
+		final InputStream inputStream = new BufferedInputStream(inputStreamParm);
+		final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+		int character;
+		do {
+			character = inputStream.read();
+			if (character != '\n' && character != -1) {
+				line.write(character);
+
+				continue;
+			}
+
+			final byte[] lineBytes = line.toByteArray();
+			line.reset();
+
+			if (StringUtils.isBlank(new String(lineBytes, StandardCharsets.UTF_8)) || !startRow()) {
+				continue;
+			}
+
+			try {
+				addUser(GsonHelper.readJson(new ByteArrayInputStream(lineBytes), UserInboundDto.class, limitsParm));
+			}
+			catch (final ValidationException e) {
+				rejectRow(null, e.getMessage());
+			}
+		}
+		while (character != -1 && isParsing());
+
+		importInboundDto.rejectedRowCount(rejectedRowCount);
+	}
+
+	/**
+	 * Parse CSV encoded as UTF-8.
+	 *
+	 * @param inputStreamParm
+	 *            required
+	 * @throws ValidationException
+	 *             if the InputStream exceeds a byte limit, or a quoted field is not terminated
+	 * @throws IOException
+	 */
+	void parseCsv(final InputStream inputStreamParm) throws IOException {
+		final CsvReader csvReader = new CsvReader(new InputStreamReader(inputStreamParm, StandardCharsets.UTF_8));
+
+		final List<String> header = csvReader.readRecord();
+		if (header == null) {
+			return;
+		}
+
+		final Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			final String column = header.get(i).trim();
+			switch (column) {
+			case "login":
+			case "fullName":
+			case "description":
+			case "admin":
+			case "existingCreds":
+			case "updateToCreds":
+				columnIndexes.put(column, i);
+				break;
+			default:
+				MessageManager.addError("The CSV column '%1$s' is unknown.", column);
+
+				return;
+			}
+		}
+
+		List<String> record;
+		while (isParsing() && (record = csvReader.readRecord()) != null) {
+			if ((record.size() == 1 && record.get(0).isEmpty()) || !startRow()) {
+				continue;
+			}
+
+			if (record.size() != header.size()) {
+				rejectRow(null, String.format("The row has %1$d fields; the header has %2$d.", record.size(), header.size()));
+
+				continue;
+			}
+
+			final String admin = readField(record, columnIndexes, "admin");
+			if (admin != null && !admin.isEmpty() && !admin.equalsIgnoreCase("true") && !admin.equalsIgnoreCase("false")) {
+				rejectRow("admin", String.format("The admin value '%1$s' is not true or false.", admin));
+
+				continue;
+			}
+
+			addUser(new UserInboundDto() //
+					.login(readField(record, columnIndexes, "login")) //
+					.fullName(readField(record, columnIndexes, "fullName")) //
+					.description(readField(record, columnIndexes, "description")) //
+					.admin(Boolean.parseBoolean(admin)) //
+					.existingCreds(readField(record, columnIndexes, "existingCreds")) //
+					.updateToCreds(readField(record, columnIndexes, "updateToCreds")) //
+			);
+		}
+
+		importInboundDto.rejectedRowCount(rejectedRowCount);
+	}
+
+	/**
+	 * Count a row; return false, after adding an error, if it exceeds the maximum.
+	 *
+	 * @return
+	 */
+	private boolean startRow() {
+		if (++row <= maxRows) {
+			return true;
+		}
+
+		MessageManager.addError("The import exceeds the limit of %1$d users.", maxRows);
+
+		return false;
+	}
+
+	private boolean isParsing() {
+		return row <= maxRows && rejectedRowCount < UserImportInboundDto.MAX_REJECTED_ROWS;
+	}
+
+	private void addUser(final UserInboundDto userInboundDtoParm) {
+		importInboundDto.addUser(row, userInboundDtoParm //
+				.requestTypeHolder(new UserRequestTypeHolder(UserRequestTypeHolder.ADD)) //
+				.loginInfo(loginInfo) //
+				.build());
+	}
+
+	private void rejectRow(final String fieldParm, final String reasonParm) {
+		rejectedRowCount++;
+
+		MessageManager.addErrorEntity("Row %1$d was rejected. %2$s", USER_ENTITY, row, fieldParm, row, reasonParm);
+	}
+
+	/**
+	 * Return the field of the column, or null if the header does not name the column.
+	 */
+	private static String readField(final List<String> recordParm, final Map<String, Integer> columnIndexesParm, final String columnParm) {
+		final Integer columnIndex = columnIndexesParm.get(columnParm);
+
+		return columnIndex == null ? null : recordParm.get(columnIndex);
+	}
+}
@@ -0,0 +1,195 @@
+package com.fusionalliance.internal.springboottemplate.transaction;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * This class routes the connections of read-only transactions to replica DataSources, typically PostgreSQL streaming replicas, and all other
+ * connections to the primary DataSource.
+ * <p>
+ * The lag of each replica is checked periodically. A read-only transaction goes to the next replica, round robin, whose lag is known and within the
+ * maximum; if there is none, it falls back to the primary. A replica is unused until its first check, and whenever a check fails.
+ * <p>
+ * The route is chosen when a connection is obtained, so this DataSource must be wrapped in a {@link LazyConnectionDataSourceProxy}: the
+ * transaction manager obtains its connection before the transaction is marked read-only, and the proxy defers it to the first statement.
+ * <p>
+ * Code that must read the latest committed state, such as a read that fills a cache, runs in {@link #runOnPrimary(Supplier)}.
+ * <p>
+ * This class is thread safe.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	private static final String PRIMARY_KEY = "primary";
+	/** The lag in milliseconds; 0 when everything received is replayed, which keeps an idle replica from looking stale */
+	private static final String LAG_QUERY = "select cast(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0" //
+			+ " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end as bigint)";
+	private static final long NOT_CHECKED = -1;
+	private static final long UNKNOWN_LAG = Long.MAX_VALUE;
+	private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+	private final List<DataSource> replicas;
+	private final AtomicLongArray replicaLagMillis;
+	private final AtomicInteger nextReplica = new AtomicInteger();
+	private final long maxLagMillis;
+	private final long lagCheckIntervalMillis;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Constructor
+	 *
+	 * @param primaryParm
+	 *            required
+	 * @param replicasParm
+	 *            required, may be empty
+	 * @param maxLagMillisParm
+	 *            not negative; replicas lagging more are not used
+	 * @param lagCheckIntervalMillisParm
+	 *            positive
+	 */
+	public ReplicaRoutingDataSource(final DataSource primaryParm, final List<DataSource> replicasParm, final long maxLagMillisParm,
+			final long lagCheckIntervalMillisParm) {
+		ValidationUtility.checkObjectNotNull("The primary DataSource is null.", primaryParm);
+		ValidationUtility.checkObjectNotNull("The replica DataSources are null.", replicasParm);
+		ValidationUtility.checkBadConditionNotMet("The maximum lag is negative.", maxLagMillisParm < 0);
+		ValidationUtility.checkGoodConditionMet("The lag check interval is not positive.", lagCheckIntervalMillisParm > 0);
+
+		replicas = new ArrayList<>(replicasParm);
+		replicaLagMillis = new AtomicLongArray(replicas.size());
+		maxLagMillis = maxLagMillisParm;
+		lagCheckIntervalMillis = lagCheckIntervalMillisParm;
+
+		final Map<Object, Object> targetDataSources = new HashMap<>();
+		targetDataSources.put(PRIMARY_KEY, primaryParm);
+		for (int i = 0; i < replicas.size(); i++) {
+			targetDataSources.put(i, replicas.get(i));
+			replicaLagMillis.set(i, NOT_CHECKED);
+		}
+
+		setTargetDataSources(targetDataSources);
+		setDefaultTargetDataSource(primaryParm);
+	}
+
+	/**
+	 * Run the supplier with every connection it obtains on the current thread routed to the primary, including those of read-only transactions.
+	 *
+	 * @param supplierParm
+	 *            required
+	 * @return the result of the supplier
+	 */
+	public static <T> T runOnPrimary(final Supplier<T> supplierParm) {
+		ValidationUtility.checkObjectNotNull("The supplier is null.", supplierParm);
+
+		final Boolean previous = PRIMARY_REQUIRED.get();
+		PRIMARY_REQUIRED.set(Boolean.TRUE);
+		try {
+			return supplierParm.get();
+		}
+		finally {
+			if (previous == null) {
+				PRIMARY_REQUIRED.remove();
+			}
+		}
+	}
+
+	/**
+	 * Resolve the DataSources, and start checking the replica lag if there are replicas.
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+
+		if (replicas.isEmpty()) {
+			return;
+		}
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder() //
+				.setNameFormat("replica-lag-check-%d") //
+				.setDaemon(true) //
+				.build());
+
+		scheduler.scheduleWithFixedDelay(this::checkReplicaLag, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop checking the replica lag.
+	 */
+	public void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (replicas.isEmpty() || PRIMARY_REQUIRED.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY_KEY;
+		}
+
+		final int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			final int replicaIndex = (start + i) % replicas.size();
+
+			final long lagMillis = replicaLagMillis.get(replicaIndex);
+			if (lagMillis != NOT_CHECKED && lagMillis <= maxLagMillis) {
+				return replicaIndex;
+			}
+		}
+
+		return PRIMARY_KEY;
+	}
+
+	private void checkReplicaLag() {
+		for (int i = 0; i < replicas.size(); i++) {
+			long lagMillis;
+			try (final Connection connection = replicas.get(i).getConnection(); //
+					final Statement statement = connection.createStatement()) {
+				statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(lagCheckIntervalMillis)));
+
+				try (final ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+					resultSet.next();
+					lagMillis = resultSet.getLong(1);
+				}
+			}
+			catch (final SQLException | RuntimeException e) {
+				lagMillis = UNKNOWN_LAG;
+
+				// Logged once per outage, not once per check
+				if (replicaLagMillis.get(i) != UNKNOWN_LAG) {
+					LOG.warn("Replica {} cannot be checked and will not be used until it can: {}", i, e.toString());
+				}
+			}
+
+			final long previousLagMillis = replicaLagMillis.getAndSet(i, lagMillis);
+			if (lagMillis <= maxLagMillis && (previousLagMillis == NOT_CHECKED || previousLagMillis > maxLagMillis)) {
+				LOG.info("Replica {} is in use, lagging {} ms.", i, lagMillis);
+			}
+			else if (lagMillis > maxLagMillis && lagMillis != UNKNOWN_LAG && previousLagMillis <= maxLagMillis) {
+				LOG.warn("Replica {} is lagging {} ms and will not be used until it catches up.", i, lagMillis);
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.fusionalliance.internal.springboottemplate.transaction;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fusionalliance.internal.sharedspringboot.api.BaseOutboundDto;
+import com.fusionalliance.internal.sharedspringboot.business.BusinessProcessor;
+import com.fusionalliance.internal.sharedspringboot.service.LoginInfo;
+import com.fusionalliance.internal.sharedspringboot.transaction.TransactionLayer;
+import com.fusionalliance.internal.sharedutility.core.ValidationUtility;
+import com.fusionalliance.internal.sharedutility.messagemanager.Messages;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * This class extends {@link TransactionLayer} so that a login reads its own writes while read-only transactions are routed to replicas by
+ * {@link ReplicaRoutingDataSource}. For a window after an updatable transaction of a login commits, the read-only transactions of that login run on
+ * the primary, so they cannot miss the changes on a lagging replica. The window should exceed the maximum replica lag plus the lag check interval.
+ * <p>
+ * Only the writes of this node are known; a login whose requests are spread across nodes may read stale data for up to the maximum lag.
+ */
+@Component
+@Primary
+public class ReplicaRoutingTransactionLayer extends TransactionLayer {
+	private static final String TRANSACTION_MANAGER_NAME = "defaultTransactionManager";
+
+	/** Logins whose latest write committed within the window */
+	private final Cache<String, Boolean> recentWriterCache;
+
+	/**
+	 * Constructor
+	 *
+	 * @param stickyMillisParm
+	 *            persistence.replica.stickyMillis, the read-your-writes window; 0 disables it
+	 */
+	public ReplicaRoutingTransactionLayer(@Value("${persistence.replica.stickyMillis:5000}") final long stickyMillisParm) {
+		ValidationUtility.checkBadConditionNotMet("The sticky window is negative.", stickyMillisParm < 0);
+
+		recentWriterCache = CacheBuilder.newBuilder() //
+				.expireAfterWrite(stickyMillisParm, TimeUnit.MILLISECONDS) //
+				.build();
+	}
+
+	@Override
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME)
+	public BaseOutboundDto<?> processUpdateable(final BusinessProcessor<?> processorParm) {
+		recordWritesAfterCommit(Collections.singletonList(processorParm));
+
+		return super.processUpdateable(processorParm);
+	}
+
+	@Override
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME, readOnly = true)
+	public BaseOutboundDto<?> processReadOnly(final BusinessProcessor<?> processorParm) {
+		if (!isRecentWriter(Collections.singletonList(processorParm))) {
+			return super.processReadOnly(processorParm);
+		}
+
+		return ReplicaRoutingDataSource.runOnPrimary(() -> super.processReadOnly(processorParm));
+	}
+
+	@Override
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME)
+	public List<Messages> processBatchUpdateable(final List<? extends BusinessProcessor<?>> processorsParm, final boolean savepointPerItemParm) {
+		recordWritesAfterCommit(processorsParm);
+
+		return super.processBatchUpdateable(processorsParm, savepointPerItemParm);
+	}
+
+	@Override
+	@Transactional(transactionManager = TRANSACTION_MANAGER_NAME, readOnly = true)
+	public List<Messages> processBatchReadOnly(final List<? extends BusinessProcessor<?>> processorsParm, final boolean savepointPerItemParm) {
+		if (!isRecentWriter(processorsParm)) {
+			return super.processBatchReadOnly(processorsParm, savepointPerItemParm);
+		}
+
+		return ReplicaRoutingDataSource.runOnPrimary(() -> super.processBatchReadOnly(processorsParm, savepointPerItemParm));
+	}
+
+	/**
+	 * Start the window of the logins of the processors once the current transaction commits.
+	 */
+	private void recordWritesAfterCommit(final Collection<? extends BusinessProcessor<?>> processorsParm) {
+		final Set<String> logins = retrieveLogins(processorsParm);
+		if (logins.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				for (final String login : logins) {
+					recentWriterCache.put(login, Boolean.TRUE);
+				}
+			}
+		});
+	}
+
+	private boolean isRecentWriter(final Collection<? extends BusinessProcessor<?>> processorsParm) {
+		for (final String login : retrieveLogins(processorsParm)) {
+			if (recentWriterCache.getIfPresent(login) != null) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static Set<String> retrieveLogins(final Collection<? extends BusinessProcessor<?>> processorsParm) {
+		return processorsParm.stream() //
+				.map(BusinessProcessor::getLoginInfo) //
+				.filter(loginInfo -> loginInfo != null && loginInfo.getLogin() != null) //
+				.map(LoginInfo::getLogin) //
+				.collect(Collectors.toSet());
+	}
+}